@@ -0,0 +1,68 @@
+/**
+ * Vector Range Kernel
+ * Range filter on the incubating Vector API. Each step compares a whole
+ * vector of rows against both bounds and writes the lane mask into the
+ * selection bitmap. The lane count always divides 64, so a mask never
+ * straddles two bitmap words.
+ *
+ * This class needs the jdk.incubator.vector module, both to compile and to
+ * run (javac/java --add-modules jdk.incubator.vector), so it lives in its own
+ * source root and is compiled after src (see the README). Nothing refers to
+ * it directly: MovieColumns loads it by name, only when the cms.vectorKernel
+ * system property is true, and uses ScalarRangeKernel otherwise.
+ */
+
+package src.primaryUseCases.browseMovies.simd;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+import src.primaryUseCases.browseMovies.RangeKernel;
+
+public class VectorRangeKernel implements RangeKernel {
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS = IntVector.SPECIES_PREFERRED;
+
+    @Override
+    public void selectBetween(double[] column, int count, double min, double max, long[] selection) {
+        int lanes = DOUBLES.length();
+        int bound = DOUBLES.loopBound(count);
+        int i = 0;
+        for (; i < bound; i += lanes) {
+            DoubleVector values = DoubleVector.fromArray(DOUBLES, column, i);
+            long mask = values.compare(VectorOperators.GE, min)
+                    .and(values.compare(VectorOperators.LE, max))
+                    .toLong();
+            selection[i >>> 6] |= mask << (i & 63);
+        }
+        for (; i < count; i++) {
+            double value = column[i];
+            selection[i >>> 6] |= (value >= min & value <= max ? 1L : 0L) << (i & 63);
+        }
+    }
+
+    @Override
+    public void selectBetween(int[] column, int count, int min, int max, long[] selection) {
+        int lanes = INTS.length();
+        int bound = INTS.loopBound(count);
+        int i = 0;
+        for (; i < bound; i += lanes) {
+            IntVector values = IntVector.fromArray(INTS, column, i);
+            long mask = values.compare(VectorOperators.GE, min)
+                    .and(values.compare(VectorOperators.LE, max))
+                    .toLong();
+            selection[i >>> 6] |= mask << (i & 63);
+        }
+        for (; i < count; i++) {
+            int value = column[i];
+            selection[i >>> 6] |= (value >= min & value <= max ? 1L : 0L) << (i & 63);
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "vector (" + DOUBLES.vectorBitSize() + " bit)";
+    }
+}
@@ -0,0 +1,253 @@
+/*
+* Change feed of the movie catalog.
+Every change gets the next number of a running sequence: a movie added to the
+catalog, a movie whose details were edited, a movie whose showtimes changed, or
+the whole list being replaced (new dataStore(), setMovies). Subscribers each
+get a bounded queue of changes, so caches and indexes can catch up on what
+changed instead of rescanning the catalog.
+Movies added straight to dataStore.getMovies() are noticed the next time the
+feed is used, the same way catalogIndex notices them.
+A subscriber that falls too far behind loses its queue and is told to rebuild;
+a subscriber that reconnects can resume after the last sequence it saw as long
+as the feed still remembers it.
+*/
+
+package src;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import src.dataStore.Movie;
+
+public class catalogChangeFeed {
+
+    public static final int DEFAULT_HISTORY = 1024; // Changes kept for subscribers that resume
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    public enum Type { MOVIE_ADDED, MOVIE_UPDATED, SHOWTIME_CHANGED, CATALOG_REPLACED }
+
+    private final Change[] history;
+    private long sequence; // Sequence of the latest change, 0 before the first one
+    private final List<WeakReference<Subscription>> subscriptions = new ArrayList<>(); // Weak, so forgotten subscribers go away
+
+    // The catalog as published so far
+    private List<Movie> source;
+    private int published;
+    private final Map<Movie, Integer> ids = new IdentityHashMap<>();
+
+    public catalogChangeFeed() {
+        this(DEFAULT_HISTORY);
+    }
+
+    public catalogChangeFeed(int historySize) {
+        if (historySize <= 0) {
+            throw new IllegalArgumentException("History size must be positive");
+        }
+        this.history = new Change[historySize];
+    }
+
+    // Sequence of the latest change
+    public synchronized long getSequence() {
+        sync();
+        return sequence;
+    }
+
+    // Subscribes to the changes from now on
+    public synchronized Subscription subscribe(int capacity) {
+        return subscribe(capacity, EnumSet.allOf(Type.class));
+    }
+
+    // Subscribes to some kinds of changes from now on; the others never fill the queue
+    public synchronized Subscription subscribe(int capacity, EnumSet<Type> types) {
+        sync();
+        return subscribe(sequence, capacity, types);
+    }
+
+    public synchronized Subscription subscribe(long afterSequence, int capacity) {
+        return subscribe(afterSequence, capacity, EnumSet.allOf(Type.class));
+    }
+
+    /**
+     * Subscribes to the changes after a sequence the caller has already seen.
+     * If the feed no longer remembers that far back, the subscription starts
+     * out lost and the caller has to rebuild from the catalog.
+     */
+    public synchronized Subscription subscribe(long afterSequence, int capacity, EnumSet<Type> types) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Queue capacity must be positive");
+        }
+        sync();
+        if (afterSequence < 0 || afterSequence > sequence) {
+            throw new IllegalArgumentException("Unknown sequence " + afterSequence);
+        }
+        Subscription subscription = new Subscription(capacity, afterSequence, EnumSet.copyOf(types));
+        if (afterSequence < sequence - history.length) {
+            subscription.lose();
+        } else {
+            for (long s = afterSequence + 1; s <= sequence; s++) {
+                subscription.offer(history[slot(s)]);
+            }
+        }
+        subscriptions.add(new WeakReference<>(subscription));
+        return subscription;
+    }
+
+    // Called by dataStore.Movie when a movie in the catalog is edited
+    synchronized void updated(Movie movie, Type type) {
+        sync();
+        Integer movieId = ids.get(movie);
+        if (movieId != null) publish(type, movieId, movie);
+    }
+
+    // Publishes the movies added to the catalog, or its replacement, since the last call
+    synchronized void sync() {
+        List<Movie> movies = dataStore.getMovies();
+        if (movies != source || movies == null || movies.size() < published) {
+            boolean replaced = source != null;
+            source = movies;
+            published = 0;
+            ids.clear();
+            if (replaced) publish(Type.CATALOG_REPLACED, -1, null);
+        }
+        if (movies == null) return;
+
+        while (published < movies.size()) {
+            Movie movie = movies.get(published);
+            ids.put(movie, published);
+            publish(Type.MOVIE_ADDED, published, movie);
+            published++;
+        }
+    }
+
+    private void publish(Type type, int movieId, Movie movie) {
+        Change change = new Change(++sequence, type, movieId, movie);
+        history[slot(sequence)] = change;
+
+        Iterator<WeakReference<Subscription>> it = subscriptions.iterator();
+        while (it.hasNext()) {
+            Subscription subscription = it.next().get();
+            if (subscription == null || subscription.closed) {
+                it.remove();
+            } else {
+                subscription.offer(change);
+            }
+        }
+    }
+
+    private int slot(long s) {
+        return (int) (s % history.length);
+    }
+
+    // One change to the catalog
+    public static final class Change {
+        private final long sequence;
+        private final Type type;
+        private final int movieId;
+        private final Movie movie;
+
+        Change(long sequence, Type type, int movieId, Movie movie) {
+            this.sequence = sequence;
+            this.type = type;
+            this.movieId = movieId;
+            this.movie = movie;
+        }
+
+        public long getSequence() { return sequence; }
+        public Type getType() { return type; }
+        // Position in dataStore.getMovies(), -1 when the whole catalog was replaced
+        public int getMovieId() { return movieId; }
+        public Movie getMovie() { return movie; }
+
+        @Override
+        public String toString() {
+            return "#" + sequence + " " + type + (movie == null ? "" : " " + movie.getTitle());
+        }
+    }
+
+    // A subscriber's queue of changes it has not read yet
+    public final class Subscription implements AutoCloseable {
+        private final int capacity;
+        private final EnumSet<Type> types;
+        private final ArrayDeque<Change> queue = new ArrayDeque<>();
+        private long lastSequence; // Sequence of the last change handed to the subscriber
+        private boolean lost;
+        private boolean closed;
+
+        private Subscription(int capacity, long lastSequence, EnumSet<Type> types) {
+            this.capacity = capacity;
+            this.types = types;
+            this.lastSequence = lastSequence;
+        }
+
+        /**
+         * Takes the next change.
+         * @return The change, or null if there is none or the subscription is lost.
+         */
+        public Change poll() {
+            synchronized (catalogChangeFeed.this) {
+                sync();
+                Change change = queue.poll();
+                if (change != null) lastSequence = change.sequence;
+                return change;
+            }
+        }
+
+        // True when changes were dropped because the queue was full; rebuild, then call resync()
+        public boolean isLost() {
+            synchronized (catalogChangeFeed.this) {
+                sync();
+                return lost;
+            }
+        }
+
+        // Continues from the latest change after the subscriber rebuilt from the catalog
+        public void resync() {
+            synchronized (catalogChangeFeed.this) {
+                sync();
+                queue.clear();
+                lost = false;
+                lastSequence = sequence;
+            }
+        }
+
+        public long getLastSequence() {
+            synchronized (catalogChangeFeed.this) {
+                return lastSequence;
+            }
+        }
+
+        public int getPending() {
+            synchronized (catalogChangeFeed.this) {
+                sync();
+                return queue.size();
+            }
+        }
+
+        @Override
+        public void close() {
+            synchronized (catalogChangeFeed.this) {
+                closed = true;
+                queue.clear();
+            }
+        }
+
+        private void offer(Change change) {
+            if (lost || !types.contains(change.type)) return;
+            if (queue.size() == capacity) {
+                lose();
+            } else {
+                queue.add(change);
+            }
+        }
+
+        private void lose() {
+            queue.clear();
+            lost = true;
+        }
+    }
+}
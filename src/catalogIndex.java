@@ -0,0 +1,94 @@
+/*
+* Base class for the in-memory indexes built over the movie catalog.
+Movie ids are positions in dataStore.getMovies(). Each index remembers which
+list it was built from and how many movies it has seen, so new movies are
+indexed incrementally and a replaced list (new dataStore(), setMovies) triggers
+a rebuild. Edits to movies already indexed arrive through the catalog change
+feed; all edits queued since the last sync are coalesced, so update() is
+called once per edited movie however often it changed.
+*/
+
+package src;
+
+import java.util.BitSet;
+import java.util.EnumSet;
+import java.util.List;
+import src.dataStore.Movie;
+
+public abstract class catalogIndex {
+
+    private List<Movie> source; // The catalog list this index was built from
+    private int indexed;        // Number of movies already added to the index
+    private catalogChangeFeed.Subscription changes; // Edits to movies since the last sync
+    private boolean rebuilt;    // Set by rebuild(), so one sync never rebuilds twice
+
+    // Brings the index up to date with the current catalog
+    public final synchronized void sync() {
+        List<Movie> movies = dataStore.getMovies();
+        if (changes == null) {
+            changes = dataStore.getCatalogFeed().subscribe(catalogChangeFeed.DEFAULT_QUEUE_CAPACITY,
+                    EnumSet.of(catalogChangeFeed.Type.MOVIE_UPDATED, catalogChangeFeed.Type.SHOWTIME_CHANGED));
+        }
+
+        boolean rebuild = movies != source || movies == null || movies.size() < indexed;
+        if (rebuild) {
+            changes.resync();
+        } else if (changes.isLost()) {
+            changes.resync();
+            update(-1, null); // Too many edits to replay
+        } else {
+            BitSet edited = new BitSet();
+            for (catalogChangeFeed.Change change = changes.poll(); change != null; change = changes.poll()) {
+                if (change.getMovieId() < indexed) edited.set(change.getMovieId());
+            }
+            rebuilt = false;
+            for (int movieId = edited.nextSetBit(0); movieId >= 0 && !rebuilt; movieId = edited.nextSetBit(movieId + 1)) {
+                update(movieId, source.get(movieId));
+            }
+        }
+
+        if (rebuild) {
+            clear();
+            source = movies;
+            indexed = 0;
+        }
+        if (movies == null) return;
+
+        while (indexed < movies.size()) {
+            add(indexed, movies.get(indexed));
+            indexed++;
+        }
+    }
+
+    // Looks up a movie by the id used in the index
+    protected Movie movie(int movieId) {
+        return source.get(movieId);
+    }
+
+    // Number of movies currently covered by the index
+    public synchronized int size() {
+        return indexed;
+    }
+
+    // Removes everything from the index before a rebuild
+    protected abstract void clear();
+
+    // Adds a single movie to the index
+    protected abstract void add(int movieId, Movie movie);
+
+    // A movie already in the index was edited (movieId -1: edits were missed, any movie may
+    // have changed). Indexes should replace just that movie's entries; by default the
+    // whole index is rebuilt, at most once per sync.
+    protected void update(int movieId, Movie movie) {
+        rebuild();
+    }
+
+    // Clears the index and adds every movie of the same catalog list again
+    protected final void rebuild() {
+        clear();
+        for (int i = 0; i < indexed; i++) {
+            add(i, source.get(i));
+        }
+        rebuilt = true;
+    }
+}
@@ -4,17 +4,25 @@ import src.dataStore;
 import src.helpers.consoleColors;
 import src.helpers.validation;
 import src.primaryUseCases.bookingMovies.BookingMovies;
+import src.primaryUseCases.bookingMovies.FileLeaseIdAllocator;
 import src.primaryUseCases.browseMovies.BrowseMovies;
 import src.primaryUseCases.checkout.CheckoutMovies;
 import src.primaryUseCases.manageMovies.AddMovie;
+import src.primaryUseCases.manageMovies.HallTimetable;
 import src.primaryUseCases.manageMovies.manageMoviesPresentationLayer;
 
+import java.nio.file.Paths;
 import java.util.Scanner;
 
 public class Main {
 
     public static void main(String[] args) {
 
+        // Kiosks started with the same ID file share booking IDs without collisions
+        if (args.length > 0) {
+            dataStore.Booking.setIdAllocator(new FileLeaseIdAllocator(Paths.get(args[0])));
+        }
+
         dataStore globalDataStore = new dataStore();
         Scanner sc = new Scanner(System.in);
 
@@ -28,7 +36,8 @@ public class Main {
         CheckoutMovies checkoutMovies = new CheckoutMovies();
 
         // ---------------- MANAGE MOVIES -----------
-        AddMovie manageBL = new AddMovie(sc);
+        AddMovie manageBL = new AddMovie(sc, HallTimetable.fromCatalog(dataStore.getMovies()));
+        manageBL.setPublishToCatalog(true);
         manageMoviesPresentationLayer manageMovies =
                 new manageMoviesPresentationLayer(manageBL, globalDataStore, sc);
 
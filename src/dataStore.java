@@ -8,23 +8,68 @@ the smooth functioning of the booking system.
 package src;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import src.helpers.consoleColors;
+import src.helpers.timeOfDay;
+import src.primaryUseCases.bookingMovies.BookingEvent;
+import src.primaryUseCases.bookingMovies.BookingEventLog;
+import src.primaryUseCases.bookingMovies.BookingIdAllocator;
+import src.primaryUseCases.bookingMovies.BookingList;
+import src.primaryUseCases.bookingMovies.BookingRecord;
+import src.primaryUseCases.bookingMovies.CartProjection;
+import src.primaryUseCases.bookingMovies.LocalIdAllocator;
+import src.primaryUseCases.bookingMovies.PackedBookingStore;
+import src.primaryUseCases.bookingMovies.SalesProjection;
+import src.primaryUseCases.bookingMovies.SeatHolds;
+import src.primaryUseCases.bookingMovies.SeatInventory;
+import src.primaryUseCases.bookingMovies.SeatMap;
 
 public class dataStore {
 
     private static List<Movie> movies; // List to store all movies
-    private static List<Booking> bookings; // List to store all bookings
+    private static BookingList bookings; // List to store all bookings, indexed by booking ID
     private static List<HallType> halls; // List to store all hall types
     private static List<ValidDiscountCode> validDiscountCodes; // List to store valid discount codes
     private static SavedPaymentMethod savedPaymentMethod; // Single saved payment method
+    private static SeatInventory seatInventory; // Seat maps of every screening
+    private static SeatHolds seatHolds; // Unpaid seats that expire if checkout takes too long
+    private static PackedBookingStore salesHistory; // Paid bookings, packed for reporting
+    private static Map<SeatMap, Long> waitlistTickets; // The cart's place on the waitlist of each sold out screening
+    private static final catalogChangeFeed catalogFeed = new catalogChangeFeed(); // Kept across resets, so sequences only grow
+    private static BookingEventLog eventLog; // Everything that happened to the cart, in order
+    private static CartProjection cartProjection; // Running cart totals
+    private static SalesProjection salesProjection; // Running sales per movie
+
+    // Turns every change to the bookings list into an event
+    private static final BookingList.Listener RECORD_EVENTS = new BookingList.Listener() {
+        @Override
+        public void added(Booking booking) {
+            if (eventLog != null) eventLog.append(new BookingEvent.BookingCreated(booking));
+        }
+
+        @Override
+        public void removed(Booking booking) {
+            if (eventLog != null) eventLog.append(new BookingEvent.BookingCancelled(booking));
+        }
+    };
 
     // The constructor initializes the lists and adds sample data
     public dataStore() {
+        eventLog = new BookingEventLog();
+        cartProjection = eventLog.register(new CartProjection());
+        salesProjection = eventLog.register(new SalesProjection());
         movies = new ArrayList<>();
-        bookings = new ArrayList<>();
+        bookings = new BookingList();
+        bookings.setListener(RECORD_EVENTS);
         halls = new ArrayList<>();
         validDiscountCodes = new ArrayList<>();
+        seatInventory = new SeatInventory();
+        setSeatHolds(new SeatHolds());
+        salesHistory = new PackedBookingStore();
+        waitlistTickets = new HashMap<>();
 
         // Initialize the saved payment method
         savedPaymentMethod = new SavedPaymentMethod("MasterCard", "Manar Alshaikh", "8765 4321 8765 4321", "09/26", "456");
@@ -63,11 +108,11 @@ public class dataStore {
         halls.add(new HallType("IMAX", 7.0));
         halls.add(new HallType("Standard", 3.5));
 
-        // Adding 4 sample bookings
-        bookings.add(new Booking(movies.get(0), "1:00 PM"));
-        bookings.add(new Booking(movies.get(1), "11:00 AM"));
-        bookings.add(new Booking(movies.get(2), "12:00 PM"));
-        bookings.add(new Booking(movies.get(3), "4:00 PM"));
+        // Adding 4 sample bookings, each holding a seat
+        bookings.add(sampleBooking(movies.get(0), "1:00 PM"));
+        bookings.add(sampleBooking(movies.get(1), "11:00 AM"));
+        bookings.add(sampleBooking(movies.get(2), "12:00 PM"));
+        bookings.add(sampleBooking(movies.get(3), "4:00 PM"));
 
         // Adding 3 sample valid discount codes        
         validDiscountCodes.add(new ValidDiscountCode("NEWYEAR25", 25, "Celebrate 2025 with 25% off on all tickets!"));
@@ -75,6 +120,12 @@ public class dataStore {
         validDiscountCodes.add(new ValidDiscountCode("BAHRAINSPIRIT30", 30, "Celebrate Bahrain's heritage with 30% off!"));
     }
 
+    // Creates a sample booking on the first free seat of the screening
+    private static Booking sampleBooking(Movie movie, String showTime) {
+        SeatMap seats = seatInventory.screening(movie, timeOfDay.parse(showTime));
+        return new Booking(movie, showTime, seats.claimAny());
+    }
+
     // Getters and setters for movies
     public static List<Movie> getMovies() {
         return movies;
@@ -85,13 +136,113 @@ public class dataStore {
         movies = m;
     }
 
+    // Adds a movie to the catalog, unless one with the same title is already there
+    public static boolean addMovie(Movie movie) {
+        for (Movie existing : movies) {
+            if (existing.getTitle().equalsIgnoreCase(movie.getTitle())) return false;
+        }
+        movies.add(movie);
+        catalogFeed.sync();
+        return true;
+    }
+
+    // Getter for the feed of catalog changes
+    public static catalogChangeFeed getCatalogFeed() {
+        return catalogFeed;
+    }
+
     // Getters and setters for bookings
     public static List<Booking> getBookings() {
         return bookings;
     }
 
+    // A plain list is copied so the bookings stay indexed by ID.
+    // The old cart is recorded as cancelled and the new one as created;
+    // before the first new dataStore() there is no cart and no log yet.
     public static void setBookings(List<Booking> b) {
-        bookings = b;
+        if (b == bookings) return;
+        if (bookings != null) {
+            bookings.setListener(null);
+            record(bookings, false);
+        }
+        bookings = b instanceof BookingList ? (BookingList) b : new BookingList(b);
+        record(bookings, true);
+        bookings.setListener(RECORD_EVENTS);
+    }
+
+    private static void record(List<Booking> cart, boolean created) {
+        if (eventLog == null) return;
+        for (Booking booking : cart) {
+            eventLog.append(created ? new BookingEvent.BookingCreated(booking) : new BookingEvent.BookingCancelled(booking));
+        }
+    }
+
+    // Finds a booking by its ID without scanning the list, null if there is none
+    public static Booking findBooking(String bookingId) {
+        return bookingId == null ? null : bookings.find(bookingId.trim().toUpperCase());
+    }
+
+    /**
+     * Cancels a booking and gives its seat back to the screening.
+     * @return The cancelled booking, or null if there is no such booking.
+     */
+    public static Booking cancelBooking(String bookingId) {
+        Booking booking = findBooking(bookingId);
+        if (booking == null) return null;
+
+        bookings.removeById(booking.getBookingId());
+        if (!seatHolds.cancel(booking.getBookingId()) && booking.getSeat() != SeatMap.NO_SEAT) {
+            // Bookings without a hold (like the sample ones) release the seat directly
+            SeatMap seats = seatInventory.screening(booking.getMovie(), timeOfDay.parse(booking.getShowTime()));
+            if (seats != null) seats.release(booking.getSeat());
+        }
+        return booking;
+    }
+
+    // Getter for the seat inventory of all screenings
+    public static SeatInventory getSeatInventory() {
+        return seatInventory;
+    }
+
+    // Getter and setter for the holds on booked but unpaid seats
+    public static SeatHolds getSeatHolds() {
+        return seatHolds;
+    }
+
+    // An expired hold also removes its booking from the cart
+    public static void setSeatHolds(SeatHolds holds) {
+        seatHolds = holds;
+        seatHolds.setOnExpire(bookingId -> bookings.removeById(bookingId));
+    }
+
+    // Getter for the paid bookings kept for reporting
+    public static PackedBookingStore getSalesHistory() {
+        return salesHistory;
+    }
+
+    // Getter for the waitlist tickets of the cart, by screening
+    public static Map<SeatMap, Long> getWaitlistTickets() {
+        return waitlistTickets;
+    }
+
+    // Getter for the log of booking events
+    public static BookingEventLog getEventLog() {
+        return eventLog;
+    }
+
+    // Getter for the running totals of the cart
+    public static CartProjection getCartProjection() {
+        return cartProjection;
+    }
+
+    // Getter for the running sales per movie
+    public static SalesProjection getSalesProjection() {
+        return salesProjection;
+    }
+
+    // Records the discount of the current checkout, 0 percent when no code was given
+    public static void applyDiscount(String code, int percentage) {
+        eventLog.append(new BookingEvent.DiscountApplied(code, percentage));
     }
 
     // Getters and setters for discount codes
@@ -118,6 +269,7 @@ public class dataStore {
 
         private String title, summary, language, hallType;
         private String[] actors, showTimes;
+        private short[] showMinutes; // Showtimes parsed once into sorted minutes of the day
         private int ageRestriction, duration;
         private double imdbRating;
 
@@ -132,6 +284,7 @@ public class dataStore {
             this.language = language;
             this.duration = duration;
             this.showTimes = showTimes;
+            this.showMinutes = timeOfDay.parseSorted(showTimes);
             this.hallType = hallType;
         }
 
@@ -142,6 +295,11 @@ public class dataStore {
 
         public void setTitle(String title) {
             this.title = title;
+            catalogFeed.updated(this, catalogChangeFeed.Type.MOVIE_UPDATED);
+        }
+
+        public String[] getActors() {
+            return actors;
         }
 
         public String getSummary() {
@@ -150,6 +308,7 @@ public class dataStore {
 
         public void setSummary(String summary) {
             this.summary = summary;
+            catalogFeed.updated(this, catalogChangeFeed.Type.MOVIE_UPDATED);
         }
 
         public int getAgeRestriction() {
@@ -158,6 +317,7 @@ public class dataStore {
 
         public void setAgeRestriction(int ageRestriction) {
             this.ageRestriction = ageRestriction;
+            catalogFeed.updated(this, catalogChangeFeed.Type.MOVIE_UPDATED);
         }
 
         public double getImdbRating() {
@@ -166,6 +326,7 @@ public class dataStore {
 
         public void setImdbRating(double imdbRating) {
             this.imdbRating = imdbRating;
+            catalogFeed.updated(this, catalogChangeFeed.Type.MOVIE_UPDATED);
         }
 
         public String getLanguage() {
@@ -174,6 +335,7 @@ public class dataStore {
 
         public void setLanguage(String language) {
             this.language = language;
+            catalogFeed.updated(this, catalogChangeFeed.Type.MOVIE_UPDATED);
         }
 
         public int getDuration() {
@@ -182,12 +344,32 @@ public class dataStore {
 
         public void setDuration(int duration) {
             this.duration = duration;
+            catalogFeed.updated(this, catalogChangeFeed.Type.MOVIE_UPDATED);
         }
 
         public String[] getShowTimes() {
             return showTimes;
         }
 
+        // Seat maps, bookings and sales refer to screenings by start minute, so they
+        // keep the screenings they were made for; indexes follow SHOWTIME_CHANGED
+        public void setShowTimes(String[] showTimes) {
+            short[] parsed = timeOfDay.parseSorted(showTimes);
+            this.showTimes = showTimes;
+            this.showMinutes = parsed;
+            catalogFeed.updated(this, catalogChangeFeed.Type.SHOWTIME_CHANGED);
+        }
+
+        // Sorted minute-of-day values of the showtimes (shared array, do not modify)
+        public short[] getShowMinutes() {
+            return showMinutes;
+        }
+
+        // Checks if the movie is screened at the given minute of the day
+        public boolean hasShowTime(int minuteOfDay) {
+            return minuteOfDay >= 0 && Arrays.binarySearch(showMinutes, (short) minuteOfDay) >= 0;
+        }
+
         public String getHallType() {
             return hallType;
         }
@@ -202,16 +384,17 @@ public class dataStore {
         }
     }
 
-    public static class Booking {
+    public static class Booking implements BookingRecord {
 
         private String bookingId;
         private Movie movie;
         private String hallType;
         private String showTime;
+        private int seat = SeatMap.NO_SEAT; // Seat index in the hall, NO_SEAT if none was assigned
         private double price; // Price is now initialized in the constructor
     
-        // Static variable to generate a unique booking ID
-        private static int idCounter = 1;  // Starts with "B001", increments with each new booking
+        // Source of unique booking numbers, starts with "B001" (see setIdAllocator)
+        private static volatile BookingIdAllocator idAllocator = new LocalIdAllocator();
     
         // Constructor to initialize a booking object 
         public Booking(Movie movie, String showTime) {
@@ -229,9 +412,23 @@ public class dataStore {
             }
         }
     
-        // Method to generate booking IDs ("B001", "B002", "B003", etc.)
+        // Constructor for a booking that holds a seat
+        public Booking(Movie movie, String showTime, int seat) {
+            this(movie, showTime);
+            this.seat = seat;
+        }
+
+        // Method to generate booking IDs ("B001", "B002", ..., "B1000", etc.)
         private String generateBookingId() {
-            return "B" + String.format("%03d", idCounter++);  // Increment the counter and return the formatted ID
+            return BookingIdAllocator.format(idAllocator.nextId());
+        }
+
+        // Switches the ID source, e.g. to a FileLeaseIdAllocator shared with other processes
+        public static void setIdAllocator(BookingIdAllocator allocator) {
+            if (allocator == null) {
+                throw new IllegalArgumentException("Booking ID allocator cannot be null");
+            }
+            idAllocator = allocator;
         }
     
         // Getter for bookingId
@@ -239,10 +436,37 @@ public class dataStore {
             return bookingId;
         }
     
+        // Getter for the booked movie
+        public Movie getMovie() {
+            return movie;
+        }
+
         // Getter for movie title
         public String getMovieTitle() {
             return movie.getTitle();
         }
+
+        // Getter for the hall type the booking was made in
+        public String getHallType() {
+            return hallType;
+        }
+
+        // Getter for the booked show time
+        public String getShowTime() {
+            return showTime;
+        }
+
+        // Getter for the seat index, NO_SEAT if the booking has no seat
+        public int getSeat() {
+            return seat;
+        }
+
+        // Seat as printed on the ticket (e.g. "C7"), empty if the booking has no seat
+        public String getSeatLabel() {
+            if (seat == SeatMap.NO_SEAT) return "";
+            HallType hall = getHall(hallType);
+            return SeatMap.label(seat, hall != null ? hall.getSeatsPerRow() : HallType.DEFAULT_SEATS_PER_ROW);
+        }
     
         // Override toString() to display booking details
         @Override
@@ -251,6 +475,7 @@ public class dataStore {
                     + consoleColors.BLUE_BOLD + ", Movie Title: " + consoleColors.RESET + movie.getTitle()
                     + consoleColors.BLUE_BOLD + ", Show time: " + consoleColors.RESET + showTime
                     + consoleColors.BLUE_BOLD + ", Hall Type: " + consoleColors.RESET + movie.hallType
+                    + (seat == SeatMap.NO_SEAT ? "" : consoleColors.BLUE_BOLD + ", Seat: " + consoleColors.RESET + getSeatLabel())
                     + consoleColors.BLUE_BOLD + ", Hall Seat Price: " + consoleColors.RESET + price);
         }
 
@@ -264,13 +489,33 @@ public class dataStore {
     // Inner class representing different hall types in the cinema
     public static class HallType {
 
+        // Layout used for halls without a known size
+        public static final int DEFAULT_ROWS = 10;
+        public static final int DEFAULT_SEATS_PER_ROW = 12;
+
         public String hallName;
         private double price;
+        private int rows, seatsPerRow;
 
-        // Constructor to initialize hall details
+        // Constructor to initialize hall details, the layout is derived from the hall name
         public HallType(String hallName, double price) {
             this.hallName = hallName;
             this.price = price;
+            switch (hallName.toUpperCase()) {
+                case "IMAX": rows = 20; seatsPerRow = 25; break;
+                case "STANDARD": rows = 12; seatsPerRow = 15; break;
+                case "3D": rows = 10; seatsPerRow = 14; break;
+                case "VIP": rows = 6; seatsPerRow = 8; break;
+                default: rows = DEFAULT_ROWS; seatsPerRow = DEFAULT_SEATS_PER_ROW;
+            }
+        }
+
+        // Constructor for a hall with an explicit layout
+        public HallType(String hallName, double price, int rows, int seatsPerRow) {
+            this.hallName = hallName;
+            this.price = price;
+            this.rows = rows;
+            this.seatsPerRow = seatsPerRow;
         }
 
         // Method to display hall details
@@ -283,6 +528,18 @@ public class dataStore {
         public String getHallName() {
             return hallName;
         }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public int getSeatsPerRow() {
+            return seatsPerRow;
+        }
+
+        public int getCapacity() {
+            return rows * seatsPerRow;
+        }
     }
 
     // Getter method to retrieve the list of halls
@@ -290,6 +547,16 @@ public class dataStore {
         return halls;
     }
 
+    // Finds a hall by name (case-insensitive), null if there is no such hall
+    public static HallType getHall(String hallName) {
+        for (HallType hall : halls) {
+            if (hall.hallName.equalsIgnoreCase(hallName)) {
+                return hall;
+            }
+        }
+        return null;
+    }
+
     // Method to display all hall details
     public static void displayAllHalls() {
         for (HallType hall : halls) {
@@ -424,8 +691,13 @@ public class dataStore {
         }
     }
 
-    // Method to clear all bookings
+    // Method to clear all bookings once they are paid
     public static void clearAllBookings() {
+        int count = bookings.size();
+        long paidCents = cartProjection.getTotalCents();
+        bookings.setListener(null); // Paid, not cancelled
         bookings.clear(); // Remove all objects from the list
+        bookings.setListener(RECORD_EVENTS);
+        eventLog.append(new BookingEvent.CheckoutCompleted(count, paidCents));
     }
 }
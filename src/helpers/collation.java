@@ -0,0 +1,67 @@
+package src.helpers;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Utility class that turns text into collation keys for searching, so that
+ * "Amélie", "AMELIE" and "amelie" all compare equal. Accents and other
+ * combining marks are removed after Unicode decomposition (NFD), and case is
+ * folded so that e.g. "ß" and "ss" match too. Keys are meant to be computed
+ * once per title or language when a movie is indexed, and once per query.
+ */
+public class collation {
+
+    /**
+     * Folds text without touching its spacing.
+     * @param text The text to fold, may be null.
+     * @return The text without accents, in lower case.
+     */
+    public static String fold(String text) {
+        if (text == null) return "";
+        if (isAscii(text)) return text.toLowerCase(Locale.ROOT);
+
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder folded = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); ) {
+            int c = decomposed.codePointAt(i);
+            i += Character.charCount(c);
+            int type = Character.getType(c);
+            if (type == Character.NON_SPACING_MARK || type == Character.ENCLOSING_MARK
+                    || type == Character.COMBINING_SPACING_MARK) {
+                continue;
+            }
+            folded.appendCodePoint(c);
+        }
+        // Upper then lower case folds the special cases lower case alone misses (ß -> ss)
+        return folded.toString().toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Folds text and unifies its spacing: runs of whitespace become a single
+     * space and leading and trailing whitespace is removed.
+     */
+    public static String key(String text) {
+        String folded = fold(text);
+        StringBuilder key = new StringBuilder(folded.length());
+        boolean space = false;
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isWhitespace(c)) {
+                space = key.length() > 0;
+            } else {
+                if (space) key.append(' ');
+                key.append(c);
+                space = false;
+            }
+        }
+        return key.toString();
+    }
+
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,1017 @@
+package src.helpers;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of non-negative ints (movie ids, seat ids, booking numbers)
+ * in the style of Roaring bitmaps. Values are split by their upper 16 bits
+ * into chunks of 65536, and every chunk is stored in whichever container is
+ * smallest for it: a sorted array of values for sparse chunks (up to 4096
+ * values), a plain 8 KB bitmap for dense ones, or a list of runs for chunks
+ * made of long ranges. A sparse set therefore costs about 2 bytes per value
+ * instead of one bit per possible id, as it would in java.util.BitSet.
+ * AND, OR and ANDNOT work chunk by chunk and skip chunks that only one side
+ * has. Run containers are only chosen by runOptimize(), usually called once
+ * after a set has been built.
+ */
+public class compressedBitmap {
+
+    private static final int ARRAY_MAX = 4096;        // Above this an array is bigger than a bitmap
+    private static final int BITMAP_WORDS = 1024;     // 65536 bits
+    private static final int SERIAL_COOKIE = 0x52424D31; // "RBM1"
+
+    private static final byte ARRAY = 0;
+    private static final byte BITMAP = 1;
+    private static final byte RUN = 2;
+
+    private char[] keys = new char[4];               // Upper 16 bits of each chunk, sorted
+    private Container[] containers = new Container[4];
+    private int size;                                // Chunks in use
+
+    public compressedBitmap() {
+    }
+
+    public static compressedBitmap of(int... values) {
+        compressedBitmap bitmap = new compressedBitmap();
+        for (int value : values) {
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    /**
+     * Builds a set from a plain bitmap (bit i of word i / 64 set for value i),
+     * such as the selections of MovieColumns.
+     */
+    public static compressedBitmap fromWords(long[] words) {
+        compressedBitmap bitmap = new compressedBitmap();
+        for (int first = 0; first < words.length; first += BITMAP_WORDS) {
+            int end = Math.min(words.length, first + BITMAP_WORDS);
+            int cardinality = 0;
+            for (int i = first; i < end; i++) {
+                cardinality += Long.bitCount(words[i]);
+            }
+            if (cardinality == 0) continue;
+            long[] chunk = Arrays.copyOf(Arrays.copyOfRange(words, first, end), BITMAP_WORDS);
+            bitmap.append((char) (first / BITMAP_WORDS), new BitmapContainer(chunk, cardinality).repair());
+        }
+        return bitmap;
+    }
+
+    // ==================== SINGLE VALUES ====================
+
+    public void add(int value) {
+        check(value);
+        char key = (char) (value >>> 16);
+        int i = find(key);
+        if (i >= 0) {
+            containers[i] = containers[i].add((char) value);
+        } else {
+            insert(-i - 1, key, new ArrayContainer().add((char) value));
+        }
+    }
+
+    // Adds every value from start (inclusive) to end (exclusive)
+    public void addRange(int start, int end) {
+        check(start);
+        for (int value = start; value < end; value++) {
+            add(value);
+        }
+    }
+
+    public void remove(int value) {
+        if (value < 0) return;
+        int i = find((char) (value >>> 16));
+        if (i < 0) return;
+        containers[i] = containers[i].remove((char) value);
+        if (containers[i].cardinality() == 0) {
+            System.arraycopy(keys, i + 1, keys, i, size - i - 1);
+            System.arraycopy(containers, i + 1, containers, i, size - i - 1);
+            containers[--size] = null;
+        }
+    }
+
+    public boolean contains(int value) {
+        if (value < 0) return false;
+        int i = find((char) (value >>> 16));
+        return i >= 0 && containers[i].contains((char) value);
+    }
+
+    public long cardinality() {
+        long cardinality = 0;
+        for (int i = 0; i < size; i++) {
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // ==================== SET OPERATIONS ====================
+
+    // Values in both sets
+    public static compressedBitmap and(compressedBitmap a, compressedBitmap b) {
+        compressedBitmap result = new compressedBitmap();
+        int i = 0, j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                Container c = a.containers[i].and(b.containers[j]);
+                if (c.cardinality() > 0) result.append(a.keys[i], c);
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    // Values in either set
+    public static compressedBitmap or(compressedBitmap a, compressedBitmap b) {
+        compressedBitmap result = new compressedBitmap();
+        int i = 0, j = 0;
+        while (i < a.size || j < b.size) {
+            if (j == b.size || (i < a.size && a.keys[i] < b.keys[j])) {
+                result.append(a.keys[i], a.containers[i++].copy());
+            } else if (i == a.size || a.keys[i] > b.keys[j]) {
+                result.append(b.keys[j], b.containers[j++].copy());
+            } else {
+                result.append(a.keys[i], a.containers[i++].or(b.containers[j++]));
+            }
+        }
+        return result;
+    }
+
+    // Values in a that are not in b
+    public static compressedBitmap andNot(compressedBitmap a, compressedBitmap b) {
+        compressedBitmap result = new compressedBitmap();
+        int j = 0;
+        for (int i = 0; i < a.size; i++) {
+            while (j < b.size && b.keys[j] < a.keys[i]) j++;
+            Container c = j < b.size && b.keys[j] == a.keys[i]
+                    ? a.containers[i].andNot(b.containers[j])
+                    : a.containers[i].copy();
+            if (c.cardinality() > 0) result.append(a.keys[i], c);
+        }
+        return result;
+    }
+
+    // Number of values in both sets, without building the intersection
+    public static long andCardinality(compressedBitmap a, compressedBitmap b) {
+        long cardinality = 0;
+        int i = 0, j = 0;
+        while (i < a.size && j < b.size) {
+            if (a.keys[i] < b.keys[j]) {
+                i++;
+            } else if (a.keys[i] > b.keys[j]) {
+                j++;
+            } else {
+                cardinality += a.containers[i++].andCardinality(b.containers[j++]);
+            }
+        }
+        return cardinality;
+    }
+
+    /**
+     * Switches every chunk to its smallest container, turning chunks made of
+     * long ranges into run containers.
+     */
+    public void runOptimize() {
+        for (int i = 0; i < size; i++) {
+            containers[i] = containers[i].optimize();
+        }
+    }
+
+    // ==================== READING ====================
+
+    // Visits the values in ascending order
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < size; i++) {
+            containers[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    public int[] toArray() {
+        int[] values = new int[(int) cardinality()];
+        int[] next = {0};
+        forEach(value -> values[next[0]++] = value);
+        return values;
+    }
+
+    // Plain bitmap of the set, long enough for its largest value
+    public long[] toWords() {
+        if (size == 0) return new long[0];
+        int last = keys[size - 1] * BITMAP_WORDS;
+        long[] words = new long[last + BITMAP_WORDS];
+        for (int i = 0; i < size; i++) {
+            BitmapContainer bitmap = containers[i].toBitmap();
+            System.arraycopy(bitmap.words, 0, words, keys[i] * BITMAP_WORDS, BITMAP_WORDS);
+        }
+        int used = words.length;
+        while (used > 0 && words[used - 1] == 0) used--;
+        return Arrays.copyOf(words, used);
+    }
+
+    // Approximate heap used by the set, counting object and array headers
+    public long sizeInBytes() {
+        long bytes = 16 + (16 + 2L * keys.length) + (16 + 4L * containers.length);
+        for (int i = 0; i < size; i++) {
+            bytes += containers[i].sizeInBytes();
+        }
+        return bytes;
+    }
+
+    // ==================== SERIALIZATION ====================
+
+    /**
+     * Writes the set as: cookie, chunk count, then per chunk its key, container
+     * type and payload (array: count and values; bitmap: 1024 words; run: run
+     * count and start/length pairs). Containers are written as they are, so call
+     * runOptimize() first for the smallest output.
+     */
+    public void serialize(DataOutput out) throws IOException {
+        out.writeInt(SERIAL_COOKIE);
+        out.writeInt(size);
+        for (int i = 0; i < size; i++) {
+            out.writeChar(keys[i]);
+            out.writeByte(containers[i].type());
+            containers[i].write(out);
+        }
+    }
+
+    public static compressedBitmap deserialize(DataInput in) throws IOException {
+        if (in.readInt() != SERIAL_COOKIE) {
+            throw new IOException("Not a compressed bitmap");
+        }
+        int count = in.readInt();
+        if (count < 0 || count > 65536) {
+            throw new IOException("Corrupt compressed bitmap: " + count + " chunks");
+        }
+        compressedBitmap bitmap = new compressedBitmap();
+        for (int i = 0; i < count; i++) {
+            char key = in.readChar();
+            if (bitmap.size > 0 && key <= bitmap.keys[bitmap.size - 1]) {
+                throw new IOException("Corrupt compressed bitmap: chunks out of order");
+            }
+            byte type = in.readByte();
+            Container container;
+            if (type == ARRAY) {
+                container = ArrayContainer.read(in);
+            } else if (type == BITMAP) {
+                container = BitmapContainer.read(in);
+            } else if (type == RUN) {
+                container = RunContainer.read(in);
+            } else {
+                throw new IOException("Corrupt compressed bitmap: container type " + type);
+            }
+            bitmap.append(key, container);
+        }
+        return bitmap;
+    }
+
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try {
+            serialize(new DataOutputStream(bytes));
+        } catch (IOException e) {
+            throw new IllegalStateException("Writing to memory failed", e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static compressedBitmap fromBytes(byte[] bytes) throws IOException {
+        return deserialize(new DataInputStream(new ByteArrayInputStream(bytes)));
+    }
+
+    // ==================== OBJECT ====================
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof compressedBitmap)) return false;
+        compressedBitmap other = (compressedBitmap) o;
+        if (size != other.size || cardinality() != other.cardinality()) return false;
+        return Arrays.equals(toArray(), other.toArray());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    // "{1, 2, 3}", shortened after 20 values
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("{");
+        int[] shown = {0};
+        forEach(value -> {
+            if (shown[0] < 20) {
+                if (shown[0] > 0) text.append(", ");
+                text.append(value);
+            }
+            shown[0]++;
+        });
+        if (shown[0] > 20) text.append(", ... ").append(shown[0] - 20).append(" more");
+        return text.append('}').toString();
+    }
+
+    // ==================== CHUNKS ====================
+
+    private static void check(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value cannot be negative: " + value);
+        }
+    }
+
+    private int find(char key) {
+        return Arrays.binarySearch(keys, 0, size, key);
+    }
+
+    private void insert(int at, char key, Container container) {
+        if (size == keys.length) {
+            keys = Arrays.copyOf(keys, size * 2);
+            containers = Arrays.copyOf(containers, size * 2);
+        }
+        System.arraycopy(keys, at, keys, at + 1, size - at);
+        System.arraycopy(containers, at, containers, at + 1, size - at);
+        keys[at] = key;
+        containers[at] = container;
+        size++;
+    }
+
+    // Adds a chunk after all existing ones
+    private void append(char key, Container container) {
+        insert(size, key, container);
+    }
+
+    // ==================== CONTAINERS ====================
+
+    // The values of one chunk, as their lower 16 bits
+    private abstract static class Container {
+
+        abstract int cardinality();
+
+        abstract boolean contains(char value);
+
+        // Both return the container to use from now on, which may be of another kind
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract Container and(Container other);
+
+        abstract Container or(Container other);
+
+        abstract Container andNot(Container other);
+
+        abstract void forEach(int high, IntConsumer action);
+
+        abstract BitmapContainer toBitmap();
+
+        abstract int numberOfRuns();
+
+        abstract Container copy();
+
+        abstract long sizeInBytes();
+
+        abstract byte type();
+
+        abstract void write(DataOutput out) throws IOException;
+
+        int andCardinality(Container other) {
+            return and(other).cardinality();
+        }
+
+        // The smallest of the three kinds for these values
+        Container optimize() {
+            int cardinality = cardinality();
+            long runBytes = 4L * numberOfRuns();
+            long arrayBytes = cardinality <= ARRAY_MAX ? 2L * cardinality : Long.MAX_VALUE;
+            long bitmapBytes = 8L * BITMAP_WORDS;
+            if (runBytes < arrayBytes && runBytes < bitmapBytes) {
+                return this instanceof RunContainer ? this : RunContainer.from(this);
+            }
+            if (arrayBytes <= bitmapBytes) {
+                return this instanceof ArrayContainer ? this : toBitmap().toArrayContainer();
+            }
+            return toBitmap();
+        }
+    }
+
+    // Sorted values, for chunks of up to ARRAY_MAX values
+    private static final class ArrayContainer extends Container {
+        char[] values;
+        int cardinality;
+
+        ArrayContainer() {
+            this(new char[4], 0);
+        }
+
+        ArrayContainer(char[] values, int cardinality) {
+            this.values = values;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return Arrays.binarySearch(values, 0, cardinality, value) >= 0;
+        }
+
+        @Override
+        Container add(char value) {
+            int i = Arrays.binarySearch(values, 0, cardinality, value);
+            if (i >= 0) return this;
+            if (cardinality == ARRAY_MAX) return toBitmap().add(value);
+            i = -i - 1;
+            if (cardinality == values.length) {
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, cardinality * 2));
+            }
+            System.arraycopy(values, i, values, i + 1, cardinality - i);
+            values[i] = value;
+            cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            int i = Arrays.binarySearch(values, 0, cardinality, value);
+            if (i >= 0) {
+                System.arraycopy(values, i + 1, values, i, cardinality - i - 1);
+                cardinality--;
+            }
+            return this;
+        }
+
+        @Override
+        Container and(Container other) {
+            char[] result = new char[Math.min(cardinality, other.cardinality())];
+            int count = 0;
+            if (other instanceof ArrayContainer) {
+                ArrayContainer array = (ArrayContainer) other;
+                int i = 0, j = 0;
+                while (i < cardinality && j < array.cardinality) {
+                    if (values[i] < array.values[j]) {
+                        i++;
+                    } else if (values[i] > array.values[j]) {
+                        j++;
+                    } else {
+                        result[count++] = values[i++];
+                        j++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < cardinality; i++) {
+                    if (other.contains(values[i])) result[count++] = values[i];
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer) return and(other).cardinality();
+            int count = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (other.contains(values[i])) count++;
+            }
+            return count;
+        }
+
+        @Override
+        Container or(Container other) {
+            if (!(other instanceof ArrayContainer)) return other.or(this);
+            ArrayContainer array = (ArrayContainer) other;
+            if (cardinality + array.cardinality > ARRAY_MAX) {
+                return toBitmap().or(other);
+            }
+            char[] result = new char[cardinality + array.cardinality];
+            int i = 0, j = 0, count = 0;
+            while (i < cardinality || j < array.cardinality) {
+                if (j == array.cardinality || (i < cardinality && values[i] < array.values[j])) {
+                    result[count++] = values[i++];
+                } else if (i == cardinality || values[i] > array.values[j]) {
+                    result[count++] = array.values[j++];
+                } else {
+                    result[count++] = values[i++];
+                    j++;
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            char[] result = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < cardinality; i++) {
+                if (!other.contains(values[i])) result[count++] = values[i];
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < cardinality; i++) {
+                action.accept(high | values[i]);
+            }
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return new BitmapContainer(words, cardinality);
+        }
+
+        @Override
+        int numberOfRuns() {
+            int runs = cardinality == 0 ? 0 : 1;
+            for (int i = 1; i < cardinality; i++) {
+                if (values[i] != values[i - 1] + 1) runs++;
+            }
+            return runs;
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, cardinality), cardinality);
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16 + 16 + 2L * values.length;
+        }
+
+        @Override
+        byte type() {
+            return ARRAY;
+        }
+
+        @Override
+        void write(DataOutput out) throws IOException {
+            out.writeShort(cardinality - 1); // 1 to 4096 values
+            for (int i = 0; i < cardinality; i++) {
+                out.writeChar(values[i]);
+            }
+        }
+
+        static ArrayContainer read(DataInput in) throws IOException {
+            int cardinality = in.readUnsignedShort() + 1;
+            if (cardinality > ARRAY_MAX) {
+                throw new IOException("Corrupt compressed bitmap: array of " + cardinality + " values");
+            }
+            char[] values = new char[cardinality];
+            for (int i = 0; i < cardinality; i++) {
+                values[i] = in.readChar();
+                if (i > 0 && values[i] <= values[i - 1]) {
+                    throw new IOException("Corrupt compressed bitmap: array values out of order");
+                }
+            }
+            return new ArrayContainer(values, cardinality);
+        }
+    }
+
+    // One bit per value of the chunk, for chunks with more than ARRAY_MAX values
+    private static final class BitmapContainer extends Container {
+        final long[] words;
+        int cardinality;
+
+        BitmapContainer(long[] words, int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            return (words[value >>> 6] & 1L << value) != 0;
+        }
+
+        @Override
+        Container add(char value) {
+            long before = words[value >>> 6];
+            words[value >>> 6] = before | 1L << value;
+            if (before != words[value >>> 6]) cardinality++;
+            return this;
+        }
+
+        @Override
+        Container remove(char value) {
+            long before = words[value >>> 6];
+            words[value >>> 6] = before & ~(1L << value);
+            if (before != words[value >>> 6]) cardinality--;
+            return repair();
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) return other.and(this);
+            long[] theirs = other.toBitmap().words;
+            long[] result = new long[BITMAP_WORDS];
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                result[i] = words[i] & theirs[i];
+                count += Long.bitCount(result[i]);
+            }
+            return new BitmapContainer(result, count).repair();
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer) return other.andCardinality(this);
+            long[] theirs = other.toBitmap().words;
+            int count = 0;
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                count += Long.bitCount(words[i] & theirs[i]);
+            }
+            return count;
+        }
+
+        @Override
+        Container or(Container other) {
+            long[] result = words.clone();
+            if (other instanceof ArrayContainer) {
+                ArrayContainer array = (ArrayContainer) other;
+                for (int i = 0; i < array.cardinality; i++) {
+                    result[array.values[i] >>> 6] |= 1L << array.values[i];
+                }
+            } else {
+                long[] theirs = other.toBitmap().words;
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    result[i] |= theirs[i];
+                }
+            }
+            return new BitmapContainer(result, count(result));
+        }
+
+        @Override
+        Container andNot(Container other) {
+            long[] result = words.clone();
+            if (other instanceof ArrayContainer) {
+                ArrayContainer array = (ArrayContainer) other;
+                for (int i = 0; i < array.cardinality; i++) {
+                    result[array.values[i] >>> 6] &= ~(1L << array.values[i]);
+                }
+            } else {
+                long[] theirs = other.toBitmap().words;
+                for (int i = 0; i < BITMAP_WORDS; i++) {
+                    result[i] &= ~theirs[i];
+                }
+            }
+            return new BitmapContainer(result, count(result)).repair();
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                long word = words[i];
+                while (word != 0) {
+                    action.accept(high | i << 6 | Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            return this;
+        }
+
+        // A run starts at every set bit whose lower neighbour is clear
+        @Override
+        int numberOfRuns() {
+            int runs = 0;
+            long carry = 0;
+            for (long word : words) {
+                runs += Long.bitCount(word & ~(word << 1 | carry));
+                carry = word >>> 63;
+            }
+            return runs;
+        }
+
+        // Arrays are smaller once a chunk is down to ARRAY_MAX values
+        Container repair() {
+            return cardinality <= ARRAY_MAX ? toArrayContainer() : this;
+        }
+
+        ArrayContainer toArrayContainer() {
+            char[] values = new char[cardinality];
+            int[] count = {0};
+            forEach(0, value -> values[count[0]++] = (char) value);
+            return new ArrayContainer(values, cardinality);
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16 + 16 + 8L * BITMAP_WORDS;
+        }
+
+        @Override
+        byte type() {
+            return BITMAP;
+        }
+
+        @Override
+        void write(DataOutput out) throws IOException {
+            for (long word : words) {
+                out.writeLong(word);
+            }
+        }
+
+        static BitmapContainer read(DataInput in) throws IOException {
+            long[] words = new long[BITMAP_WORDS];
+            for (int i = 0; i < BITMAP_WORDS; i++) {
+                words[i] = in.readLong();
+            }
+            return new BitmapContainer(words, count(words));
+        }
+
+        private static int count(long[] words) {
+            int count = 0;
+            for (long word : words) {
+                count += Long.bitCount(word);
+            }
+            return count;
+        }
+    }
+
+    /**
+     * Ranges of consecutive values, as (start, length - 1) pairs sorted by
+     * start. AND and OR of two run containers merge the runs directly; other
+     * changes and operations go through an array or bitmap, and the result
+     * stays in that form until the next runOptimize().
+     */
+    private static final class RunContainer extends Container {
+        final char[] runs;
+        final int runCount;
+        final int cardinality;
+
+        RunContainer(char[] runs, int runCount) {
+            this.runs = runs;
+            this.runCount = runCount;
+            int total = 0;
+            for (int r = 0; r < runCount; r++) {
+                total += runs[2 * r + 1] + 1;
+            }
+            this.cardinality = total;
+        }
+
+        static RunContainer from(Container container) {
+            if (container instanceof BitmapContainer) return from((BitmapContainer) container);
+            char[] runs = new char[2 * container.numberOfRuns()];
+            int[] state = {0, -2}; // Runs written, previous value
+            container.forEach(0, value -> {
+                if (value == state[1] + 1) {
+                    runs[2 * state[0] - 1]++;
+                } else {
+                    runs[2 * state[0]] = (char) value;
+                    state[0]++;
+                }
+                state[1] = value;
+            });
+            return new RunContainer(runs, state[0]);
+        }
+
+        // Finds runs a word at a time: a run starts at a set bit after a clear one and ends before the next clear bit
+        static RunContainer from(BitmapContainer bitmap) {
+            long[] words = bitmap.words;
+            char[] runs = new char[2 * bitmap.numberOfRuns()];
+            int count = 0;
+            int word = 0;
+            long current = words[0];
+            while (true) {
+                while (current == 0 && word < BITMAP_WORDS - 1) current = words[++word];
+                if (current == 0) break;
+                int start = word * 64 + Long.numberOfTrailingZeros(current);
+                current |= current - 1; // Fill the zeros below the run
+                while (current == -1L && word < BITMAP_WORDS - 1) current = words[++word];
+                int end; // Exclusive
+                if (current == -1L) {
+                    end = BITMAP_WORDS * 64;
+                } else {
+                    end = word * 64 + Long.numberOfTrailingZeros(~current);
+                    current &= current + 1; // Clear the run
+                }
+                runs[2 * count] = (char) start;
+                runs[2 * count + 1] = (char) (end - start - 1);
+                count++;
+                if (end == BITMAP_WORDS * 64) break;
+            }
+            return new RunContainer(runs, count);
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        boolean contains(char value) {
+            int low = 0, high = runCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char start = runs[2 * mid];
+                if (value < start) {
+                    high = mid - 1;
+                } else if (value > start + runs[2 * mid + 1]) {
+                    low = mid + 1;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        Container add(char value) {
+            return contains(value) ? this : unpack().add(value);
+        }
+
+        @Override
+        Container remove(char value) {
+            return contains(value) ? unpack().remove(value) : this;
+        }
+
+        @Override
+        Container and(Container other) {
+            if (other instanceof ArrayContainer) return other.and(this);
+            if (!(other instanceof RunContainer)) return toBitmap().and(other);
+            RunContainer theirs = (RunContainer) other;
+            char[] result = new char[2 * (runCount + theirs.runCount)];
+            int count = 0;
+            int i = 0, j = 0;
+            while (i < runCount && j < theirs.runCount) {
+                int start = Math.max(start(i), theirs.start(j));
+                int end = Math.min(end(i), theirs.end(j));
+                if (start <= end) {
+                    result[2 * count] = (char) start;
+                    result[2 * count + 1] = (char) (end - start);
+                    count++;
+                }
+                if (end(i) < theirs.end(j)) i++; else j++;
+            }
+            return new RunContainer(result, count).optimize();
+        }
+
+        @Override
+        int andCardinality(Container other) {
+            if (other instanceof ArrayContainer) return other.andCardinality(this);
+            return toBitmap().andCardinality(other);
+        }
+
+        @Override
+        Container or(Container other) {
+            if (!(other instanceof RunContainer)) return toBitmap().or(other);
+            RunContainer theirs = (RunContainer) other;
+            char[] result = new char[2 * (runCount + theirs.runCount)];
+            int count = 0;
+            int i = 0, j = 0;
+            while (i < runCount || j < theirs.runCount) {
+                int start, end;
+                if (j == theirs.runCount || (i < runCount && start(i) <= theirs.start(j))) {
+                    start = start(i);
+                    end = end(i++);
+                } else {
+                    start = theirs.start(j);
+                    end = theirs.end(j++);
+                }
+                int last = 2 * (count - 1);
+                if (count > 0 && start <= result[last] + result[last + 1] + 1) {
+                    // Overlaps or touches the previous run, extend it
+                    result[last + 1] = (char) (Math.max(result[last] + result[last + 1], end) - result[last]);
+                } else {
+                    result[2 * count] = (char) start;
+                    result[2 * count + 1] = (char) (end - start);
+                    count++;
+                }
+            }
+            return new RunContainer(result, count);
+        }
+
+        @Override
+        Container andNot(Container other) {
+            return toBitmap().andNot(other);
+        }
+
+        @Override
+        void forEach(int high, IntConsumer action) {
+            for (int r = 0; r < runCount; r++) {
+                int start = runs[2 * r];
+                int end = start + runs[2 * r + 1];
+                for (int value = start; value <= end; value++) {
+                    action.accept(high | value);
+                }
+            }
+        }
+
+        private int start(int run) {
+            return runs[2 * run];
+        }
+
+        // Inclusive
+        private int end(int run) {
+            return runs[2 * run] + runs[2 * run + 1];
+        }
+
+        @Override
+        BitmapContainer toBitmap() {
+            long[] words = new long[BITMAP_WORDS];
+            for (int r = 0; r < runCount; r++) {
+                int start = runs[2 * r];
+                int end = start + runs[2 * r + 1]; // Inclusive
+                int first = start >>> 6, last = end >>> 6;
+                long firstMask = -1L << start;
+                long lastMask = -1L >>> (63 - (end & 63));
+                if (first == last) {
+                    words[first] |= firstMask & lastMask;
+                } else {
+                    words[first] |= firstMask;
+                    Arrays.fill(words, first + 1, last, -1L);
+                    words[last] |= lastMask;
+                }
+            }
+            return new BitmapContainer(words, cardinality);
+        }
+
+        // The container this would be without runs
+        private Container unpack() {
+            BitmapContainer bitmap = toBitmap();
+            return bitmap.repair();
+        }
+
+        @Override
+        int numberOfRuns() {
+            return runCount;
+        }
+
+        @Override
+        Container copy() {
+            return this; // Never changed in place
+        }
+
+        @Override
+        long sizeInBytes() {
+            return 16 + 16 + 2L * runs.length;
+        }
+
+        @Override
+        byte type() {
+            return RUN;
+        }
+
+        @Override
+        void write(DataOutput out) throws IOException {
+            out.writeShort(runCount);
+            for (int i = 0; i < 2 * runCount; i++) {
+                out.writeChar(runs[i]);
+            }
+        }
+
+        static RunContainer read(DataInput in) throws IOException {
+            int runCount = in.readUnsignedShort();
+            char[] runs = new char[2 * runCount];
+            int previousEnd = -2;
+            for (int r = 0; r < runCount; r++) {
+                runs[2 * r] = in.readChar();
+                runs[2 * r + 1] = in.readChar();
+                int end = runs[2 * r] + runs[2 * r + 1];
+                if (runs[2 * r] <= previousEnd + 1 || end > 0xFFFF) {
+                    throw new IOException("Corrupt compressed bitmap: overlapping runs");
+                }
+                previousEnd = end;
+            }
+            if (runCount == 0) {
+                throw new IOException("Corrupt compressed bitmap: empty run container");
+            }
+            return new RunContainer(runs, runCount);
+        }
+    }
+}
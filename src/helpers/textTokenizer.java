@@ -0,0 +1,43 @@
+package src.helpers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Utility class that splits free text (titles, summaries, search queries) into
+ * lowercase word tokens without accents (see collation). Anything that is not
+ * a letter or a digit separates words, and common English stop words are dropped.
+ */
+public class textTokenizer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "into",
+            "is", "it", "its", "of", "on", "or", "that", "the", "their", "this", "to", "who", "with");
+
+    /**
+     * Splits the text into tokens in the order they appear.
+     * @param text The text to tokenize, may be null.
+     * @return The tokens, without stop words.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+        text = collation.fold(text);
+
+        StringBuilder current = new StringBuilder();
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ' ';
+            if (Character.isLetterOrDigit(c)) {
+                current.append(Character.toLowerCase(c));
+            } else if (current.length() > 0) {
+                String token = current.toString();
+                if (!STOP_WORDS.contains(token)) {
+                    tokens.add(token);
+                }
+                current.setLength(0);
+            }
+        }
+        return tokens;
+    }
+}
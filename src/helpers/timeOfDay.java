@@ -0,0 +1,107 @@
+package src.helpers;
+
+import java.util.Arrays;
+
+/**
+ * Utility class for converting showtime strings into minute-of-day values.
+ * Accepts the formats used across the project: 12-hour times such as
+ * "10:00 AM", 24-hour times such as "19:00", and the "19:00 PM" style produced
+ * by AddMovie. Parsing is done by hand so it can run on the booking path.
+ */
+public class timeOfDay {
+
+    public static final int INVALID = -1;
+    public static final int MINUTES_PER_DAY = 24 * 60;
+
+    /**
+     * Parses a showtime into minutes since midnight.
+     * @param text The showtime entered by the user or stored on a movie.
+     * @return The minute of day (0 - 1439), or INVALID if the text is not a time.
+     */
+    public static int parse(String text) {
+        if (text == null) return INVALID;
+
+        int end = text.length();
+        int i = 0;
+        while (i < end && Character.isWhitespace(text.charAt(i))) i++;
+        while (end > i && Character.isWhitespace(text.charAt(end - 1))) end--;
+
+        // Hours: one or two digits
+        int hour = 0;
+        int digits = 0;
+        while (i < end && digits < 2 && isDigit(text.charAt(i))) {
+            hour = hour * 10 + (text.charAt(i++) - '0');
+            digits++;
+        }
+        if (digits == 0 || i >= end || text.charAt(i++) != ':') return INVALID;
+
+        // Minutes: exactly two digits
+        if (i + 2 > end || !isDigit(text.charAt(i)) || !isDigit(text.charAt(i + 1))) return INVALID;
+        int minute = (text.charAt(i) - '0') * 10 + (text.charAt(i + 1) - '0');
+        i += 2;
+        if (minute > 59) return INVALID;
+
+        while (i < end && text.charAt(i) == ' ') i++;
+
+        // No suffix means a 24-hour time
+        if (i == end) {
+            return hour > 23 ? INVALID : hour * 60 + minute;
+        }
+
+        if (end - i != 2 || Character.toLowerCase(text.charAt(i + 1)) != 'm') return INVALID;
+        char marker = Character.toLowerCase(text.charAt(i));
+
+        if (marker == 'a') {
+            if (hour == 12) hour = 0;           // 12:xx AM is just after midnight
+            else if (hour > 11) return INVALID; // "00:30 AM" is allowed, "13:00 AM" is not
+        } else if (marker == 'p') {
+            if (hour == 0 || hour > 23) return INVALID;
+            if (hour < 12) hour += 12;          // 1:00 PM -> 13:00, "19:00 PM" stays 19:00
+        } else {
+            return INVALID;
+        }
+        return hour * 60 + minute;
+    }
+
+    /**
+     * Parses a list of showtimes once into a sorted array without duplicates.
+     * Entries that cannot be parsed are skipped.
+     */
+    public static short[] parseSorted(String[] showTimes) {
+        if (showTimes == null) return new short[0];
+
+        short[] minutes = new short[showTimes.length];
+        int count = 0;
+        for (String showTime : showTimes) {
+            int minute = parse(showTime);
+            if (minute != INVALID) {
+                minutes[count++] = (short) minute;
+            }
+        }
+        Arrays.sort(minutes, 0, count);
+
+        // Remove duplicates in place
+        int unique = 0;
+        for (int i = 0; i < count; i++) {
+            if (unique == 0 || minutes[unique - 1] != minutes[i]) {
+                minutes[unique++] = minutes[i];
+            }
+        }
+        return Arrays.copyOf(minutes, unique);
+    }
+
+    /**
+     * Formats a minute of day the same way the sample data does, e.g. "7:00 PM".
+     */
+    public static String format(int minuteOfDay) {
+        int hour = minuteOfDay / 60;
+        int minute = minuteOfDay % 60;
+        String marker = hour < 12 ? " AM" : " PM";
+        int displayHour = hour % 12 == 0 ? 12 : hour % 12;
+        return displayHour + ":" + (minute < 10 ? "0" : "") + minute + marker;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -0,0 +1,24 @@
+/**
+ * Booking Engine
+ * Takes booking requests from many threads at once, claims a seat for each in
+ * the seat inventory and appends the booking to a ledger. Used where a whole
+ * premiere's worth of customers book at the same time; the console menu keeps
+ * using BookingMovies directly.
+ * LockingBookingEngine serialises callers on a lock, RingBufferBookingEngine
+ * hands requests to a single writer thread through a ring buffer.
+ */
+
+package src.primaryUseCases.bookingMovies;
+
+public interface BookingEngine extends AutoCloseable {
+
+    /**
+     * Books one seat for the request and waits until it is done.
+     * @return true if a seat was booked; the request then holds the booking ID and seat.
+     */
+    boolean book(BookingRequest request);
+
+    // Stops the engine; requests already accepted are still completed
+    @Override
+    void close();
+}
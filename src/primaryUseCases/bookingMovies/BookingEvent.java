@@ -0,0 +1,126 @@
+/**
+ * Booking Event
+ * Something that happened to the cart: a booking was created or cancelled, a
+ * discount was applied, or the cart was paid. Events are immutable and carry
+ * everything a projection needs, so projections never look anything up.
+ * Each event gets its sequence number when it is appended to the log.
+ */
+
+package src.primaryUseCases.bookingMovies;
+
+import src.dataStore.Movie;
+
+public abstract class BookingEvent {
+
+    private long sequence = -1;
+
+    // Position of the event in the log, -1 until it is appended
+    public long getSequence() {
+        return sequence;
+    }
+
+    void setSequence(long sequence) {
+        if (this.sequence != -1) {
+            throw new IllegalStateException("Event was already appended as #" + this.sequence);
+        }
+        this.sequence = sequence;
+    }
+
+    // Calls the handler of the projection that matches this event
+    public abstract void applyTo(BookingProjection projection);
+
+    static long toCents(double price) {
+        return Math.round(price * 100);
+    }
+
+    // A booking was added to the cart
+    public static final class BookingCreated extends BookingEvent {
+        private final String bookingId;
+        private final Movie movie;
+        private final String showTime;
+        private final int seat;
+        private final long priceCents;
+
+        public BookingCreated(BookingRecord booking) {
+            this.bookingId = booking.getBookingId();
+            this.movie = booking.getMovie();
+            this.showTime = booking.getShowTime();
+            this.seat = booking.getSeat();
+            this.priceCents = toCents(booking.getBookingPrice());
+        }
+
+        public String getBookingId() { return bookingId; }
+        public Movie getMovie() { return movie; }
+        public String getShowTime() { return showTime; }
+        public int getSeat() { return seat; }
+        public long getPriceCents() { return priceCents; }
+
+        @Override
+        public void applyTo(BookingProjection projection) {
+            projection.onBookingCreated(this);
+        }
+    }
+
+    // A booking left the cart before it was paid (cancelled or its hold expired)
+    public static final class BookingCancelled extends BookingEvent {
+        private final String bookingId;
+        private final Movie movie;
+        private final long priceCents;
+
+        public BookingCancelled(BookingRecord booking) {
+            this.bookingId = booking.getBookingId();
+            this.movie = booking.getMovie();
+            this.priceCents = toCents(booking.getBookingPrice());
+        }
+
+        public String getBookingId() { return bookingId; }
+        public Movie getMovie() { return movie; }
+        public long getPriceCents() { return priceCents; }
+
+        @Override
+        public void applyTo(BookingProjection projection) {
+            projection.onBookingCancelled(this);
+        }
+    }
+
+    // A discount code was accepted for the current cart
+    public static final class DiscountApplied extends BookingEvent {
+        private final String code;
+        private final int percentage;
+
+        public DiscountApplied(String code, int percentage) {
+            if (percentage < 0 || percentage > 100) {
+                throw new IllegalArgumentException("Discount must be between 0 and 100 percent");
+            }
+            this.code = code;
+            this.percentage = percentage;
+        }
+
+        public String getCode() { return code; }
+        public int getPercentage() { return percentage; }
+
+        @Override
+        public void applyTo(BookingProjection projection) {
+            projection.onDiscountApplied(this);
+        }
+    }
+
+    // The whole cart was paid and emptied
+    public static final class CheckoutCompleted extends BookingEvent {
+        private final int bookingCount;
+        private final long paidCents;
+
+        public CheckoutCompleted(int bookingCount, long paidCents) {
+            this.bookingCount = bookingCount;
+            this.paidCents = paidCents;
+        }
+
+        public int getBookingCount() { return bookingCount; }
+        public long getPaidCents() { return paidCents; }
+
+        @Override
+        public void applyTo(BookingProjection projection) {
+            projection.onCheckoutCompleted(this);
+        }
+    }
+}
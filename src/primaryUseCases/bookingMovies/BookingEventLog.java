@@ -0,0 +1,55 @@
+/**
+ * Booking Event Log
+ * Append-only stream of booking events. Registered projections receive every
+ * event as it is appended, so their read models never need a rescan of the
+ * bookings. Any projection can be rebuilt by replaying the stream from the
+ * first event.
+ */
+
+package src.primaryUseCases.bookingMovies;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class BookingEventLog {
+
+    private final List<BookingEvent> events = new ArrayList<>();
+    private final List<BookingProjection> projections = new ArrayList<>();
+
+    // Appends an event and hands it to every projection
+    public synchronized void append(BookingEvent event) {
+        event.setSequence(events.size());
+        events.add(event);
+        for (BookingProjection projection : projections) {
+            event.applyTo(projection);
+        }
+    }
+
+    /**
+     * Adds a projection. It is rebuilt from the events so far and then kept
+     * up to date with every new event.
+     */
+    public synchronized <P extends BookingProjection> P register(P projection) {
+        replay(projection);
+        projections.add(projection);
+        return projection;
+    }
+
+    // Rebuilds a projection from the first event
+    public synchronized void replay(BookingProjection projection) {
+        projection.reset();
+        for (BookingEvent event : events) {
+            event.applyTo(projection);
+        }
+    }
+
+    public synchronized int size() {
+        return events.size();
+    }
+
+    // Read-only copy of the events, oldest first
+    public synchronized List<BookingEvent> getEvents() {
+        return Collections.unmodifiableList(new ArrayList<>(events));
+    }
+}
@@ -0,0 +1,40 @@
+/**
+ * Booking ID Allocator
+ * Hands out the numbers behind booking IDs ("B001", "B002", ...). Bookings
+ * take their IDs from whichever allocator dataStore is configured with:
+ * LocalIdAllocator for a single process, or FileLeaseIdAllocator when several
+ * processes on the same machine take bookings and must never share an ID.
+ */
+
+package src.primaryUseCases.bookingMovies;
+
+public interface BookingIdAllocator {
+
+    // Digits shown at least, so early IDs keep their familiar "B001" look
+    int MIN_DIGITS = 3;
+
+    // Returns a number no other caller of this allocator (or its peers) will get
+    long nextId();
+
+    /**
+     * Formats a booking number as an ID, e.g. 7 -> "B007", 12345 -> "B12345".
+     * Built from a char buffer because this runs for every booking and
+     * String.format has to parse its pattern on each call.
+     */
+    static String format(long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Booking number cannot be negative: " + id);
+        }
+        char[] buffer = new char[20]; // 'B' and the 19 digits of Long.MAX_VALUE
+        int start = buffer.length;
+        do {
+            buffer[--start] = (char) ('0' + id % 10);
+            id /= 10;
+        } while (id != 0);
+        while (buffer.length - start < MIN_DIGITS) {
+            buffer[--start] = '0';
+        }
+        buffer[--start] = 'B';
+        return new String(buffer, start, buffer.length - start);
+    }
+}
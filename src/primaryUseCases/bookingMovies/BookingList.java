@@ -0,0 +1,317 @@
+/**
+ * Booking List
+ * The list of bookings in the cart, with a hash index from booking id to
+ * slot so a booking can be found or cancelled without scanning the list.
+ * Cancelling leaves a tombstone (an empty slot) instead of shifting every
+ * later booking. Iteration skips tombstones, and the slots are compacted
+ * once tombstones outnumber live bookings, so both lookups and cancellations
+ * are O(1) amortized. Reading by position never compacts: a Fenwick tree of
+ * live slots maps the position to its slot in O(log n), so reads stay cheap
+ * and do not disturb an iteration in progress.
+ * It is still a normal List, so code that adds, clears or walks the
+ * bookings keeps working unchanged. Positional operations (get, set, add
+ * and remove at an index, sort) work on the live bookings in order, exactly
+ * as they would on an ArrayList holding only those bookings.
+ * A listener can be attached to hear about every booking that enters or
+ * leaves the list, however it was added or removed.
+ * Like ArrayList it is not thread safe. The cart is only used from the
+ * customer's thread: seat hold expiry and waitlist callbacks that change it
+ * run synchronously inside the booking or checkout call that triggered them.
+ */
+
+package src.primaryUseCases.bookingMovies;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import src.dataStore.Booking;
+
+public class BookingList extends AbstractList<Booking> {
+
+    private Booking[] slots = new Booking[16];
+    private int end;        // Slots in use, live or tombstone
+    private int tombstones;
+    private int[] liveTree = new int[slots.length + 1]; // Fenwick tree, 1 for each live slot
+    private final Map<String, Integer> slotById = new HashMap<>();
+    private Listener listener;
+
+    public BookingList() {
+    }
+
+    public BookingList(Collection<? extends Booking> bookings) {
+        addAll(bookings);
+    }
+
+    // Told about every booking added to or removed from the list, null for none
+    public void setListener(Listener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Finds a booking by id.
+     * @return The booking, or null if there is no such booking.
+     */
+    public Booking find(String bookingId) {
+        Integer slot = slotById.get(bookingId);
+        return slot == null ? null : slots[slot];
+    }
+
+    /**
+     * Removes a booking by id, leaving a tombstone in its slot.
+     * @return The removed booking, or null if there is no such booking.
+     */
+    public Booking removeById(String bookingId) {
+        Integer slot = slotById.get(bookingId);
+        return slot == null ? null : removeSlot(slot);
+    }
+
+    // Number of cancelled bookings still taking up a slot
+    public int getTombstones() {
+        return tombstones;
+    }
+
+    @Override
+    public boolean add(Booking booking) {
+        checkNew(booking);
+        if (end == slots.length) {
+            if (tombstones > 0) {
+                compact();
+            }
+            if (end == slots.length) {
+                slots = Arrays.copyOf(slots, slots.length * 2);
+                rebuildTree();
+            }
+        }
+        slotById.put(booking.getBookingId(), end);
+        addLive(end, 1);
+        slots[end++] = booking;
+        modCount++;
+        if (listener != null) listener.added(booking);
+        return true;
+    }
+
+    // Inserting in the middle shifts the later bookings, like ArrayList
+    @Override
+    public void add(int index, Booking booking) {
+        if (index == size()) {
+            add(booking);
+            return;
+        }
+        slotOf(index); // Bounds check
+        checkNew(booking);
+        if (tombstones > 0) compact();
+        if (end == slots.length) {
+            slots = Arrays.copyOf(slots, slots.length * 2);
+        }
+        System.arraycopy(slots, index, slots, index + 1, end - index);
+        slots[index] = booking;
+        end++;
+        for (int slot = index; slot < end; slot++) {
+            slotById.put(slots[slot].getBookingId(), slot);
+        }
+        rebuildTree();
+        modCount++;
+        if (listener != null) listener.added(booking);
+    }
+
+    @Override
+    public Booking get(int index) {
+        return slots[slotOf(index)];
+    }
+
+    // Replaces the booking at a live position; not a structural change, like ArrayList
+    @Override
+    public Booking set(int index, Booking booking) {
+        int slot = slotOf(index);
+        Booking old = slots[slot];
+        if (booking == null || !booking.getBookingId().equals(old.getBookingId())) {
+            checkNew(booking);
+        }
+        slotById.remove(old.getBookingId());
+        slotById.put(booking.getBookingId(), slot);
+        slots[slot] = booking;
+        if (listener != null) {
+            listener.removed(old);
+            listener.added(booking);
+        }
+        return old;
+    }
+
+    // Sorts the live bookings in place, dropping the tombstones first
+    @Override
+    public void sort(Comparator<? super Booking> c) {
+        if (tombstones > 0) compact();
+        Arrays.sort(slots, 0, end, c);
+        for (int slot = 0; slot < end; slot++) {
+            slotById.put(slots[slot].getBookingId(), slot);
+        }
+        modCount++;
+    }
+
+    @Override
+    public Booking remove(int index) {
+        return removeSlot(slotOf(index));
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Booking && find(((Booking) o).getBookingId()) == o;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!contains(o)) return false;
+        removeById(((Booking) o).getBookingId());
+        return true;
+    }
+
+    @Override
+    public int size() {
+        return end - tombstones;
+    }
+
+    @Override
+    public void clear() {
+        if (listener != null) {
+            for (int slot = 0; slot < end; slot++) {
+                if (slots[slot] != null) listener.removed(slots[slot]);
+            }
+        }
+        Arrays.fill(slots, 0, end, null);
+        Arrays.fill(liveTree, 0);
+        end = 0;
+        tombstones = 0;
+        slotById.clear();
+        modCount++;
+    }
+
+    @Override
+    public Iterator<Booking> iterator() {
+        return new Iterator<Booking>() {
+            private int cursor = skipTombstones(0);
+            private int last = -1;
+            private int expectedModCount = modCount;
+
+            @Override
+            public boolean hasNext() {
+                return cursor < end;
+            }
+
+            @Override
+            public Booking next() {
+                if (modCount != expectedModCount) throw new ConcurrentModificationException();
+                if (cursor >= end) throw new NoSuchElementException();
+                last = cursor;
+                cursor = skipTombstones(cursor + 1);
+                return slots[last];
+            }
+
+            // Leaves a tombstone without compacting, so the cursor stays valid
+            @Override
+            public void remove() {
+                if (last < 0) throw new IllegalStateException();
+                if (modCount != expectedModCount) throw new ConcurrentModificationException();
+                tombstone(last);
+                expectedModCount = modCount;
+                last = -1;
+            }
+        };
+    }
+
+    private void checkNew(Booking booking) {
+        if (booking == null) {
+            throw new IllegalArgumentException("Booking cannot be null");
+        }
+        if (slotById.containsKey(booking.getBookingId())) {
+            throw new IllegalArgumentException("Booking " + booking.getBookingId() + " is already in the list");
+        }
+    }
+
+    // Finds the slot of the booking at a position, skipping tombstones
+    private int slotOf(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size());
+        }
+        if (tombstones == 0) return index;
+
+        // Walks down the tree to the last slot with at most index live slots before it
+        int slot = 0;
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(slots.length); step > 0; step >>= 1) {
+            if (slot + step <= slots.length && liveTree[slot + step] < remaining) {
+                slot += step;
+                remaining -= liveTree[slot];
+            }
+        }
+        return slot;
+    }
+
+    private void addLive(int slot, int delta) {
+        for (int i = slot + 1; i < liveTree.length; i += i & -i) {
+            liveTree[i] += delta;
+        }
+    }
+
+    // Builds the tree in O(n) from the live slots
+    private void rebuildTree() {
+        liveTree = new int[slots.length + 1];
+        for (int i = 1; i < liveTree.length; i++) {
+            if (i <= end && slots[i - 1] != null) liveTree[i]++;
+            int parent = i + (i & -i);
+            if (parent < liveTree.length) liveTree[parent] += liveTree[i];
+        }
+    }
+
+    private int skipTombstones(int slot) {
+        while (slot < end && slots[slot] == null) slot++;
+        return slot;
+    }
+
+    private Booking removeSlot(int slot) {
+        Booking booking = tombstone(slot);
+        if (tombstones > end - tombstones) compact();
+        return booking;
+    }
+
+    private Booking tombstone(int slot) {
+        Booking booking = slots[slot];
+        slots[slot] = null;
+        slotById.remove(booking.getBookingId());
+        addLive(slot, -1);
+        tombstones++;
+        modCount++;
+        if (listener != null) listener.removed(booking);
+        return booking;
+    }
+
+    // Moves the live bookings to the front and drops the tombstones
+    private void compact() {
+        int live = 0;
+        for (int slot = 0; slot < end; slot++) {
+            Booking booking = slots[slot];
+            if (booking == null) continue;
+            if (slot != live) {
+                slots[live] = booking;
+                slotById.put(booking.getBookingId(), live);
+            }
+            live++;
+        }
+        Arrays.fill(slots, live, end, null);
+        end = live;
+        tombstones = 0;
+        rebuildTree();
+    }
+
+    // Hears about bookings entering and leaving the list
+    public interface Listener {
+        void added(Booking booking);
+
+        void removed(Booking booking);
+    }
+}
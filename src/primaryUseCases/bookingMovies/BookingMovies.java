@@ -1,7 +1,11 @@
 package src.primaryUseCases.bookingMovies; 
 
+import java.util.ArrayList; 
+
 import java.util.List; 
 
+import java.util.Map; 
+
 import java.util.Scanner; 
 import src.dataStore; 
 
@@ -11,6 +15,8 @@ import src.dataStore.Booking;
 
 import src.helpers.consoleColors; 
 
+import src.helpers.timeOfDay; 
+
 import src.helpers.validation; 
 public class BookingMovies { 
 
@@ -19,6 +25,14 @@ public class BookingMovies {
     private Scanner scanner; 
     public static boolean testMode = false; 
 
+    private final TitleBkTree titleTree = new TitleBkTree(); 
+
+    private final SeatAllocator seatAllocator = new SeatAllocator(); 
+
+ 
+
+    private static final int MAX_SUGGESTIONS = 3; 
+
     public BookingMovies(dataStore ds) { 
 
         this.dataStore = ds; 
@@ -99,7 +113,9 @@ for (Movie m : dataStore.getMovies()) {
 
     /** 
 
-     * Validates showtime with trimming and case-insensitive match. 
+     * Validates showtime by parsing it once into a minute of the day and 
+
+     * binary searching the movie's sorted showtimes. 
 
      */ 
 
@@ -107,21 +123,31 @@ for (Movie m : dataStore.getMovies()) {
 
         if (movie == null || showTime == null) return false; 
 
-        String userTime = showTime.trim().toLowerCase(); 
+        int minute = timeOfDay.parse(showTime); 
 
-        for (String t : movie.getShowTimes()) { 
+        if (minute == timeOfDay.INVALID) return false; 
 
-            if (t.trim().toLowerCase().equals(userTime)) { 
+        return movie.hasShowTime(minute); 
 
-                return true; 
+    } 
 
-            } 
+    /** 
 
-        } 
+     * Returns the closest titles to a title that was not found, nearest first. 
 
- 
+     * Longer titles are allowed more typos. 
+
+     */ 
+
+    public List<Movie> suggestTitles(String movieTitle) { 
+
+        if (movieTitle == null || !movieTitle.matches(".*[\\p{L}].*")) return new ArrayList<>(); 
 
-        return false; 
+        int length = normalize(movieTitle).length(); 
+
+        int maxDistance = length < 5 ? 1 : length < 10 ? 2 : 3; 
+
+        return titleTree.closest(movieTitle, maxDistance, MAX_SUGGESTIONS); 
 
     } 
 
@@ -137,11 +163,21 @@ for (Movie m : dataStore.getMovies()) {
 
             System.out.println(consoleColors.RED_BOLD + "Movie not found!" + consoleColors.RESET); 
 
+            List<Movie> suggestions = suggestTitles(movieTitle); 
+
+            if (!suggestions.isEmpty()) { 
+
+                System.out.println(consoleColors.YELLOW_BOLD + "Did you mean: " + titlesOf(suggestions) + "?" + consoleColors.RESET); 
+
+            } 
+
             return ""; 
 
         } 
 
-        if (!validateShowtime(movie, showTime)) { 
+        int minute = timeOfDay.parse(showTime); 
+
+        if (minute == timeOfDay.INVALID || !movie.hasShowTime(minute)) { 
 
             System.out.println(consoleColors.RED_BOLD + "Invalid showtime!" + consoleColors.RESET); 
 
@@ -149,7 +185,151 @@ for (Movie m : dataStore.getMovies()) {
 
         } 
 
-        Booking newBooking = new Booking(movie, showTime.trim()); 
+ 
+
+        releaseExpiredHolds(); // Seats of abandoned carts go back before we say sold out 
+
+        // Claim a seat first, the bitset CAS makes this safe without locking 
+
+        SeatMap seats = src.dataStore.getSeatInventory().screening(movie, minute); 
+
+        int seat = seats.claimAny(); 
+
+        if (seat == SeatMap.NO_SEAT) { 
+
+            System.out.println(consoleColors.RED_BOLD + "Sorry, this showtime is sold out!" + consoleColors.RESET); 
+
+            return ""; 
+
+        } 
+
+ 
+
+        Booking newBooking = addHeldBooking(movie, showTime.trim(), seats, seat); 
+
+        System.out.println(consoleColors.GREEN_BOLD + "Booking Successful!" + consoleColors.RESET); 
+
+        return newBooking.getBookingId(); 
+
+    } 
+
+    /** 
+
+     * Books seats for a group, side by side and as central as possible. 
+
+     * @return The booking ids, one per seat, or an empty list if the group could not be seated. 
+
+     */ 
+
+    public List<String> bookSeats(String movieTitle, String showTime, int groupSize) { 
+
+        List<String> bookingIds = new ArrayList<>(); 
+
+ 
+
+        Movie movie = getMovieByTitle(movieTitle); 
+
+        if (movie == null) { 
+
+            System.out.println(consoleColors.RED_BOLD + "Movie not found!" + consoleColors.RESET); 
+
+            return bookingIds; 
+
+        } 
+
+ 
+
+        int minute = timeOfDay.parse(showTime); 
+
+        if (minute == timeOfDay.INVALID || !movie.hasShowTime(minute)) { 
+
+            System.out.println(consoleColors.RED_BOLD + "Invalid showtime!" + consoleColors.RESET); 
+
+            return bookingIds; 
+
+        } 
+
+ 
+
+        if (groupSize <= 0) { 
+
+            System.out.println(consoleColors.RED_BOLD + "Number of seats must be at least 1!" + consoleColors.RESET); 
+
+            return bookingIds; 
+
+        } 
+
+ 
+
+        releaseExpiredHolds(); // Seats of abandoned carts go back before we say sold out 
+
+        SeatMap seats = src.dataStore.getSeatInventory().screening(movie, minute); 
+
+        int[] claimed = seatAllocator.allocate(seats, groupSize); 
+
+        if (claimed.length == 0) { 
+
+            System.out.println(consoleColors.RED_BOLD + "Sorry, only " + seats.getAvailable() 
+
+                    + " seats are left for this showtime!" + consoleColors.RESET); 
+
+            return bookingIds; 
+
+        } 
+
+ 
+
+        StringBuilder labels = new StringBuilder(); 
+
+        for (int seat : claimed) { 
+
+            bookingIds.add(addHeldBooking(movie, showTime.trim(), seats, seat).getBookingId()); 
+
+            labels.append(labels.length() > 0 ? ", " : "").append(seats.seatLabel(seat)); 
+
+        } 
+
+ 
+
+        System.out.println(consoleColors.GREEN_BOLD + "Booking Successful! Seats: " + labels + consoleColors.RESET); 
+
+        return bookingIds; 
+
+    } 
+
+    /** 
+
+     * Cancels a booking in the cart and gives its seat back. 
+
+     * @return true if the booking existed and was cancelled. 
+
+     */ 
+
+    public boolean cancelBooking(String bookingId) { 
+
+        Booking cancelled = src.dataStore.cancelBooking(bookingId); 
+
+        if (cancelled == null) { 
+
+            System.out.println(consoleColors.RED_BOLD + "Booking not found!" + consoleColors.RESET); 
+
+            return false; 
+
+        } 
+
+        System.out.println(consoleColors.GREEN_BOLD + "Booking " + cancelled.getBookingId() + " for " 
+
+                + cancelled.getMovieTitle() + " at " + cancelled.getShowTime() + " was cancelled." + consoleColors.RESET); 
+
+        return true; 
+
+    } 
+
+    // Adds a booking for a claimed seat to the cart; the seat is held until checkout 
+
+    private Booking addHeldBooking(Movie movie, String showTime, SeatMap seats, int seat) { 
+
+        Booking newBooking = new Booking(movie, showTime, seat); 
 
         List<Booking> bookings = dataStore.getBookings(); 
 
@@ -157,9 +337,81 @@ for (Movie m : dataStore.getMovies()) {
 
         dataStore.setBookings(bookings); 
 
-        System.out.println(consoleColors.GREEN_BOLD + "Booking Successful!" + consoleColors.RESET); 
+        src.dataStore.getSeatHolds().hold(newBooking.getBookingId(), seats, seat); 
 
-        return newBooking.getBookingId(); 
+        return newBooking; 
+
+    } 
+
+    // Expires holds whose time ran out, so their seats can be claimed again 
+
+    private void releaseExpiredHolds() { 
+
+        src.dataStore.getSeatHolds().expireDue(); 
+
+    } 
+
+ 
+
+    /** 
+
+     * Puts the customer on the waitlist of a sold out screening. When a seat 
+
+     * is released it is booked for them and added to the cart. The cart holds 
+
+     * at most one place per screening, so asking again does not add a second seat. 
+
+     * @return The waitlist ticket, or Waitlist.NOT_WAITING if the waitlist is full 
+
+     * or the cart is already waiting for this screening. 
+
+     */ 
+
+    public long joinWaitlist(Movie movie, String showTime, SeatMap seats) { 
+
+        Waitlist waitlist = seats.getWaitlist(); 
+
+        Map<SeatMap, Long> tickets = src.dataStore.getWaitlistTickets(); 
+
+        Long waiting = tickets.get(seats); 
+
+        if (waiting != null && waitlist.position(waiting) > 0) { 
+
+            System.out.println(consoleColors.YELLOW_BOLD + "You are already number " + waitlist.position(waiting) 
+
+                    + " on the waitlist for this showtime." + consoleColors.RESET); 
+
+            return Waitlist.NOT_WAITING; 
+
+        } 
+
+        long ticket = waitlist.join(seat -> { 
+
+            addHeldBooking(movie, showTime, seats, seat); 
+
+            System.out.println(consoleColors.GREEN_BOLD + "A seat opened up for " + movie.getTitle() + " at " + showTime 
+
+                    + "! Seat " + seats.seatLabel(seat) + " was added to your cart." + consoleColors.RESET); 
+
+        }); 
+
+ 
+
+        if (ticket == Waitlist.NOT_WAITING) { 
+
+            System.out.println(consoleColors.RED_BOLD + "The waitlist is full as well, please try another showtime." + consoleColors.RESET); 
+
+        } else { 
+
+            tickets.put(seats, ticket); 
+
+            System.out.println(consoleColors.YELLOW_BOLD + "You are number " + waitlist.position(ticket) 
+
+                    + " on the waitlist, a released seat will be added to your cart." + consoleColors.RESET); 
+
+        } 
+
+        return ticket; 
 
     } 
 
@@ -174,11 +426,145 @@ for (Movie m : dataStore.getMovies()) {
 
         String title = scanner.nextLine(); 
 
+ 
+
+        // Offer the closest titles before asking for a showtime 
+
+        if (getMovieByTitle(title) == null) { 
+
+            List<Movie> suggestions = suggestTitles(title); 
+
+            if (!suggestions.isEmpty()) { 
+
+                title = chooseSuggestion(suggestions, title); 
+
+            } 
+
+        } 
+
+ 
+
+        System.out.print("Enter showtime: "); 
+
+        String showTime = scanner.nextLine(); 
+
+        if (bookMovie(title, showTime).isEmpty()) { 
+
+            offerWaitlist(title, showTime); 
+
+        } 
+
+    } 
+
+ 
+
+    // Asks a customer who hit a sold out screening whether to wait for a released seat 
+
+    private void offerWaitlist(String title, String showTime) { 
+
+        Movie movie = getMovieByTitle(title); 
+
+        int minute = timeOfDay.parse(showTime); 
+
+        if (movie == null || minute == timeOfDay.INVALID || !movie.hasShowTime(minute)) return; 
+
+        SeatMap seats = src.dataStore.getSeatInventory().screening(movie, minute); 
+
+        if (seats == null || !seats.isSoldOut()) return; 
+
+ 
+
+        System.out.print("Join the waitlist for this showtime? (yes/no): "); 
+
+        String answer = scanner.nextLine().trim().toLowerCase(); 
+
+        if (answer.equals("yes")) { 
+
+            joinWaitlist(movie, showTime.trim(), seats); 
+
+        } 
+
+    } 
+
+ 
+
+    private String chooseSuggestion(List<Movie> suggestions, String typedTitle) { 
+
+        System.out.println(consoleColors.YELLOW_BOLD + "Movie not found. Did you mean:" + consoleColors.RESET); 
+
+        for (int i = 0; i < suggestions.size(); i++) { 
+
+            System.out.println(consoleColors.GREEN_BOLD + (i + 1) + ". " + suggestions.get(i).getTitle() + consoleColors.RESET); 
+
+        } 
+
+        System.out.print("Choose a number (or press Enter to keep your title): "); 
+
+        String choice = scanner.nextLine().trim(); 
+
+        try { 
+
+            int index = Integer.parseInt(choice); 
+
+            if (index >= 1 && index <= suggestions.size()) { 
+
+                return suggestions.get(index - 1).getTitle(); 
+
+            } 
+
+        } catch (NumberFormatException e) { 
+
+            // Keep the typed title 
+
+        } 
+
+        return typedTitle; 
+
+    } 
+
+ 
+
+    private static String titlesOf(List<Movie> movies) { 
+
+        StringBuilder titles = new StringBuilder(); 
+
+        for (Movie m : movies) { 
+
+            if (titles.length() > 0) titles.append(", "); 
+
+            titles.append(m.getTitle()); 
+
+        } 
+
+        return titles.toString(); 
+
+    } 
+
+    public void bookSeatsPrompt() { 
+
+        System.out.print("Enter movie title: "); 
+
+        String title = scanner.nextLine(); 
+
         System.out.print("Enter showtime: "); 
 
         String showTime = scanner.nextLine(); 
 
-        bookMovie(title, showTime); 
+        int groupSize = validation.getValidIntegerInput("Enter number of seats: ", scanner); 
+
+        scanner.nextLine(); // clear buffer 
+
+        bookSeats(title, showTime, groupSize); 
+
+    } 
+
+    public void cancelBookingPrompt() { 
+
+        System.out.print("Enter booking ID: "); 
+
+        String bookingId = scanner.nextLine(); 
+
+        cancelBooking(bookingId); 
 
     } 
 
@@ -190,6 +576,10 @@ for (Movie m : dataStore.getMovies()) {
 
         System.out.println(consoleColors.GREEN_BOLD + "1. Book a Movie" + consoleColors.RESET); 
 
+        System.out.println(consoleColors.GREEN_BOLD + "2. Book Seats for a Group" + consoleColors.RESET); 
+
+        System.out.println(consoleColors.GREEN_BOLD + "3. Cancel a Booking" + consoleColors.RESET); 
+
         System.out.println(consoleColors.RED_BOLD + "4. Return to Main Menu" + consoleColors.RESET); 
 
     } 
@@ -232,6 +622,22 @@ for (Movie m : dataStore.getMovies()) {
 
                     break; 
 
+                case 2: 
+
+                    bookSeatsPrompt(); 
+
+                    if (testMode) return; 
+
+                    break; 
+
+                case 3: 
+
+                    cancelBookingPrompt(); 
+
+                    if (testMode) return; 
+
+                    break; 
+
                 case 4: 
 
                     System.out.println("Returning to main menu..."); 
@@ -0,0 +1,31 @@
+/**
+ * Booking Projection
+ * A read model kept up to date one event at a time. A projection only
+ * handles the events it cares about and must be able to start over from
+ * reset(), so it can always be rebuilt by replaying the log.
+ */
+
+package src.primaryUseCases.bookingMovies;
+
+import src.primaryUseCases.bookingMovies.BookingEvent.BookingCancelled;
+import src.primaryUseCases.bookingMovies.BookingEvent.BookingCreated;
+import src.primaryUseCases.bookingMovies.BookingEvent.CheckoutCompleted;
+import src.primaryUseCases.bookingMovies.BookingEvent.DiscountApplied;
+
+public interface BookingProjection {
+
+    // Forgets everything, as before the first event
+    void reset();
+
+    default void onBookingCreated(BookingCreated event) {
+    }
+
+    default void onBookingCancelled(BookingCancelled event) {
+    }
+
+    default void onDiscountApplied(DiscountApplied event) {
+    }
+
+    default void onCheckoutCompleted(CheckoutCompleted event) {
+    }
+}
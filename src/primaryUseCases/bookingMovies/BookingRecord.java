@@ -0,0 +1,27 @@
+/**
+ * Booking Record
+ * Read-only view of a booking. Implemented by dataStore.Booking and by the
+ * flyweight views of PackedBookingStore, so reports can work on either.
+ */
+
+package src.primaryUseCases.bookingMovies;
+
+import src.dataStore.Movie;
+
+public interface BookingRecord {
+
+    String getBookingId();
+
+    Movie getMovie();
+
+    String getMovieTitle();
+
+    String getHallType();
+
+    String getShowTime();
+
+    // Seat index in the hall, SeatMap.NO_SEAT if no seat was assigned
+    int getSeat();
+
+    double getBookingPrice();
+}
@@ -0,0 +1,95 @@
+/**
+ * Booking Request
+ * One booking for a BookingEngine and, once the engine is done, its result.
+ * A request can be reused for the next booking after the engine has
+ * completed it, so a busy caller does not allocate one per booking.
+ */
+
+package src.primaryUseCases.bookingMovies;
+
+import java.util.List;
+import src.dataStore.Booking;
+import src.dataStore.Movie;
+import src.helpers.timeOfDay;
+
+public class BookingRequest {
+
+    public enum Status { PENDING, BOOKED, SOLD_OUT, NO_SUCH_SCREENING, FAILED }
+
+    private Movie movie;
+    private String showTime;
+    private int minute;
+
+    // Written by the engine before status, read by the caller after it
+    private String bookingId;
+    private int seat;
+    private volatile Status status = Status.PENDING;
+    volatile Thread waiter; // Caller to wake up when the request completes
+
+    public BookingRequest(Movie movie, String showTime) {
+        reset(movie, showTime);
+    }
+
+    // Prepares the request for another booking
+    public BookingRequest reset(Movie movie, String showTime) {
+        this.movie = movie;
+        this.showTime = showTime == null ? null : showTime.trim();
+        this.minute = timeOfDay.parse(showTime);
+        this.bookingId = null;
+        this.seat = SeatMap.NO_SEAT;
+        this.status = Status.PENDING;
+        return this;
+    }
+
+    public Movie getMovie() {
+        return movie;
+    }
+
+    public String getShowTime() {
+        return showTime;
+    }
+
+    int getMinute() {
+        return minute;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isDone() {
+        return status != Status.PENDING;
+    }
+
+    // Booking ID once booked, null otherwise
+    public String getBookingId() {
+        return bookingId;
+    }
+
+    public int getSeat() {
+        return seat;
+    }
+
+    // Claims a seat and records the booking; only ever called by one thread at a time
+    void applyTo(SeatInventory inventory, List<? super Booking> ledger) {
+        SeatMap seats = inventory.screening(movie, minute);
+        if (seats == null) {
+            complete(Status.NO_SUCH_SCREENING, null, SeatMap.NO_SEAT);
+            return;
+        }
+        int claimed = seats.claimAny();
+        if (claimed == SeatMap.NO_SEAT) {
+            complete(Status.SOLD_OUT, null, SeatMap.NO_SEAT);
+            return;
+        }
+        Booking booking = new Booking(movie, showTime, claimed);
+        ledger.add(booking);
+        complete(Status.BOOKED, booking.getBookingId(), claimed);
+    }
+
+    void complete(Status result, String bookingId, int seat) {
+        this.bookingId = bookingId;
+        this.seat = seat;
+        this.status = result; // Volatile write publishes the fields above
+    }
+}
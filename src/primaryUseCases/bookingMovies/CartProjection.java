@@ -0,0 +1,73 @@
+/**
+ * Cart Projection
+ * Running totals of the unpaid cart, kept up to date from booking events so
+ * the checkout total is read in O(1) instead of summing every booking.
+ * Amounts are kept in cents so adding and removing prices never drifts.
+ */
+
+package src.primaryUseCases.bookingMovies;
+
+import src.primaryUseCases.bookingMovies.BookingEvent.BookingCancelled;
+import src.primaryUseCases.bookingMovies.BookingEvent.BookingCreated;
+import src.primaryUseCases.bookingMovies.BookingEvent.CheckoutCompleted;
+import src.primaryUseCases.bookingMovies.BookingEvent.DiscountApplied;
+
+public class CartProjection implements BookingProjection {
+
+    private long subtotalCents;
+    private int itemCount;
+    private int discountPercentage;
+
+    @Override
+    public synchronized void reset() {
+        subtotalCents = 0;
+        itemCount = 0;
+        discountPercentage = 0;
+    }
+
+    @Override
+    public synchronized void onBookingCreated(BookingCreated event) {
+        subtotalCents += event.getPriceCents();
+        itemCount++;
+    }
+
+    @Override
+    public synchronized void onBookingCancelled(BookingCancelled event) {
+        subtotalCents -= event.getPriceCents();
+        itemCount--;
+    }
+
+    // The latest discount replaces any earlier one
+    @Override
+    public synchronized void onDiscountApplied(DiscountApplied event) {
+        discountPercentage = event.getPercentage();
+    }
+
+    // A paid cart starts over empty and without a discount
+    @Override
+    public synchronized void onCheckoutCompleted(CheckoutCompleted event) {
+        reset();
+    }
+
+    // Price of the cart before any discount
+    public synchronized double getSubtotal() {
+        return subtotalCents / 100.0;
+    }
+
+    // Price of the cart after the discount, rounded to the cent
+    public synchronized long getTotalCents() {
+        return Math.round(subtotalCents * (100 - discountPercentage) / 100.0);
+    }
+
+    public synchronized double getTotal() {
+        return getTotalCents() / 100.0;
+    }
+
+    public synchronized int getItemCount() {
+        return itemCount;
+    }
+
+    public synchronized int getDiscountPercentage() {
+        return discountPercentage;
+    }
+}
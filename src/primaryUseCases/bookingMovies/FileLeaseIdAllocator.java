@@ -0,0 +1,83 @@
+/**
+ * File Lease ID Allocator
+ * Booking numbers shared by several processes (kiosks, nodes) on one machine.
+ * A small file holds the first number nobody has leased yet. A process takes
+ * a whole block of numbers at once under an exclusive file lock and then hands
+ * them out from memory, so the file is only touched once per block.
+ * Numbers left in a block when a process stops are skipped, never reused.
+ */
+
+package src.primaryUseCases.bookingMovies;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class FileLeaseIdAllocator implements BookingIdAllocator {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1000;
+
+    // File locks are held per process, so allocators in the same JVM also take a lock per file
+    private static final ConcurrentHashMap<Path, Object> PROCESS_LOCKS = new ConcurrentHashMap<>();
+
+    private final Path file;
+    private final int blockSize;
+    private long next; // Next number of the current block
+    private long end;  // First number after the current block
+
+    public FileLeaseIdAllocator(Path file) {
+        this(file, DEFAULT_BLOCK_SIZE);
+    }
+
+    public FileLeaseIdAllocator(Path file, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.file = file.toAbsolutePath().normalize();
+        this.blockSize = blockSize;
+    }
+
+    @Override
+    public synchronized long nextId() {
+        if (next == end) {
+            leaseBlock();
+        }
+        return next++;
+    }
+
+    // Reserves the next block in the shared file; the file lock is only held, never read
+    @SuppressWarnings("try")
+    private void leaseBlock() {
+        Object processLock = PROCESS_LOCKS.computeIfAbsent(file, f -> new Object());
+        synchronized (processLock) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+                    FileLock lock = channel.lock()) {
+                ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+                long first = 1; // A new file starts at B001
+                if (channel.size() >= Long.BYTES) {
+                    channel.read(buffer, 0);
+                    first = buffer.flip().getLong();
+                }
+                buffer.clear().putLong(first + blockSize).flip();
+                channel.write(buffer, 0);
+                channel.force(false);
+
+                next = first;
+                end = first + blockSize;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not lease booking IDs from " + file, e);
+            }
+        }
+    }
+
+    // Numbers still left in the current block
+    public synchronized long getRemainingInBlock() {
+        return end - next;
+    }
+}
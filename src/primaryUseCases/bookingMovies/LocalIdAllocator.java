@@ -0,0 +1,30 @@
+/**
+ * Local ID Allocator
+ * Booking numbers from an atomic counter in this process. Safe for any
+ * number of threads, but two processes using it will hand out the same IDs.
+ */
+
+package src.primaryUseCases.bookingMovies;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LocalIdAllocator implements BookingIdAllocator {
+
+    private final AtomicLong next;
+
+    public LocalIdAllocator() {
+        this(1);
+    }
+
+    public LocalIdAllocator(long first) {
+        if (first < 0) {
+            throw new IllegalArgumentException("First booking number cannot be negative");
+        }
+        this.next = new AtomicLong(first);
+    }
+
+    @Override
+    public long nextId() {
+        return next.getAndIncrement();
+    }
+}
@@ -0,0 +1,40 @@
+/**
+ * Locking Booking Engine
+ * Every request claims its seat and appends its booking while holding one
+ * lock. Simple and correct, but under a rush all callers queue on the lock;
+ * kept as the baseline that RingBufferBookingEngine is measured against.
+ */
+
+package src.primaryUseCases.bookingMovies;
+
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+import src.dataStore.Booking;
+
+public class LockingBookingEngine implements BookingEngine {
+
+    private final SeatInventory inventory;
+    private final List<? super Booking> ledger;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public LockingBookingEngine(SeatInventory inventory, List<? super Booking> ledger) {
+        this.inventory = inventory;
+        this.ledger = ledger;
+    }
+
+    @Override
+    public boolean book(BookingRequest request) {
+        lock.lock();
+        try {
+            request.applyTo(inventory, ledger);
+        } finally {
+            lock.unlock();
+        }
+        return request.getStatus() == BookingRequest.Status.BOOKED;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to stop, every request finishes inside book()
+    }
+}
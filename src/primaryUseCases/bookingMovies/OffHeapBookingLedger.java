@@ -0,0 +1,284 @@
+/**
+ * Off-Heap Booking Ledger
+ * Append-only booking history stored outside the Java heap, so a history of
+ * many days adds nothing for the garbage collector to trace. Records have a
+ * fixed width of 12 bytes (the packed long of PackedBookingStore followed by
+ * the numeric booking ID) and live in a list of equally sized segments; a new
+ * segment is added when the last one is full, nothing is ever copied.
+ * Showtimes are stored as their minute of the day, so records stay right
+ * when a movie's showtimes are edited, before or after a restart.
+ *
+ * Segments are direct ByteBuffers, or regions of a memory-mapped file when
+ * the ledger is opened with open(path). A file-backed ledger keeps its record
+ * count in a small header and is read back in place after a restart.
+ * Records refer to movies by catalog position, so a ledger file has to be
+ * read with the same catalog it was written with.
+ *
+ * The ledger is a read-only List of BookingRecord (plus add), so code that
+ * reads dataStore.getBookings() can read the ledger the same way.
+ */
+
+package src.primaryUseCases.bookingMovies;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import src.catalogIndex;
+import src.dataStore.Movie;
+
+public class OffHeapBookingLedger extends AbstractList<BookingRecord> implements Closeable {
+
+    public static final int RECORD_BYTES = Long.BYTES + Integer.BYTES;
+    public static final int DEFAULT_RECORDS_PER_SEGMENT = 64 * 1024;
+
+    // File header: magic, records per segment, record count
+    private static final int MAGIC = 0x424B4C32; // "BKL2", version 1 stored showtime slots
+    private static final int HEADER_BYTES = 16;
+    private static final int COUNT_OFFSET = 8;
+
+    private final int recordsPerSegment;
+    private final int segmentBytes;
+    private final List<ByteBuffer> segments = new CopyOnWriteArrayList<>(); // Rarely grows, read without locking
+    private final MovieIds movieIds = new MovieIds();
+    private final FileChannel channel; // null for a ledger in direct memory only
+    private final MappedByteBuffer header;
+    private int count;
+
+    public OffHeapBookingLedger() {
+        this(DEFAULT_RECORDS_PER_SEGMENT);
+    }
+
+    // Ledger in direct memory, gone when the program exits
+    public OffHeapBookingLedger(int recordsPerSegment) {
+        if (recordsPerSegment <= 0) {
+            throw new IllegalArgumentException("A segment must hold at least one record");
+        }
+        this.recordsPerSegment = recordsPerSegment;
+        this.segmentBytes = recordsPerSegment * RECORD_BYTES;
+        this.channel = null;
+        this.header = null;
+    }
+
+    private OffHeapBookingLedger(FileChannel channel, int recordsPerSegment) throws IOException {
+        boolean existing = channel.size() > 0;
+        this.channel = channel;
+        this.header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_BYTES);
+        header.order(ByteOrder.LITTLE_ENDIAN);
+
+        if (existing) {
+            // Existing ledger: its own segment size wins
+            if (header.getInt(0) != MAGIC || header.getInt(4) <= 0 || header.getLong(COUNT_OFFSET) < 0) {
+                throw new IOException("Not a booking ledger file");
+            }
+            this.recordsPerSegment = header.getInt(4);
+            this.count = (int) header.getLong(COUNT_OFFSET);
+        } else {
+            if (recordsPerSegment <= 0) {
+                throw new IllegalArgumentException("A segment must hold at least one record");
+            }
+            this.recordsPerSegment = recordsPerSegment;
+            header.putInt(4, recordsPerSegment);
+            header.putLong(COUNT_OFFSET, 0);
+            header.putInt(0, MAGIC);
+        }
+        this.segmentBytes = this.recordsPerSegment * RECORD_BYTES;
+
+        while ((long) segments.size() * this.recordsPerSegment < count) {
+            addSegment();
+        }
+    }
+
+    /**
+     * Opens a ledger backed by a memory-mapped file, creating the file if needed.
+     * Records already in the file are read in place, without copying.
+     */
+    public static OffHeapBookingLedger open(Path file) throws IOException {
+        return open(file, DEFAULT_RECORDS_PER_SEGMENT);
+    }
+
+    public static OffHeapBookingLedger open(Path file, int recordsPerSegment) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            return new OffHeapBookingLedger(channel, recordsPerSegment);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Appends a booking to the end of the ledger.
+     * @return Always true, as required by List.add.
+     */
+    @Override
+    public synchronized boolean add(BookingRecord booking) {
+        Integer movieId = movieIds.idOf(booking.getMovie());
+        if (movieId == null) {
+            throw new IllegalArgumentException("Movie " + booking.getMovieTitle() + " is not in the catalog");
+        }
+        long packed = PackedBookingStore.pack(booking, movieId);
+        int id = PackedBookingStore.parseId(booking.getBookingId());
+
+        if (count == segments.size() * recordsPerSegment) {
+            try {
+                addSegment();
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not grow the booking ledger", e);
+            }
+        }
+        ByteBuffer segment = segments.get(count / recordsPerSegment);
+        int offset = (count % recordsPerSegment) * RECORD_BYTES;
+        segment.putLong(offset, packed);
+        segment.putInt(offset + Long.BYTES, id);
+        count++;
+
+        // The record is written before the count, so a crash never exposes a half-written record
+        if (header != null) header.putLong(COUNT_OFFSET, count);
+        return true;
+    }
+
+    // Flyweight view of the record at a position
+    @Override
+    public synchronized BookingRecord get(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + count);
+        }
+        return new View(index);
+    }
+
+    @Override
+    public synchronized int size() {
+        return count;
+    }
+
+    /**
+     * Visits every record through one reused view, so a full pass allocates
+     * nothing per booking. The view must not be kept after the callback returns.
+     */
+    @Override
+    public void forEach(Consumer<? super BookingRecord> action) {
+        int visible;
+        synchronized (this) {
+            visible = count;
+        }
+        View view = new View(0);
+        for (int i = 0; i < visible; i++) {
+            view.index = i;
+            action.accept(view);
+        }
+    }
+
+    // Sum of all booking prices, read straight from the records
+    public synchronized double getTotalRevenue() {
+        long cents = 0;
+        for (int i = 0; i < count; i++) {
+            cents += PackedBookingStore.cents(packedAt(i));
+        }
+        return cents / 100.0;
+    }
+
+    // Off-heap memory held by the segments
+    public synchronized long getOffHeapBytes() {
+        return (long) segments.size() * segmentBytes;
+    }
+
+    public boolean isFileBacked() {
+        return channel != null;
+    }
+
+    // Writes mapped segments back to the file and closes it; does nothing for a direct ledger
+    @Override
+    public synchronized void close() throws IOException {
+        if (channel == null || !channel.isOpen()) return;
+        for (ByteBuffer segment : segments) {
+            ((MappedByteBuffer) segment).force();
+        }
+        header.force();
+        channel.close();
+    }
+
+    private void addSegment() throws IOException {
+        ByteBuffer segment;
+        if (channel == null) {
+            segment = ByteBuffer.allocateDirect(segmentBytes);
+        } else {
+            long position = HEADER_BYTES + (long) segments.size() * segmentBytes;
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, position, segmentBytes);
+        }
+        segments.add(segment.order(ByteOrder.LITTLE_ENDIAN));
+    }
+
+    private long packedAt(int index) {
+        return segments.get(index / recordsPerSegment).getLong((index % recordsPerSegment) * RECORD_BYTES);
+    }
+
+    private int idAt(int index) {
+        return segments.get(index / recordsPerSegment).getInt((index % recordsPerSegment) * RECORD_BYTES + Long.BYTES);
+    }
+
+    // Movie ids as catalog positions, kept up to date with the catalog
+    private static class MovieIds extends catalogIndex {
+        private final Map<Movie, Integer> ids = new IdentityHashMap<>();
+
+        @Override
+        protected void clear() {
+            ids.clear();
+        }
+
+        @Override
+        protected void add(int movieId, Movie movie) {
+            ids.put(movie, movieId);
+        }
+
+        // Edits keep a movie's position, and records do not depend on its showtimes
+        @Override
+        protected void update(int movieId, Movie movie) {
+        }
+
+        synchronized Integer idOf(Movie movie) {
+            sync();
+            return ids.get(movie);
+        }
+
+        synchronized Movie at(int movieId) {
+            sync();
+            return movie(movieId);
+        }
+    }
+
+    // A record of this ledger
+    private class View extends PackedBookingStore.PackedView {
+        int index;
+
+        View(int index) {
+            this.index = index;
+        }
+
+        @Override
+        protected long packed() {
+            return packedAt(index);
+        }
+
+        @Override
+        protected int numericId() {
+            return idAt(index);
+        }
+
+        @Override
+        protected Movie movie(int movieId) {
+            return movieIds.at(movieId);
+        }
+    }
+}
@@ -0,0 +1,367 @@
+/**
+ * Packed Booking Store
+ * Keeps large numbers of bookings for reporting without one object graph per
+ * booking. Each booking is a single long plus an int for the numeric part of
+ * its ID, 12 bytes in total, against about 90 bytes for a Booking object
+ * with its ID string (see tests/benchmarks/benchBookingFootprint).
+ *
+ * Layout of the long (low bits first):
+ *   price in cents  17 bits  (up to 1310.71)
+ *   seat + 1        14 bits  (0 = no seat, up to 16382)
+ *   hall id + 1      6 bits  (position in dataStore.getHalls(), 0 = unknown hall)
+ *   start minute    11 bits  (minute of the day, 0 - 1439)
+ *   movie id        16 bits  (see below)
+ *
+ * Bookings are read back through flyweight views that only hold a position
+ * in the store. The showtime is kept as its minute of the day, so editing a
+ * movie's showtimes never changes what a sold booking says. Movie ids are
+ * handed out by the store itself the first time it sees a movie, so sales
+ * survive edits to the catalog and the catalog list being replaced.
+ *
+ * A booking that does not fit the layout (a showtime that is not a time, an
+ * ID beyond int range, more than 65536 movies, ...) is copied into a side
+ * list instead and its ID slot holds the negative position in that list.
+ * Recording a sale therefore never fails, which matters because checkout
+ * records sales after the customer has confirmed the payment.
+ */
+
+package src.primaryUseCases.bookingMovies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import src.dataStore;
+import src.dataStore.HallType;
+import src.dataStore.Movie;
+import src.helpers.timeOfDay;
+
+public class PackedBookingStore {
+
+    private static final int PRICE_BITS = 17;
+    private static final int SEAT_BITS = 14;
+    private static final int HALL_BITS = 6;
+    private static final int MINUTE_BITS = 11;
+    private static final int MOVIE_BITS = 16;
+
+    private static final int SEAT_SHIFT = PRICE_BITS;
+    private static final int HALL_SHIFT = SEAT_SHIFT + SEAT_BITS;
+    private static final int MINUTE_SHIFT = HALL_SHIFT + HALL_BITS;
+    private static final int MOVIE_SHIFT = MINUTE_SHIFT + MINUTE_BITS;
+
+    // Rough size of an array object header, used in the footprint report
+    private static final int ARRAY_HEADER_BYTES = 16;
+
+    private final Map<Movie, Integer> movieIds = new IdentityHashMap<>();
+    private final List<Movie> movies = new ArrayList<>(); // Movie of each movie id
+    private long[] packed = new long[16];
+    private int[] ids = new int[16]; // Numeric booking ID, or -1 - position in unpacked
+    private int count;
+    private final List<BookingRecord> unpacked = new ArrayList<>(); // Bookings that do not fit the layout
+
+    /**
+     * Packs a booking into the store.
+     * @return The position of the booking in the store.
+     */
+    public synchronized int add(BookingRecord booking) {
+        int movieId = movieId(booking.getMovie());
+        if (movieId >= 0) {
+            try {
+                long record = pack(booking, movieId);
+                append(record, parseId(booking.getBookingId()));
+                return count - 1;
+            } catch (IllegalArgumentException e) {
+                // Does not fit the layout, kept unpacked below
+            }
+        }
+        unpacked.add(new Unpacked(booking));
+        append(0, -unpacked.size());
+        return count - 1;
+    }
+
+    // Adds bookings in order; like add, this never fails on a booking that does not fit
+    public synchronized void addAll(Collection<? extends BookingRecord> bookings) {
+        for (BookingRecord booking : bookings) {
+            add(booking);
+        }
+    }
+
+    private void append(long record, int id) {
+        if (count == packed.length) {
+            packed = Arrays.copyOf(packed, count * 2);
+            ids = Arrays.copyOf(ids, count * 2);
+        }
+        packed[count] = record;
+        ids[count++] = id;
+    }
+
+    // The store's own id for a movie, handed out on first sight; -1 if it has none and none are left
+    private int movieId(Movie movie) {
+        if (movie == null) return -1;
+        Integer movieId = movieIds.get(movie);
+        if (movieId == null) {
+            movieId = movies.size();
+            if (movieId > mask(MOVIE_BITS)) return -1;
+            movies.add(movie);
+            movieIds.put(movie, movieId);
+        }
+        return movieId;
+    }
+
+    // Flyweight view of the booking at a position
+    public synchronized BookingRecord get(int index) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + count);
+        }
+        return ids[index] < 0 ? unpacked.get(-1 - ids[index]) : new View(index);
+    }
+
+    /**
+     * Visits every booking through one reused view, so a full pass allocates
+     * nothing per booking. The view must not be kept after the callback returns.
+     */
+    public synchronized void forEach(Consumer<BookingRecord> action) {
+        View view = new View(0);
+        for (int i = 0; i < count; i++) {
+            if (ids[i] < 0) {
+                action.accept(unpacked.get(-1 - ids[i]));
+                continue;
+            }
+            view.index = i;
+            action.accept(view);
+        }
+    }
+
+    // Sum of all booking prices, read straight from the packed cents
+    public synchronized double getTotalRevenue() {
+        long cents = 0;
+        for (int i = 0; i < count; i++) {
+            cents += ids[i] < 0 ? Math.round(unpacked.get(-1 - ids[i]).getBookingPrice() * 100) : cents(packed[i]);
+        }
+        return cents / 100.0;
+    }
+
+    public synchronized int getBookingCount() {
+        return count;
+    }
+
+    // Number of bookings kept unpacked because they did not fit the layout
+    public synchronized int getUnpackedCount() {
+        return unpacked.size();
+    }
+
+    // Heap used by the packed arrays divided by the number of bookings, including spare capacity
+    public synchronized double getBytesPerBooking() {
+        if (count == 0) return 0;
+        long bytes = 2L * ARRAY_HEADER_BYTES + (long) packed.length * Long.BYTES + (long) ids.length * Integer.BYTES;
+        return (double) bytes / count;
+    }
+
+    // ==================== PACKING ====================
+
+    // Packs everything but the booking ID into one long, see the layout above
+    static long pack(BookingRecord booking, int movieId) {
+        int minute = timeOfDay.parse(booking.getShowTime());
+        int hall = hallId(booking.getHallType()) + 1;
+        long cents = Math.round(booking.getBookingPrice() * 100);
+        int seat = booking.getSeat() + 1;
+
+        check(movieId, MOVIE_BITS, "Movie id");
+        check(minute, MINUTE_BITS, "Showtime " + booking.getShowTime());
+        check(hall, HALL_BITS, "Hall " + booking.getHallType());
+        check(seat, SEAT_BITS, "Seat");
+        check(cents, PRICE_BITS, "Price");
+
+        return cents
+                | (long) seat << SEAT_SHIFT
+                | (long) hall << HALL_SHIFT
+                | (long) minute << MINUTE_SHIFT
+                | (long) movieId << MOVIE_SHIFT;
+    }
+
+    static int movieId(long packed) {
+        return (int) (packed >>> MOVIE_SHIFT & mask(MOVIE_BITS));
+    }
+
+    static long cents(long packed) {
+        return packed & mask(PRICE_BITS);
+    }
+
+    private static long mask(int bits) {
+        return (1L << bits) - 1;
+    }
+
+    private static void check(long value, int bits, String what) {
+        if (value < 0 || value > mask(bits)) {
+            throw new IllegalArgumentException(what + " does not fit in the packed booking layout");
+        }
+    }
+
+    private static int hallId(String hallName) {
+        List<HallType> halls = dataStore.getHalls();
+        for (int i = 0; i < halls.size(); i++) {
+            if (halls.get(i).getHallName().equalsIgnoreCase(hallName)) return i;
+        }
+        return -1;
+    }
+
+    // "B042" is stored as 42
+    static int parseId(String bookingId) {
+        if (bookingId == null || bookingId.length() < 2 || bookingId.charAt(0) != 'B') {
+            throw new IllegalArgumentException("Unexpected booking ID " + bookingId);
+        }
+        int id = 0;
+        for (int i = 1; i < bookingId.length(); i++) {
+            char c = bookingId.charAt(i);
+            if (c < '0' || c > '9' || id > (Integer.MAX_VALUE - 9) / 10) {
+                throw new IllegalArgumentException("Unexpected booking ID " + bookingId);
+            }
+            id = id * 10 + (c - '0');
+        }
+        return id;
+    }
+
+    /**
+     * A packed booking dressed up as a BookingRecord. Subclasses say where
+     * the packed long and the numeric ID live and how movie ids are resolved.
+     */
+    abstract static class PackedView implements BookingRecord {
+
+        protected abstract long packed();
+
+        protected abstract int numericId();
+
+        protected abstract Movie movie(int movieId);
+
+        @Override
+        public String getBookingId() {
+            return BookingIdAllocator.format(numericId());
+        }
+
+        @Override
+        public Movie getMovie() {
+            return movie(movieId(packed()));
+        }
+
+        @Override
+        public String getMovieTitle() {
+            return getMovie().getTitle();
+        }
+
+        @Override
+        public String getHallType() {
+            int hall = (int) (packed() >>> HALL_SHIFT & mask(HALL_BITS));
+            return hall == 0 ? getMovie().getHallType() : dataStore.getHalls().get(hall - 1).getHallName();
+        }
+
+        @Override
+        public String getShowTime() {
+            return timeOfDay.format((int) (packed() >>> MINUTE_SHIFT & mask(MINUTE_BITS)));
+        }
+
+        @Override
+        public int getSeat() {
+            return (int) (packed() >>> SEAT_SHIFT & mask(SEAT_BITS)) - 1;
+        }
+
+        @Override
+        public double getBookingPrice() {
+            return cents(packed()) / 100.0;
+        }
+
+        @Override
+        public String toString() {
+            return getBookingId() + " " + getMovieTitle() + " " + getShowTime() + " " + getHallType();
+        }
+    }
+
+    // Copy of a booking that does not fit the layout, so later changes to the original do not show
+    private static final class Unpacked implements BookingRecord {
+        private final String bookingId;
+        private final Movie movie;
+        private final String movieTitle;
+        private final String hallType;
+        private final String showTime;
+        private final int seat;
+        private final double price;
+
+        Unpacked(BookingRecord booking) {
+            this.bookingId = booking.getBookingId();
+            this.movie = booking.getMovie();
+            this.movieTitle = booking.getMovieTitle();
+            this.hallType = booking.getHallType();
+            this.showTime = booking.getShowTime();
+            this.seat = booking.getSeat();
+            this.price = booking.getBookingPrice();
+        }
+
+        @Override
+        public String getBookingId() {
+            return bookingId;
+        }
+
+        @Override
+        public Movie getMovie() {
+            return movie;
+        }
+
+        @Override
+        public String getMovieTitle() {
+            return movieTitle;
+        }
+
+        @Override
+        public String getHallType() {
+            return hallType;
+        }
+
+        @Override
+        public String getShowTime() {
+            return showTime;
+        }
+
+        @Override
+        public int getSeat() {
+            return seat;
+        }
+
+        @Override
+        public double getBookingPrice() {
+            return price;
+        }
+
+        @Override
+        public String toString() {
+            return bookingId + " " + movieTitle + " " + showTime + " " + hallType;
+        }
+    }
+
+    // A position in this store
+    private class View extends PackedView {
+        int index;
+
+        View(int index) {
+            this.index = index;
+        }
+
+        @Override
+        protected long packed() {
+            return packed[index];
+        }
+
+        @Override
+        protected int numericId() {
+            return ids[index];
+        }
+
+        @Override
+        protected Movie movie(int movieId) {
+            synchronized (PackedBookingStore.this) {
+                return movies.get(movieId);
+            }
+        }
+    }
+}
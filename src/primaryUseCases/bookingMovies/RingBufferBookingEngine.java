@@ -0,0 +1,174 @@
+/**
+ * Ring Buffer Booking Engine
+ * Callers never touch the inventory or the ledger. They claim a sequence
+ * number, put their request into the matching slot of a preallocated ring
+ * and publish it; one writer thread takes every published request in order,
+ * in batches, and applies them. Nothing is contended except the sequence
+ * counter, and the inventory and ledger are only ever used by one thread.
+ *
+ * The slot of sequence s is s & mask. A slot is published by storing s in
+ * the published array, so the writer knows the slot holds the request of this
+ * lap and not one from the lap before. A caller waits for free space when the
+ * writer is a full ring behind, and waits for its own request afterwards,
+ * spinning and yielding briefly before parking until the writer wakes it.
+ */
+
+package src.primaryUseCases.bookingMovies;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import src.dataStore.Booking;
+
+public class RingBufferBookingEngine implements BookingEngine {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+    public static final int MAX_BATCH = 256;
+
+    private static final int SPINS_BEFORE_YIELD = 100;
+    private static final int YIELDS_BEFORE_PARK = 10;
+    private static final long WRITER_PARK_NANOS = 1_000_000; // Safety net, the writer is normally woken by callers
+
+    private final SeatInventory inventory;
+    private final List<? super Booking> ledger;
+    private final BookingRequest[] slots;
+    private final AtomicLongArray published;
+    private final int mask;
+    private final AtomicLong claimed = new AtomicLong(-1); // Last sequence handed to a caller
+    private volatile long consumed = -1;                   // Last sequence taken by the writer
+    private volatile boolean running = true;
+    private volatile boolean writerParked;
+    private final Thread writer;
+
+    // Written by the writer thread only
+    private volatile long batchCount;
+    private volatile long appliedCount;
+
+    public RingBufferBookingEngine(SeatInventory inventory, List<? super Booking> ledger) {
+        this(inventory, ledger, DEFAULT_CAPACITY);
+    }
+
+    public RingBufferBookingEngine(SeatInventory inventory, List<? super Booking> ledger, int capacity) {
+        if (capacity <= 0 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two");
+        }
+        this.inventory = inventory;
+        this.ledger = ledger;
+        this.slots = new BookingRequest[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+        this.mask = capacity - 1;
+        this.writer = new Thread(this::runWriter, "booking-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Publishes the request and waits for the writer to complete it.
+     * Must not be called concurrently with close().
+     */
+    @Override
+    public boolean book(BookingRequest request) {
+        if (!running) {
+            throw new IllegalStateException("Booking engine is closed");
+        }
+        request.waiter = Thread.currentThread();
+        long sequence = claimed.incrementAndGet();
+
+        // Wait until the writer has taken the request from the previous lap out of this slot
+        while (sequence - slots.length > consumed) {
+            Thread.yield(); // The writer needs the CPU to make room
+        }
+        int slot = (int) (sequence & mask);
+        slots[slot] = request;
+        published.set(slot, sequence); // Volatile write, makes the slot visible to the writer
+        if (writerParked) {
+            LockSupport.unpark(writer);
+        }
+
+        // Spin for fast completions, then yield, then park until the writer wakes us
+        int waits = 0;
+        while (!request.isDone()) {
+            if (waits < SPINS_BEFORE_YIELD) {
+                Thread.onSpinWait();
+            } else if (waits < SPINS_BEFORE_YIELD + YIELDS_BEFORE_PARK) {
+                Thread.yield();
+            } else {
+                LockSupport.park(this);
+            }
+            waits++;
+        }
+        return request.getStatus() == BookingRequest.Status.BOOKED;
+    }
+
+    private void runWriter() {
+        BookingRequest[] batch = new BookingRequest[MAX_BATCH];
+        long next = 0;
+        while (true) {
+            int count = 0;
+            long sequence = next;
+            while (count < MAX_BATCH && published.get((int) (sequence & mask)) == sequence) {
+                int slot = (int) (sequence & mask);
+                batch[count++] = slots[slot];
+                slots[slot] = null;
+                sequence++;
+            }
+
+            if (count == 0) {
+                if (!running && claimed.get() < next) return; // Closed and drained
+                idle(next);
+                continue;
+            }
+
+            consumed = sequence - 1; // Slots are free again, callers may refill them while we work
+            for (int i = 0; i < count; i++) {
+                BookingRequest request = batch[i];
+                batch[i] = null;
+                Thread waiter = request.waiter; // Read first, the caller may reuse the request once completed
+                try {
+                    request.applyTo(inventory, ledger);
+                } catch (RuntimeException e) {
+                    request.complete(BookingRequest.Status.FAILED, null, SeatMap.NO_SEAT);
+                }
+                LockSupport.unpark(waiter);
+            }
+            appliedCount += count;
+            batchCount++;
+            next = sequence;
+        }
+    }
+
+    // Parks the writer until a caller publishes the next sequence
+    private void idle(long next) {
+        writerParked = true;
+        // Check again after announcing, a caller that published before seeing the flag is caught here
+        if (published.get((int) (next & mask)) != next && running) {
+            LockSupport.parkNanos(this, WRITER_PARK_NANOS);
+        }
+        writerParked = false;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // Average number of requests the writer applied per pass over the ring
+    public double getAverageBatchSize() {
+        long batches = batchCount;
+        return batches == 0 ? 0 : (double) appliedCount / batches;
+    }
+
+    public long getAppliedCount() {
+        return appliedCount;
+    }
+}
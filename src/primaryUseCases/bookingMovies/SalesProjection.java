@@ -0,0 +1,95 @@
+/**
+ * Sales Projection
+ * Tickets sold and revenue per movie, kept up to date from booking events.
+ * Bookings count as sold once their checkout completes; until then they are
+ * kept as pending so a cancellation can drop them again. Per-movie figures
+ * are a single hash lookup, however long the booking history is.
+ */
+
+package src.primaryUseCases.bookingMovies;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import src.dataStore.Movie;
+import src.primaryUseCases.bookingMovies.BookingEvent.BookingCancelled;
+import src.primaryUseCases.bookingMovies.BookingEvent.BookingCreated;
+import src.primaryUseCases.bookingMovies.BookingEvent.CheckoutCompleted;
+
+public class SalesProjection implements BookingProjection {
+
+    private final Map<String, BookingCreated> pending = new LinkedHashMap<>(); // Unpaid bookings by ID
+    private final Map<Movie, MovieSales> salesByMovie = new IdentityHashMap<>();
+    private long paidCents; // What customers actually paid, after discounts
+    private long ticketsSold;
+
+    @Override
+    public synchronized void reset() {
+        pending.clear();
+        salesByMovie.clear();
+        paidCents = 0;
+        ticketsSold = 0;
+    }
+
+    @Override
+    public synchronized void onBookingCreated(BookingCreated event) {
+        pending.put(event.getBookingId(), event);
+    }
+
+    @Override
+    public synchronized void onBookingCancelled(BookingCancelled event) {
+        pending.remove(event.getBookingId());
+    }
+
+    // Every pending booking was part of the paid cart
+    @Override
+    public synchronized void onCheckoutCompleted(CheckoutCompleted event) {
+        for (BookingCreated booking : pending.values()) {
+            MovieSales sales = salesByMovie.computeIfAbsent(booking.getMovie(), movie -> new MovieSales());
+            sales.tickets++;
+            sales.cents += booking.getPriceCents();
+        }
+        ticketsSold += pending.size();
+        pending.clear();
+        paidCents += event.getPaidCents();
+    }
+
+    public synchronized int getTicketsSold(Movie movie) {
+        MovieSales sales = salesByMovie.get(movie);
+        return sales == null ? 0 : sales.tickets;
+    }
+
+    // Ticket revenue of a movie at full price
+    public synchronized double getRevenue(Movie movie) {
+        MovieSales sales = salesByMovie.get(movie);
+        return sales == null ? 0 : sales.cents / 100.0;
+    }
+
+    public synchronized long getTicketsSold() {
+        return ticketsSold;
+    }
+
+    // Total paid at checkout, after discounts
+    public synchronized double getPaidRevenue() {
+        return paidCents / 100.0;
+    }
+
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    // Tickets sold per movie title, in no particular order
+    public synchronized Map<String, Integer> getTicketsByTitle() {
+        Map<String, Integer> tickets = new HashMap<>();
+        for (Map.Entry<Movie, MovieSales> entry : salesByMovie.entrySet()) {
+            tickets.merge(entry.getKey().getTitle(), entry.getValue().tickets, Integer::sum);
+        }
+        return tickets;
+    }
+
+    private static class MovieSales {
+        int tickets;
+        long cents;
+    }
+}
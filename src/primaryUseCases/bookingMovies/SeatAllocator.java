@@ -0,0 +1,141 @@
+/**
+ * Seat Allocator
+ * Finds the best seats for a group in one screening. For every row the free
+ * seats are read as a bit mask and shifted onto themselves, which leaves a bit
+ * at the start of every free run long enough for the group. Each candidate
+ * block is scored by its distance from the best spot in the hall (centre of
+ * the row, a little behind the middle row) and the lowest score wins.
+ * If the hall is too fragmented for one block, the group is split into the
+ * largest blocks that still fit.
+ */
+
+package src.primaryUseCases.bookingMovies;
+
+import java.util.Arrays;
+
+public class SeatAllocator {
+
+    // The best row is this far back from the screen (0 = front, 1 = back)
+    private static final double IDEAL_ROW_POSITION = 0.6;
+
+    // A row away from the ideal row costs as much as this many seats sideways
+    private static final double ROW_WEIGHT = 1.5;
+
+    // Attempts before giving up when other bookings keep taking the chosen seats
+    private static final int MAX_ATTEMPTS = 8;
+
+    /**
+     * Claims seats for a group, together if possible.
+     * @param seats The seat map of the screening.
+     * @param groupSize Number of seats wanted.
+     * @return The claimed seats, or an empty array if there are not enough free seats.
+     */
+    public int[] allocate(SeatMap seats, int groupSize) {
+        if (groupSize <= 0) {
+            throw new IllegalArgumentException("Group size must be positive");
+        }
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            if (seats.getAvailable() < groupSize) return new int[0];
+
+            int[] claimed = new int[groupSize];
+            int count = 0;
+            int blockSize = groupSize;
+            boolean lostRace = false;
+
+            while (count < groupSize && !lostRace) {
+                blockSize = Math.min(blockSize, groupSize - count);
+                int start = findBestBlock(seats, blockSize);
+                if (start == SeatMap.NO_SEAT) {
+                    if (blockSize == 1) {
+                        lostRace = true; // Seats disappeared while we were looking
+                    }
+                    blockSize--;
+                    continue;
+                }
+                for (int i = 0; i < blockSize && !lostRace; i++) {
+                    if (seats.claim(start + i)) {
+                        claimed[count++] = start + i;
+                    } else {
+                        lostRace = true;
+                    }
+                }
+            }
+
+            if (!lostRace) {
+                Arrays.sort(claimed);
+                return claimed;
+            }
+            // Another booking took one of our seats, give ours back and try again
+            for (int i = 0; i < count; i++) {
+                seats.release(claimed[i]);
+            }
+        }
+        return new int[0];
+    }
+
+    /**
+     * Returns the first seat of the best free block of the given size, or
+     * NO_SEAT if no row has that many free seats side by side.
+     */
+    public int findBestBlock(SeatMap seats, int blockSize) {
+        int rows = seats.getRows();
+        int seatsPerRow = seats.getSeatsPerRow();
+        if (blockSize > seatsPerRow) return SeatMap.NO_SEAT;
+
+        double idealRow = (rows - 1) * IDEAL_ROW_POSITION;
+        double rowCentre = (seatsPerRow - 1) / 2.0;
+        double bestScore = Double.MAX_VALUE;
+        int best = SeatMap.NO_SEAT;
+
+        for (int row = 0; row < rows; row++) {
+            double rowScore = ROW_WEIGHT * Math.abs(row - idealRow);
+            if (rowScore >= bestScore) continue; // Even a perfectly centred block cannot win
+
+            if (seatsPerRow > 64) {
+                // Rows wider than one mask use plain run lengths
+                int[] runs = runLengths(seats, row);
+                for (int column = 0; column + blockSize <= seatsPerRow; column++) {
+                    if (runs[column] >= blockSize) {
+                        double score = rowScore + Math.abs(column + (blockSize - 1) / 2.0 - rowCentre);
+                        if (score < bestScore) {
+                            bestScore = score;
+                            best = row * seatsPerRow + column;
+                        }
+                    }
+                }
+                continue;
+            }
+
+            long starts = blockStarts(seats.rowFreeMask(row), blockSize);
+            while (starts != 0) {
+                int column = Long.numberOfTrailingZeros(starts);
+                starts &= starts - 1;
+                double score = rowScore + Math.abs(column + (blockSize - 1) / 2.0 - rowCentre);
+                if (score < bestScore) {
+                    bestScore = score;
+                    best = row * seatsPerRow + column;
+                }
+            }
+        }
+        return best;
+    }
+
+    // Bits that start a run of at least blockSize free seats
+    private static long blockStarts(long free, int blockSize) {
+        long starts = free;
+        for (int shift = 1; shift < blockSize && starts != 0; shift++) {
+            starts &= free >>> shift;
+        }
+        return starts;
+    }
+
+    // run[i] = number of free seats from column i to the right
+    private static int[] runLengths(SeatMap seats, int row) {
+        int seatsPerRow = seats.getSeatsPerRow();
+        int[] runs = new int[seatsPerRow + 1];
+        for (int column = seatsPerRow - 1; column >= 0; column--) {
+            runs[column] = seats.isTaken(row * seatsPerRow + column) ? 0 : runs[column + 1] + 1;
+        }
+        return runs;
+    }
+}
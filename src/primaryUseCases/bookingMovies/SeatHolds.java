@@ -0,0 +1,257 @@
+/**
+ * Seat Holds
+ * A booked seat is only held until the customer pays. Holds expire after a
+ * fixed time to live and give their seat back to the screening.
+ * Deadlines are kept on a hashed timing wheel: a ring of buckets where each
+ * bucket is one tick of the clock. Adding, confirming and expiring a hold are
+ * O(1), and a tick only looks at the holds that fall into its bucket, no matter
+ * how many holds are outstanding. The wheel is advanced lazily by the clock
+ * whenever a hold is placed, renewed, confirmed or expireDue() is called.
+ * Seats given back by an expired or cancelled hold go to the screening's
+ * waitlist first (see SeatMap.release).
+ */
+
+package src.primaryUseCases.bookingMovies;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+public class SeatHolds {
+
+    public static final long DEFAULT_TTL_MILLIS = 10 * 60 * 1000; // 10 minutes to pay
+    public static final long DEFAULT_TICK_MILLIS = 1000;
+    public static final int DEFAULT_WHEEL_SIZE = 1024; // Power of two, so a bucket is tick & mask
+
+    private final long ttlMillis;
+    private final long tickMillis;
+    private final Hold[] buckets;
+    private final int mask;
+    private final LongSupplier clock;
+    private final Map<String, Hold> holdsByBooking = new HashMap<>();
+    private Consumer<String> onExpire = bookingId -> { };
+
+    private long currentTick;
+
+    // Metrics
+    private long placedCount;
+    private long confirmedCount;
+    private long expiredCount;
+    private long cancelledCount;
+
+    public SeatHolds() {
+        this(DEFAULT_TTL_MILLIS, DEFAULT_TICK_MILLIS, DEFAULT_WHEEL_SIZE,
+                () -> System.nanoTime() / 1_000_000);
+    }
+
+    /**
+     * @param ttlMillis How long a hold lasts.
+     * @param tickMillis Length of one tick; expiry is accurate to one tick.
+     * @param wheelSize Number of buckets, must be a power of two.
+     * @param clock Current time in milliseconds.
+     */
+    public SeatHolds(long ttlMillis, long tickMillis, int wheelSize, LongSupplier clock) {
+        if (ttlMillis <= 0 || tickMillis <= 0) {
+            throw new IllegalArgumentException("Time to live and tick must be positive");
+        }
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two");
+        }
+        this.ttlMillis = ttlMillis;
+        this.tickMillis = tickMillis;
+        this.buckets = new Hold[wheelSize];
+        this.mask = wheelSize - 1;
+        this.clock = clock;
+        this.currentTick = clock.getAsLong() / tickMillis;
+    }
+
+    // Called with the booking id of every hold that expires
+    public synchronized void setOnExpire(Consumer<String> onExpire) {
+        this.onExpire = onExpire == null ? bookingId -> { } : onExpire;
+    }
+
+    /**
+     * Holds a seat that the caller has already claimed in the seat map.
+     * The seat is released again if the hold is not confirmed in time.
+     */
+    public synchronized void hold(String bookingId, SeatMap seats, int seat) {
+        advance();
+        if (holdsByBooking.containsKey(bookingId)) {
+            throw new IllegalArgumentException("Booking " + bookingId + " already holds a seat");
+        }
+        Hold hold = new Hold(bookingId, seats, seat, deadlineTick());
+        link(hold);
+        holdsByBooking.put(bookingId, hold);
+        placedCount++;
+    }
+
+    /**
+     * Gives a hold its full time to live again, counted from now.
+     * @return true if the booking still held its seat, false if it expired or never existed.
+     */
+    public synchronized boolean renew(String bookingId) {
+        advance();
+        Hold hold = holdsByBooking.get(bookingId);
+        if (hold == null) return false;
+        unlink(hold);
+        hold.deadlineTick = deadlineTick();
+        link(hold);
+        return true;
+    }
+
+    // Round up so a hold never expires before its full time to live
+    private long deadlineTick() {
+        return (clock.getAsLong() + ttlMillis + tickMillis - 1) / tickMillis;
+    }
+
+    /**
+     * Turns a hold into a sold seat.
+     * @return true if the booking still held its seat, false if it expired or never existed.
+     */
+    public synchronized boolean confirm(String bookingId) {
+        advance();
+        Hold hold = holdsByBooking.remove(bookingId);
+        if (hold == null) return false;
+        unlink(hold);
+        confirmedCount++;
+        return true;
+    }
+
+    /**
+     * Drops a hold before it expires and gives its seat back.
+     * @return true if the booking held a seat.
+     */
+    public synchronized boolean cancel(String bookingId) {
+        Hold hold = holdsByBooking.remove(bookingId);
+        if (hold == null) return false;
+        unlink(hold);
+        hold.seats.release(hold.seat);
+        cancelledCount++;
+        return true;
+    }
+
+    public synchronized boolean isHeld(String bookingId) {
+        advance();
+        return holdsByBooking.containsKey(bookingId);
+    }
+
+    /**
+     * Expires every hold whose time has run out.
+     * @return The number of holds that expired.
+     */
+    public synchronized int expireDue() {
+        return advance();
+    }
+
+    // Walks the wheel up to the current time and expires the holds that are due
+    private int advance() {
+        long nowTick = clock.getAsLong() / tickMillis;
+        if (nowTick <= currentTick) return 0;
+
+        Hold expired = null;
+        if (nowTick - currentTick >= buckets.length) {
+            // Slept through a whole turn of the wheel, every bucket is due once
+            for (int bucket = 0; bucket < buckets.length; bucket++) {
+                expired = collectDue(bucket, nowTick, expired);
+            }
+        } else {
+            for (long tick = currentTick + 1; tick <= nowTick; tick++) {
+                expired = collectDue((int) (tick & mask), tick, expired);
+            }
+        }
+        currentTick = nowTick;
+
+        // Released seats can go straight to a waitlist, which may place new holds,
+        // so the wheel has to be consistent before any seat is given back
+        int count = 0;
+        while (expired != null) {
+            Hold next = expired.next;
+            expired.next = null;
+            expiredCount++;
+            count++;
+            onExpire.accept(expired.bookingId);
+            expired.seats.release(expired.seat);
+            expired = next;
+        }
+        return count;
+    }
+
+    // Unlinks the due holds of a bucket and pushes them onto the expired list
+    // (holds further than one turn away share the bucket but keep their later deadline)
+    private Hold collectDue(int bucket, long tick, Hold expired) {
+        Hold hold = buckets[bucket];
+        while (hold != null) {
+            Hold next = hold.next;
+            if (hold.deadlineTick <= tick) {
+                unlink(hold);
+                holdsByBooking.remove(hold.bookingId);
+                hold.next = expired;
+                expired = hold;
+            }
+            hold = next;
+        }
+        return expired;
+    }
+
+    private void link(Hold hold) {
+        int bucket = (int) (hold.deadlineTick & mask);
+        hold.next = buckets[bucket];
+        if (hold.next != null) hold.next.prev = hold;
+        buckets[bucket] = hold;
+    }
+
+    private void unlink(Hold hold) {
+        if (hold.prev != null) {
+            hold.prev.next = hold.next;
+        } else {
+            buckets[(int) (hold.deadlineTick & mask)] = hold.next;
+        }
+        if (hold.next != null) hold.next.prev = hold.prev;
+        hold.prev = hold.next = null;
+    }
+
+    // ==================== METRICS ====================
+
+    public synchronized int getActiveCount() {
+        return holdsByBooking.size();
+    }
+
+    public synchronized long getPlacedCount() {
+        return placedCount;
+    }
+
+    public synchronized long getConfirmedCount() {
+        return confirmedCount;
+    }
+
+    public synchronized long getExpiredCount() {
+        return expiredCount;
+    }
+
+    public synchronized long getCancelledCount() {
+        return cancelledCount;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "Seat holds: " + holdsByBooking.size() + " active, " + placedCount + " placed, "
+                + confirmedCount + " confirmed, " + expiredCount + " expired, " + cancelledCount + " cancelled";
+    }
+
+    // One held seat, linked into the bucket of its deadline
+    private static class Hold {
+        final String bookingId;
+        final SeatMap seats;
+        final int seat;
+        long deadlineTick; // Moved forward by renew()
+        Hold prev, next;
+
+        Hold(String bookingId, SeatMap seats, int seat, long deadlineTick) {
+            this.bookingId = bookingId;
+            this.seats = seats;
+            this.seat = seat;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
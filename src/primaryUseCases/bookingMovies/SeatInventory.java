@@ -0,0 +1,60 @@
+/**
+ * Seat Inventory
+ * Owns the seat map of every screening. A screening is a movie at one of its
+ * showtimes; its seat map is created on first use with the layout of the
+ * movie's hall and is found again by the minute of the day the screening
+ * starts. Keying by minute rather than by position in the showtime array
+ * means editing a movie's showtimes never moves sold seats to another
+ * screening; a removed showtime keeps its seats in case it comes back.
+ */
+
+package src.primaryUseCases.bookingMovies;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import src.dataStore;
+import src.dataStore.HallType;
+import src.dataStore.Movie;
+import src.helpers.timeOfDay;
+
+public class SeatInventory {
+
+    // Per movie, one slot for every minute of the day
+    private final ConcurrentHashMap<Movie, AtomicReferenceArray<SeatMap>> screenings = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the seat map of a screening, creating it on first use.
+     * @return The seat map, or null if the movie is not shown at that minute.
+     */
+    public SeatMap screening(Movie movie, int minuteOfDay) {
+        if (movie == null || minuteOfDay >= timeOfDay.MINUTES_PER_DAY || !movie.hasShowTime(minuteOfDay)) return null;
+
+        AtomicReferenceArray<SeatMap> maps = screenings.computeIfAbsent(movie,
+                m -> new AtomicReferenceArray<>(timeOfDay.MINUTES_PER_DAY));
+        SeatMap seats = maps.get(minuteOfDay);
+        if (seats == null) {
+            HallType hall = dataStore.getHall(movie.getHallType());
+            int rows = hall != null ? hall.getRows() : HallType.DEFAULT_ROWS;
+            int seatsPerRow = hall != null ? hall.getSeatsPerRow() : HallType.DEFAULT_SEATS_PER_ROW;
+            maps.compareAndSet(minuteOfDay, null, new SeatMap(rows, seatsPerRow));
+            seats = maps.get(minuteOfDay);
+        }
+        return seats;
+    }
+
+    // Free seats of a screening, or 0 if there is no such screening
+    public int getAvailable(Movie movie, int minuteOfDay) {
+        SeatMap seats = screening(movie, minuteOfDay);
+        return seats == null ? 0 : seats.getAvailable();
+    }
+
+    public boolean isSoldOut(Movie movie, int minuteOfDay) {
+        SeatMap seats = screening(movie, minuteOfDay);
+        return seats == null || seats.isSoldOut();
+    }
+
+    // Forgets every screening, used when the data store is reset
+    public void clear() {
+        screenings.clear();
+    }
+}
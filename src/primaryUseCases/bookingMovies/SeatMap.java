@@ -0,0 +1,210 @@
+/**
+ * Seat Map
+ * Seats of one screening packed into a bitset (one bit per seat, 1 = taken).
+ * Seats are claimed and released with compare-and-set on the 64-bit words,
+ * so concurrent bookings never lock and never sell the same seat twice.
+ * The number of free seats is kept in a counter, so availability and
+ * sold-out checks are O(1).
+ * A released seat goes to the first customer on the screening's waitlist
+ * before anyone else can claim it.
+ */
+
+package src.primaryUseCases.bookingMovies;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntConsumer;
+
+public class SeatMap {
+
+    public static final int NO_SEAT = -1;
+
+    private final int rows;
+    private final int seatsPerRow;
+    private final int capacity;
+    private final AtomicLongArray words;
+    private final AtomicInteger available;
+    private final AtomicInteger firstFreeWordHint = new AtomicInteger();
+    private final Waitlist waitlist;
+
+    public SeatMap(int rows, int seatsPerRow) {
+        if (rows <= 0 || seatsPerRow <= 0) {
+            throw new IllegalArgumentException("Hall must have at least one seat");
+        }
+        this.rows = rows;
+        this.seatsPerRow = seatsPerRow;
+        this.capacity = rows * seatsPerRow;
+        this.words = new AtomicLongArray((capacity + 63) >>> 6);
+        this.available = new AtomicInteger(capacity);
+        this.waitlist = new Waitlist(capacity); // One hall's worth of customers can wait
+    }
+
+    /**
+     * Claims a specific seat.
+     * @return true if the seat was free and is now taken by the caller.
+     */
+    public boolean claim(int seat) {
+        checkSeat(seat);
+        int index = seat >>> 6;
+        long bit = 1L << seat;
+        while (true) {
+            long word = words.get(index);
+            if ((word & bit) != 0) return false;
+            if (words.compareAndSet(index, word, word | bit)) {
+                available.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Claims the first free seat, front rows first.
+     * @return The claimed seat, or NO_SEAT if the screening is sold out.
+     */
+    public int claimAny() {
+        int seat = claimFrom(firstFreeWordHint.get());
+        if (seat == NO_SEAT && available.get() > 0) {
+            // A seat was released behind the hint while we scanned, look again from the start
+            seat = claimFrom(0);
+        }
+        return seat;
+    }
+
+    private int claimFrom(int startWord) {
+        int wordCount = words.length();
+        for (int index = startWord; index < wordCount && available.get() > 0; index++) {
+            while (true) {
+                long word = words.get(index);
+                long free = ~word & validBits(index);
+                if (free == 0) {
+                    firstFreeWordHint.compareAndSet(index, index + 1);
+                    break;
+                }
+                long bit = Long.lowestOneBit(free);
+                if (words.compareAndSet(index, word, word | bit)) {
+                    available.decrementAndGet();
+                    return (index << 6) + Long.numberOfTrailingZeros(bit);
+                }
+            }
+        }
+        return NO_SEAT;
+    }
+
+    /**
+     * Releases a seat back to the screening. If customers are waiting, the
+     * seat stays taken and is handed straight to the first of them, so no
+     * concurrent claim can take it in between. It only becomes free when
+     * nobody is waiting.
+     * @return true if the seat was taken by the caller.
+     */
+    public boolean release(int seat) {
+        if (!isTaken(seat)) return false;
+        while (true) {
+            IntConsumer next = waitlist.poll();
+            if (next != null) {
+                next.accept(seat);
+                return true;
+            }
+            free(seat);
+            // A customer who joined after the poll would wait while the seat is free,
+            // so take it back for them unless someone else claimed it first
+            if (waitlist.isEmpty() || !claim(seat)) return true;
+        }
+    }
+
+    // Clears the seat's bit, true if it was set
+    private boolean free(int seat) {
+        checkSeat(seat);
+        int index = seat >>> 6;
+        long bit = 1L << seat;
+        while (true) {
+            long word = words.get(index);
+            if ((word & bit) == 0) return false;
+            if (words.compareAndSet(index, word, word & ~bit)) {
+                available.incrementAndGet();
+                // Let claimAny look at this word again
+                int hint;
+                while ((hint = firstFreeWordHint.get()) > index
+                        && !firstFreeWordHint.compareAndSet(hint, index)) {
+                    // Retry until the hint is at or before this word
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the free seats of a row as a bit mask (bit i = seat i of the row).
+     * Only valid for rows of at most 64 seats.
+     */
+    public long rowFreeMask(int row) {
+        if (row < 0 || row >= rows || seatsPerRow > 64) {
+            throw new IllegalArgumentException("Row " + row + " cannot be read as a mask");
+        }
+        int first = row * seatsPerRow;
+        int index = first >>> 6;
+        int offset = first & 63;
+        long taken = words.get(index) >>> offset;
+        if (offset + seatsPerRow > 64) {
+            taken |= words.get(index + 1) << (64 - offset);
+        }
+        long rowBits = seatsPerRow == 64 ? -1L : (1L << seatsPerRow) - 1;
+        return ~taken & rowBits;
+    }
+
+    public boolean isTaken(int seat) {
+        checkSeat(seat);
+        return (words.get(seat >>> 6) & (1L << seat)) != 0;
+    }
+
+    // Customers waiting for a seat in this screening
+    public Waitlist getWaitlist() {
+        return waitlist;
+    }
+
+    public int getAvailable() {
+        return available.get();
+    }
+
+    public boolean isSoldOut() {
+        return available.get() == 0;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getSeatsPerRow() {
+        return seatsPerRow;
+    }
+
+    // Seat label as printed on the ticket, e.g. seat 0 is "A1"
+    public String seatLabel(int seat) {
+        checkSeat(seat);
+        return label(seat, seatsPerRow);
+    }
+
+    // Seat label for a hall with the given row length
+    public static String label(int seat, int seatsPerRow) {
+        int row = seat / seatsPerRow;
+        String rowName = row < 26 ? String.valueOf((char) ('A' + row))
+                : String.valueOf((char) ('A' + row / 26 - 1)) + (char) ('A' + row % 26);
+        return rowName + (seat % seatsPerRow + 1);
+    }
+
+    // Bits of a word that correspond to real seats (the last word may be partial)
+    private long validBits(int index) {
+        int seatsInWord = Math.min(64, capacity - (index << 6));
+        return seatsInWord == 64 ? -1L : (1L << seatsInWord) - 1;
+    }
+
+    private void checkSeat(int seat) {
+        if (seat < 0 || seat >= capacity) {
+            throw new IllegalArgumentException("Seat " + seat + " does not exist in this hall");
+        }
+    }
+}
@@ -0,0 +1,287 @@
+/**
+ * Title BK-Tree
+ * Typo-tolerant title lookup. Normalized titles are stored in a BK-tree keyed
+ * by Levenshtein distance, so a query only compares against the small part of
+ * the catalog that can be within the allowed number of edits.
+ * Titles starting with an article are also stored without it, so "Godfathr"
+ * finds "The Godfather".
+ * Nodes are never removed: an edited movie is dropped from the nodes of its
+ * old title, which stay in place to route searches, and inserted again.
+ */
+
+package src.primaryUseCases.bookingMovies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import src.catalogIndex;
+import src.dataStore.Movie;
+
+public class TitleBkTree extends catalogIndex {
+
+    private Node root;
+    private String[] indexedTitles = new String[16]; // Normalized title each movie was added under
+
+    @Override
+    protected void clear() {
+        root = null;
+        indexedTitles = new String[16];
+    }
+
+    @Override
+    protected void add(int movieId, Movie movie) {
+        String title = normalize(movie.getTitle());
+        if (movieId >= indexedTitles.length) {
+            indexedTitles = Arrays.copyOf(indexedTitles, Math.max(movieId + 1, indexedTitles.length * 2));
+        }
+        indexedTitles[movieId] = title;
+        if (title.isEmpty()) return;
+
+        insert(title, movieId);
+        String withoutArticle = stripArticle(title);
+        if (!withoutArticle.equals(title)) {
+            insert(withoutArticle, movieId);
+        }
+    }
+
+    /**
+     * Finds the titles closest to the input, nearest first.
+     * @param title The title as typed by the customer.
+     * @param maxDistance Maximum number of edits allowed.
+     * @param limit Maximum number of movies to return.
+     */
+    public synchronized List<Movie> closest(String title, int maxDistance, int limit) {
+        sync();
+        String query = normalize(title);
+        List<Movie> results = new ArrayList<>();
+        if (root == null || query.isEmpty() || limit <= 0) return results;
+
+        // One bucket of movie ids per distance, so results come out nearest first
+        List<Set<Integer>> byDistance = new ArrayList<>();
+        for (int d = 0; d <= maxDistance; d++) {
+            byDistance.add(new LinkedHashSet<>());
+        }
+
+        Matcher matcher = new Matcher(query);
+        List<Node> pending = new ArrayList<>();
+        pending.add(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.remove(pending.size() - 1);
+            int distance = matcher.distance(node.title);
+            if (distance <= maxDistance) {
+                for (int i = 0; i < node.movieCount; i++) {
+                    byDistance.get(distance).add(node.movieIds[i]);
+                }
+            }
+            // Triangle inequality: only children in [distance - max, distance + max] can match
+            for (int i = 0; i < node.childCount; i++) {
+                if (Math.abs(node.childDistances[i] - distance) <= maxDistance) {
+                    pending.add(node.children[i]);
+                }
+            }
+        }
+
+        Set<Integer> seen = new LinkedHashSet<>();
+        for (Set<Integer> bucket : byDistance) {
+            seen.addAll(bucket);
+        }
+        for (int movieId : seen) {
+            if (results.size() == limit) break;
+            results.add(movie(movieId));
+        }
+        return results;
+    }
+
+    @Override
+    protected void update(int movieId, Movie movie) {
+        if (movieId < 0) {
+            rebuild();
+            return;
+        }
+        String old = indexedTitles[movieId];
+        if (old.equals(normalize(movie.getTitle()))) return;
+        if (!old.isEmpty()) {
+            removeMovie(old, movieId);
+            removeMovie(stripArticle(old), movieId);
+        }
+        add(movieId, movie);
+    }
+
+    // Follows the distance-0 path to the node of a title and drops the movie from it
+    private void removeMovie(String title, int movieId) {
+        Matcher matcher = new Matcher(title);
+        Node node = root;
+        while (node != null) {
+            int distance = matcher.distance(node.title);
+            if (distance == 0) {
+                node.removeMovie(movieId);
+                return;
+            }
+            node = node.child(distance);
+        }
+    }
+
+    private void insert(String title, int movieId) {
+        if (root == null) {
+            root = new Node(title, movieId);
+            return;
+        }
+        Matcher matcher = new Matcher(title);
+        Node node = root;
+        while (true) {
+            int distance = matcher.distance(node.title);
+            if (distance == 0) {
+                node.addMovie(movieId);
+                return;
+            }
+            Node child = node.child(distance);
+            if (child == null) {
+                node.addChild(distance, new Node(title, movieId));
+                return;
+            }
+            node = child;
+        }
+    }
+
+    // Same comparison form as BookingMovies.getMovieByTitle
+    static String normalize(String text) {
+        if (text == null) return "";
+        return text.trim().replaceAll("\\s+", " ").toLowerCase()
+                .replaceAll("[^\\p{L}\\p{N}\\s]+", "").trim();
+    }
+
+    private static String stripArticle(String title) {
+        for (String article : new String[]{"the ", "a ", "an "}) {
+            if (title.startsWith(article) && title.length() > article.length()) {
+                return title.substring(article.length());
+            }
+        }
+        return title;
+    }
+
+    // Edit distance with two rolling rows, used for titles longer than 64 characters
+    static int levenshtein(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = ca == b.charAt(j - 1) ? 0 : 1;
+                current[j] = Math.min(Math.min(current[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Bit-parallel edit distance (Myers / Hyyro) against one fixed string.
+     * Each column of the DP table is a pair of 64-bit vectors, so comparing a
+     * title costs one pass over its characters instead of a full table.
+     */
+    static class Matcher {
+        private final String pattern;
+        private final long[] asciiMasks = new long[128];
+        private final Map<Character, Long> otherMasks = new HashMap<>();
+
+        Matcher(String pattern) {
+            this.pattern = pattern;
+            if (pattern.length() > 64) return;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c < 128) {
+                    asciiMasks[c] |= 1L << i;
+                } else {
+                    otherMasks.merge(c, 1L << i, (a, b) -> a | b);
+                }
+            }
+        }
+
+        int distance(String text) {
+            int m = pattern.length();
+            if (m == 0) return text.length();
+            if (m > 64) return levenshtein(pattern, text);
+
+            long positive = -1L;
+            long negative = 0L;
+            long last = 1L << (m - 1);
+            int score = m;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                long equal = c < 128 ? asciiMasks[c] : otherMasks.getOrDefault(c, 0L);
+                long xv = equal | negative;
+                long xh = (((equal & positive) + positive) ^ positive) | equal;
+                long horizontalPositive = negative | ~(xh | positive);
+                long horizontalNegative = positive & xh;
+                if ((horizontalPositive & last) != 0) {
+                    score++;
+                } else if ((horizontalNegative & last) != 0) {
+                    score--;
+                }
+                horizontalPositive = (horizontalPositive << 1) | 1;
+                horizontalNegative <<= 1;
+                positive = horizontalNegative | ~(xv | horizontalPositive);
+                negative = horizontalPositive & xv;
+            }
+            return score;
+        }
+    }
+
+    private static class Node {
+        final String title;
+        int[] movieIds = new int[1];
+        int movieCount;
+        int[] childDistances = new int[0];
+        Node[] children = new Node[0];
+        int childCount;
+
+        Node(String title, int movieId) {
+            this.title = title;
+            addMovie(movieId);
+        }
+
+        void addMovie(int movieId) {
+            for (int i = 0; i < movieCount; i++) {
+                if (movieIds[i] == movieId) return;
+            }
+            if (movieCount == movieIds.length) movieIds = Arrays.copyOf(movieIds, movieCount * 2);
+            movieIds[movieCount++] = movieId;
+        }
+
+        void removeMovie(int movieId) {
+            for (int i = 0; i < movieCount; i++) {
+                if (movieIds[i] == movieId) {
+                    System.arraycopy(movieIds, i + 1, movieIds, i, --movieCount - i);
+                    return;
+                }
+            }
+        }
+
+        Node child(int distance) {
+            for (int i = 0; i < childCount; i++) {
+                if (childDistances[i] == distance) return children[i];
+            }
+            return null;
+        }
+
+        void addChild(int distance, Node child) {
+            if (childCount == children.length) {
+                int capacity = Math.max(2, childCount * 2);
+                childDistances = Arrays.copyOf(childDistances, capacity);
+                children = Arrays.copyOf(children, capacity);
+            }
+            childDistances[childCount] = distance;
+            children[childCount++] = child;
+        }
+    }
+}
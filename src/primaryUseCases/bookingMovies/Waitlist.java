@@ -0,0 +1,79 @@
+/**
+ * Waitlist
+ * First come, first served queue of customers waiting for a seat in a sold
+ * out screening. The queue is a bounded ring buffer and every customer gets a
+ * ticket number from a running sequence, so the queue size and a customer's
+ * position are plain subtractions. The ring is only allocated when the first
+ * customer joins, so screenings nobody waits for cost nothing.
+ */
+
+package src.primaryUseCases.bookingMovies;
+
+import java.util.function.IntConsumer;
+
+public class Waitlist {
+
+    public static final long NOT_WAITING = -1;
+
+    private final int capacity;
+    private IntConsumer[] ring;
+    private long head; // Ticket number of the first customer still waiting
+    private long tail; // Ticket number the next customer will get
+
+    public Waitlist(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Waitlist capacity must be positive");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Joins the end of the queue.
+     * @param onSeat Called with the seat when one is handed to this customer.
+     * @return The ticket number, or NOT_WAITING if the queue is full.
+     */
+    public synchronized long join(IntConsumer onSeat) {
+        if (onSeat == null) {
+            throw new IllegalArgumentException("A waiting customer needs a seat callback");
+        }
+        if (tail - head == capacity) return NOT_WAITING;
+        if (ring == null) ring = new IntConsumer[capacity];
+        ring[(int) (tail % capacity)] = onSeat;
+        return tail++;
+    }
+
+    // Removes the first customer, or returns null if nobody is waiting
+    synchronized IntConsumer poll() {
+        if (head == tail) return null;
+        int slot = (int) (head % capacity);
+        IntConsumer next = ring[slot];
+        ring[slot] = null;
+        head++;
+        return next;
+    }
+
+    /**
+     * Returns the place in the queue of a ticket (1 = next to get a seat),
+     * or 0 if the ticket has already been served.
+     */
+    public synchronized int position(long ticket) {
+        if (ticket < head || ticket >= tail) return 0;
+        return (int) (ticket - head) + 1;
+    }
+
+    public synchronized int size() {
+        return (int) (tail - head);
+    }
+
+    public synchronized boolean isEmpty() {
+        return head == tail;
+    }
+
+    public synchronized boolean isFull() {
+        return tail - head == capacity;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+}
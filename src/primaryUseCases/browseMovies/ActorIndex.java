@@ -0,0 +1,170 @@
+/**
+ * Actor Index
+ * Inverted index from normalized actor names, and from every word of those
+ * names, to the ids of the movies they appear in. Terms are kept in sorted
+ * order so prefix queries are a range lookup instead of a scan of all actors.
+ * The names indexed for each movie are remembered, so an edited movie only
+ * has its own postings replaced.
+ */
+
+package src.primaryUseCases.browseMovies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import src.catalogIndex;
+import src.dataStore.Movie;
+import src.helpers.collation;
+
+public class ActorIndex extends catalogIndex {
+
+    // Scores used to rank matches, strongest first
+    private static final int FULL_NAME_EXACT = 8;
+    private static final int FULL_NAME_PREFIX = 4;
+    private static final int WORD_EXACT = 2;
+    private static final int WORD_PREFIX = 1;
+
+    private final TreeMap<String, Postings> names = new TreeMap<>();
+    private final TreeMap<String, Postings> words = new TreeMap<>();
+    private String[][] indexedNames = new String[16][]; // Normalized names added for each movie
+
+    @Override
+    protected void clear() {
+        names.clear();
+        words.clear();
+        indexedNames = new String[16][];
+    }
+
+    @Override
+    protected void add(int movieId, Movie movie) {
+        if (movieId >= indexedNames.length) {
+            indexedNames = Arrays.copyOf(indexedNames, Math.max(movieId + 1, indexedNames.length * 2));
+        }
+        List<String> added = new ArrayList<>();
+        if (movie.getActors() != null) {
+            for (String actor : movie.getActors()) {
+                String name = normalize(actor);
+                if (name.isEmpty()) continue;
+
+                added.add(name);
+                names.computeIfAbsent(name, k -> new Postings()).add(movieId);
+                for (String word : name.split(" ")) {
+                    words.computeIfAbsent(word, k -> new Postings()).add(movieId);
+                }
+            }
+        }
+        indexedNames[movieId] = added.toArray(new String[0]);
+    }
+
+    // Takes the movie out of the postings of the names it was indexed under, then adds it again
+    @Override
+    protected void update(int movieId, Movie movie) {
+        if (movieId < 0) {
+            rebuild();
+            return;
+        }
+        for (String name : indexedNames[movieId]) {
+            removePosting(names, name, movieId);
+            for (String word : name.split(" ")) {
+                removePosting(words, word, movieId);
+            }
+        }
+        add(movieId, movie);
+    }
+
+    private static void removePosting(TreeMap<String, Postings> terms, String term, int movieId) {
+        Postings postings = terms.get(term);
+        if (postings != null && postings.remove(movieId) && postings.size == 0) {
+            terms.remove(term);
+        }
+    }
+
+    /**
+     * Finds movies whose cast matches the query, best matches first. A full
+     * name beats a name prefix, which beats matching single words of a name.
+     * Every word of the query may also be a prefix ("leo dic").
+     */
+    public synchronized List<Movie> search(String query) {
+        sync();
+        String normalized = normalize(query);
+        List<Movie> results = new ArrayList<>();
+        if (normalized.isEmpty()) return results;
+
+        Map<Integer, Integer> scores = new HashMap<>();
+
+        // Whole query against full actor names
+        Map<Integer, Integer> best = new HashMap<>();
+        for (Map.Entry<String, Postings> entry : prefixRange(names, normalized).entrySet()) {
+            int score = entry.getKey().equals(normalized) ? FULL_NAME_EXACT : FULL_NAME_PREFIX;
+            collect(entry.getValue(), score, best);
+        }
+        best.forEach((movieId, score) -> scores.merge(movieId, score, Integer::sum));
+
+        // Each query word against the words of actor names
+        for (String word : normalized.split(" ")) {
+            best.clear();
+            for (Map.Entry<String, Postings> entry : prefixRange(words, word).entrySet()) {
+                int score = entry.getKey().equals(word) ? WORD_EXACT : WORD_PREFIX;
+                collect(entry.getValue(), score, best);
+            }
+            best.forEach((movieId, score) -> scores.merge(movieId, score, Integer::sum));
+        }
+
+        List<Integer> ranked = new ArrayList<>(scores.keySet());
+        ranked.sort((a, b) -> {
+            int byScore = Integer.compare(scores.get(b), scores.get(a));
+            if (byScore != 0) return byScore;
+            int byRating = Double.compare(movie(b).getImdbRating(), movie(a).getImdbRating());
+            return byRating != 0 ? byRating : Integer.compare(a, b);
+        });
+        for (int movieId : ranked) {
+            results.add(movie(movieId));
+        }
+        return results;
+    }
+
+    // Keeps the best score per movie for one part of the query
+    private static void collect(Postings postings, int score, Map<Integer, Integer> best) {
+        for (int i = 0; i < postings.size; i++) {
+            best.merge(postings.ids[i], score, Math::max);
+        }
+    }
+
+    private static NavigableMap<String, Postings> prefixRange(TreeMap<String, Postings> terms, String prefix) {
+        return terms.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+    }
+
+    // Fold case and accents, turn hyphens and symbols into spaces, unify spacing
+    private static String normalize(String text) {
+        if (text == null) return "";
+        return collation.fold(text).replaceAll("[^\\p{L}\\p{N}]+", " ").trim();
+    }
+
+    // Growable list of movie ids in ascending order
+    private static class Postings {
+        int[] ids = new int[2];
+        int size;
+
+        void add(int movieId) {
+            int i = size > 0 && ids[size - 1] < movieId ? -size - 1 : Arrays.binarySearch(ids, 0, size, movieId);
+            if (i >= 0) return; // Same actor word twice in one movie
+            i = -i - 1;
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            System.arraycopy(ids, i, ids, i + 1, size - i);
+            ids[i] = movieId;
+            size++;
+        }
+
+        boolean remove(int movieId) {
+            int i = Arrays.binarySearch(ids, 0, size, movieId);
+            if (i < 0) return false;
+            System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+            size--;
+            return true;
+        }
+    }
+}
@@ -8,15 +8,31 @@ package src.primaryUseCases.browseMovies;
 import java.util.InputMismatchException;
 import java.util.List;
 import java.util.Scanner;
+import java.util.concurrent.ForkJoinPool;
 import src.dataStore;
 import src.dataStore.Movie;
+import src.helpers.collation;
 import src.helpers.consoleColors;
+import src.helpers.timeOfDay;
 import src.helpers.validation;
 
 public class BrowseMovies {
 
     private dataStore dataStore;
     private Scanner scanner;
+    private final ShowtimeIndex showtimeIndex = new ShowtimeIndex();
+    private final ActorIndex actorIndex = new ActorIndex();
+    private final SummaryIndex summaryIndex = new SummaryIndex();
+    private final TitleAutocomplete titleAutocomplete = new TitleAutocomplete();
+    private final QueryCache queryCache = new QueryCache(); // Results of title, language and rating searches
+    private final CollationKeys collationKeys = new CollationKeys(); // Folded titles and languages
+    private final SortedListings sortedListings = new SortedListings();
+    private final MovieColumns movieColumns = new MovieColumns(); // Ratings and durations for range filters
+    private final FacetIndex facetIndex = new FacetIndex(); // Language, hall, age and rating counts of results
+    private ParallelSearch parallelSearch = new ParallelSearch(); // Only splits very large catalogs
+
+    private static final int KEYWORD_RESULT_LIMIT = 10;
+    private static final int PAGE_SIZE = 10;
 
     public BrowseMovies(dataStore ds) {
         this.dataStore = ds;
@@ -28,10 +44,36 @@ public class BrowseMovies {
         this.scanner = scanner;
     }
 
+    // Hit, miss and eviction counts of the search result cache
+    public QueryCache getQueryCache() {
+        return queryCache;
+    }
+
+    // Runs title, language and rating filters on another pool, e.g. one with a fixed number of threads
+    public void setSearchPool(ForkJoinPool pool) {
+        this.parallelSearch = new ParallelSearch(pool);
+    }
+
     public List<Movie> getMovies() {
         return dataStore.getMovies();
     }
 
+    // Counts of a search result by language, hall type, age band and rating bucket, taken in one pass
+    public FacetIndex.Facets facets(List<Movie> results) {
+        return facetIndex.count(results);
+    }
+
+    // Facets of a rating range, counted straight from the rating column's selection
+    public FacetIndex.Facets facetsForRating(double minRating, double maxRating) {
+        return facetIndex.count(movieColumns.selectRatingBetween(minRating, maxRating));
+    }
+
+    private void printFacets(List<Movie> results) {
+        if (!results.isEmpty()) {
+            System.out.println("Refine by: " + facets(results));
+        }
+    }
+
     public int browseMovies() {
         List<Movie> movies = dataStore.getMovies();
 
@@ -54,22 +96,23 @@ public class BrowseMovies {
         title = title.toLowerCase().trim();
         title = title.replaceAll("\\s+", " "); // convert multiple spaces to single space
 
-        List<Movie> results = new java.util.ArrayList<>();
         if (title.isEmpty()) {
             System.out.println(consoleColors.RED_BOLD + "Search title cannot be empty." + consoleColors.RESET);
-            return results;
+            return new java.util.ArrayList<>();
         }
 
         if (getMovies().isEmpty()) {
             System.out.println(consoleColors.RED_BOLD + "No movies available." + consoleColors.RESET);
-            return results;
+            return new java.util.ArrayList<>();
         }
 
-        for (Movie movie : getMovies()) {
-            if (movie.getTitle().toLowerCase().contains(title)) {
-                System.out.println(movie);
-                results.add(movie);
-            }
+        String query = collation.key(title);
+        List<Movie> results = queryCache.get("title:" + query, () -> {
+            String[] titleKeys = collationKeys.getTitleKeys();
+            return parallelSearch.filterIds(getMovies(), movieId -> titleKeys[movieId].contains(query));
+        });
+        for (Movie movie : results) {
+            System.out.println(movie);
         }
         if (results.isEmpty()) {
             System.out
@@ -87,21 +130,22 @@ public class BrowseMovies {
         }
 
         // Check for numbers or special characters
-        if (!language.matches("[a-zA-Z\\s]+")) {
+        if (!language.matches("[\\p{L}\\p{M}\\s]+")) {
             throw new IllegalArgumentException("Language cannot contain numbers or special characters");
         }
 
-        List<Movie> results = new java.util.ArrayList<>();
         if (getMovies().isEmpty()) {
             System.out.println(consoleColors.RED_BOLD + "No movies available." + consoleColors.RESET);
-            return results;
+            return new java.util.ArrayList<>();
         }
 
-        for (Movie movie : getMovies()) {
-            if (movie.getLanguage().toLowerCase().contains(language)) {
-                System.out.println(movie);
-                results.add(movie);
-            }
+        String query = collation.key(language);
+        List<Movie> results = queryCache.get("language:" + query, () -> {
+            String[] languageKeys = collationKeys.getLanguageKeys();
+            return parallelSearch.filterIds(getMovies(), movieId -> languageKeys[movieId].contains(query));
+        });
+        for (Movie movie : results) {
+            System.out.println(movie);
         }
         System.out.println();
         return results;
@@ -118,17 +162,15 @@ public class BrowseMovies {
                                 + consoleColors.RESET);
                 throw new IllegalArgumentException("Invalid rating range");
             }
-            List<Movie> results = new java.util.ArrayList<>();
             if (getMovies().isEmpty()) {
                 System.out.println(consoleColors.RED_BOLD + "No movies available." + consoleColors.RESET);
-                return results;
+                return new java.util.ArrayList<>();
             }
 
-            for (Movie movie : getMovies()) {
-                if (movie.getImdbRating() >= minRating && movie.getImdbRating() <= maxRating) {
-                    System.out.println(movie);
-                    results.add(movie);
-                }
+            List<Movie> results = queryCache.get("rating:" + minRating + "-" + maxRating,
+                    () -> movieColumns.ratingBetween(minRating, maxRating));
+            for (Movie movie : results) {
+                System.out.println(movie);
             }
             System.out.println();
             return results;
@@ -140,6 +182,144 @@ public class BrowseMovies {
 
     }
 
+    public List<Movie> searchMoviesByShowtime(String fromInput, String toInput) {
+        int from = timeOfDay.parse(fromInput);
+        int to = timeOfDay.parse(toInput);
+
+        if (from == timeOfDay.INVALID || to == timeOfDay.INVALID) {
+            System.out.println(consoleColors.RED_BOLD + "Invalid time. Please enter times like 18:00 or 6:00 PM."
+                    + consoleColors.RESET);
+            throw new IllegalArgumentException("Invalid showtime window");
+        }
+
+        List<Movie> results = showtimeIndex.startingBetween(from, to);
+        if (results.isEmpty()) {
+            System.out.println(consoleColors.RED_BOLD + "No movies start between " + timeOfDay.format(from)
+                    + " and " + timeOfDay.format(to) + consoleColors.RESET);
+        }
+        for (Movie movie : results) {
+            System.out.println(movie);
+        }
+        System.out.println();
+        return results;
+    }
+
+    // Screenings in the window that a customer of the given age may watch
+    public List<ShowtimeIndex.Screening> searchScreeningsForAge(String fromInput, String toInput, String ageInput) {
+        int from = timeOfDay.parse(fromInput);
+        int to = timeOfDay.parse(toInput);
+
+        if (from == timeOfDay.INVALID || to == timeOfDay.INVALID) {
+            System.out.println(consoleColors.RED_BOLD + "Invalid time. Please enter times like 18:00 or 6:00 PM."
+                    + consoleColors.RESET);
+            throw new IllegalArgumentException("Invalid showtime window");
+        }
+
+        int age;
+        try {
+            age = Integer.parseInt(ageInput.trim());
+        } catch (NumberFormatException e) {
+            age = -1;
+        }
+        if (age < 0 || age > 120) {
+            System.out.println(consoleColors.RED_BOLD + "Invalid age. Please enter an age between 0 and 120."
+                    + consoleColors.RESET);
+            throw new IllegalArgumentException("Invalid age");
+        }
+
+        List<ShowtimeIndex.Screening> results = showtimeIndex.screeningsBetween(from, to, age);
+        if (results.isEmpty()) {
+            System.out.println(consoleColors.RED_BOLD + "No screenings for age " + age + " between "
+                    + timeOfDay.format(from) + " and " + timeOfDay.format(to) + consoleColors.RESET);
+        }
+        for (ShowtimeIndex.Screening screening : results) {
+            System.out.println(screening);
+        }
+        System.out.println();
+        return results;
+    }
+
+    public List<Movie> searchMoviesByActor(String actor) {
+        if (actor == null || actor.trim().isEmpty()) {
+            System.out.println(consoleColors.RED_BOLD + "Search actor cannot be empty." + consoleColors.RESET);
+            return new java.util.ArrayList<>();
+        }
+
+        List<Movie> results = actorIndex.search(actor);
+        if (results.isEmpty()) {
+            System.out.println(consoleColors.RED_BOLD + "No movies found with the actor: " + actor.trim()
+                    + consoleColors.RESET);
+        }
+        for (Movie movie : results) {
+            System.out.println(movie);
+        }
+        System.out.println();
+        return results;
+    }
+
+    public List<Movie> searchMoviesByKeyword(String keywords) {
+        if (keywords == null || keywords.trim().isEmpty()) {
+            System.out.println(consoleColors.RED_BOLD + "Search keywords cannot be empty." + consoleColors.RESET);
+            return new java.util.ArrayList<>();
+        }
+
+        List<Movie> results = summaryIndex.search(keywords, KEYWORD_RESULT_LIMIT);
+        if (results.isEmpty()) {
+            System.out.println(consoleColors.RED_BOLD + "No movies found matching: " + keywords.trim()
+                    + consoleColors.RESET);
+        }
+        for (Movie movie : results) {
+            System.out.println(movie);
+        }
+        System.out.println();
+        return results;
+    }
+
+    public List<Movie> autocompleteTitle(String prefix) {
+        if (prefix == null || prefix.trim().isEmpty()) {
+            System.out.println(consoleColors.RED_BOLD + "Start typing a title first." + consoleColors.RESET);
+            return new java.util.ArrayList<>();
+        }
+
+        List<Movie> results = titleAutocomplete.complete(prefix, TitleAutocomplete.TOP_K);
+        if (results.isEmpty()) {
+            System.out.println(consoleColors.RED_BOLD + "No titles start with: " + prefix.trim() + consoleColors.RESET);
+        }
+        for (Movie movie : results) {
+            System.out.println(consoleColors.GREEN_BOLD + movie.getTitle() + consoleColors.RESET);
+        }
+        System.out.println();
+        return results;
+    }
+
+    /**
+     * Lists one page of the catalog sorted by "rating", "duration" or "title".
+     * @param page Page number, starting at 1.
+     */
+    public List<Movie> listMoviesSorted(String sortBy, int page) {
+        SortedListings.SortKey key;
+        try {
+            key = SortedListings.SortKey.valueOf(sortBy.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.out.println(consoleColors.RED_BOLD + "Sort by rating, duration or title." + consoleColors.RESET);
+            return new java.util.ArrayList<>();
+        }
+        if (page < 1) {
+            System.out.println(consoleColors.RED_BOLD + "Page numbers start at 1." + consoleColors.RESET);
+            return new java.util.ArrayList<>();
+        }
+
+        List<Movie> results = sortedListings.page(key, page - 1, PAGE_SIZE);
+        if (results.isEmpty()) {
+            System.out.println(consoleColors.RED_BOLD + "No movies on page " + page + "." + consoleColors.RESET);
+        }
+        for (Movie movie : results) {
+            System.out.println(movie);
+        }
+        System.out.println();
+        return results;
+    }
+
     public int displayMovies() {
         System.out.println("Here are the movies available:");
         return browseMovies();
@@ -148,13 +328,13 @@ public class BrowseMovies {
     public void searchMoviesByTitlePrompt() {
         System.out.print("Enter the title to search for: ");
         String title = scanner.nextLine();
-        searchMoviesByTitle(title);
+        printFacets(searchMoviesByTitle(title));
     }
 
     public void searchMoviesByLanguagePrompt() {
         System.out.print("Enter the language to search for: ");
         String language = scanner.nextLine();
-        searchMoviesByLanguage(language);
+        printFacets(searchMoviesByLanguage(language));
     }
 
     public void searchMoviesByRatingPrompt() {
@@ -165,7 +345,7 @@ public class BrowseMovies {
             System.out.print("Enter the maximum IMDb rating: ");
             String maxInput = scanner.nextLine().trim();
 
-            searchMoviesByRating(minInput, maxInput);
+            printFacets(searchMoviesByRating(minInput, maxInput));
 
         } catch (NumberFormatException | InputMismatchException e) {
             System.out.println(consoleColors.RED_BOLD +
@@ -174,6 +354,69 @@ public class BrowseMovies {
         }
     }
 
+    public void searchMoviesByShowtimePrompt() {
+        try {
+            System.out.print("Enter the earliest start time: ");
+            String fromInput = scanner.nextLine().trim();
+
+            System.out.print("Enter the latest start time: ");
+            String toInput = scanner.nextLine().trim();
+
+            searchMoviesByShowtime(fromInput, toInput);
+
+        } catch (IllegalArgumentException e) {
+            System.out.println(consoleColors.RED_BOLD +
+                    "Invalid input." +
+                    consoleColors.RESET);
+        }
+    }
+
+    public void searchScreeningsForAgePrompt() {
+        try {
+            System.out.print("Enter the earliest start time: ");
+            String fromInput = scanner.nextLine().trim();
+
+            System.out.print("Enter the latest start time: ");
+            String toInput = scanner.nextLine().trim();
+
+            System.out.print("Enter the age of the youngest viewer: ");
+            String ageInput = scanner.nextLine().trim();
+
+            searchScreeningsForAge(fromInput, toInput, ageInput);
+
+        } catch (IllegalArgumentException e) {
+            System.out.println(consoleColors.RED_BOLD +
+                    "Invalid input." +
+                    consoleColors.RESET);
+        }
+    }
+
+    public void searchMoviesByActorPrompt() {
+        System.out.print("Enter the actor to search for: ");
+        String actor = scanner.nextLine();
+        searchMoviesByActor(actor);
+    }
+
+    public void searchMoviesByKeywordPrompt() {
+        System.out.print("Enter keywords to search for: ");
+        String keywords = scanner.nextLine();
+        searchMoviesByKeyword(keywords);
+    }
+
+    public void autocompleteTitlePrompt() {
+        System.out.print("Start typing a title: ");
+        String prefix = scanner.nextLine();
+        autocompleteTitle(prefix);
+    }
+
+    public void listMoviesSortedPrompt() {
+        System.out.print("Sort by (rating / duration / title): ");
+        String sortBy = scanner.nextLine();
+        int page = validation.getValidIntegerInput("Enter the page number: ", scanner);
+        scanner.nextLine();
+        listMoviesSorted(sortBy, page);
+    }
+
     public void displayMenu() {
         System.out.println(consoleColors.BLUE_BOLD + "\n--- Browse & Search Movies ---" + consoleColors.RESET);
         System.out.println(consoleColors.GREEN_BOLD + "1. Browse Movies" + consoleColors.RESET);
@@ -181,6 +424,12 @@ public class BrowseMovies {
         System.out.println(consoleColors.GREEN_BOLD + "3. Search Movie by language" + consoleColors.RESET);
         System.out.println(consoleColors.GREEN_BOLD + "4. Search Movie by rating" + consoleColors.RESET);
         System.out.println(consoleColors.RED_BOLD + "5. Return to Main Menu" + consoleColors.RESET);
+        System.out.println(consoleColors.GREEN_BOLD + "6. Search Movie by showtime" + consoleColors.RESET);
+        System.out.println(consoleColors.GREEN_BOLD + "7. Search Movie by actor" + consoleColors.RESET);
+        System.out.println(consoleColors.GREEN_BOLD + "8. Search Movie by keywords" + consoleColors.RESET);
+        System.out.println(consoleColors.GREEN_BOLD + "9. Autocomplete Movie title" + consoleColors.RESET);
+        System.out.println(consoleColors.GREEN_BOLD + "10. List Movies sorted" + consoleColors.RESET);
+        System.out.println(consoleColors.GREEN_BOLD + "11. Search showtimes by age" + consoleColors.RESET);
         System.out.println();
     }
 
@@ -192,7 +441,7 @@ public class BrowseMovies {
             int choice = validation.getValidIntegerInput("Enter your choice: ", scanner);
             scanner.nextLine();
 
-            if (choice > 5 || choice < 1) {
+            if (choice > 11 || choice < 1) {
                 System.out.print(
                         consoleColors.RED_BOLD + "Invalid input. Please enter a valid number.\n" + consoleColors.RESET);
                 continue;
@@ -219,6 +468,30 @@ public class BrowseMovies {
                     System.out
                             .println(consoleColors.YELLOW_BOLD + "\nReturning to main menu >>>" + consoleColors.RESET);
                     return;
+                case 6:
+                    searchMoviesByShowtimePrompt();
+                    returnToMainMenu();
+                    return;
+                case 7:
+                    searchMoviesByActorPrompt();
+                    returnToMainMenu();
+                    return;
+                case 8:
+                    searchMoviesByKeywordPrompt();
+                    returnToMainMenu();
+                    return;
+                case 9:
+                    autocompleteTitlePrompt();
+                    returnToMainMenu();
+                    return;
+                case 10:
+                    listMoviesSortedPrompt();
+                    returnToMainMenu();
+                    return;
+                case 11:
+                    searchScreeningsForAgePrompt();
+                    returnToMainMenu();
+                    return;
                 default:
                     System.out.println(
                             consoleColors.RED_BOLD + "Invalid choice. Please try again." + consoleColors.RESET);
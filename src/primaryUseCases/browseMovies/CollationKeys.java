@@ -0,0 +1,60 @@
+/**
+ * Collation Keys
+ * The collation key (see helpers.collation) of every title and language in
+ * the catalog, computed once when the movie is indexed. Searches compare the
+ * query's key against these arrays, so no search lower-cases or normalizes
+ * catalog text per row.
+ */
+
+package src.primaryUseCases.browseMovies;
+
+import java.util.Arrays;
+import src.catalogIndex;
+import src.dataStore.Movie;
+import src.helpers.collation;
+
+public class CollationKeys extends catalogIndex {
+
+    private String[] titleKeys = new String[16];
+    private String[] languageKeys = new String[16];
+
+    @Override
+    protected void clear() {
+        titleKeys = new String[16];
+        languageKeys = new String[16];
+    }
+
+    @Override
+    protected void add(int movieId, Movie movie) {
+        if (movieId == titleKeys.length) {
+            titleKeys = Arrays.copyOf(titleKeys, movieId * 2);
+            languageKeys = Arrays.copyOf(languageKeys, movieId * 2);
+        }
+        titleKeys[movieId] = collation.key(movie.getTitle());
+        languageKeys[movieId] = collation.key(movie.getLanguage());
+    }
+
+    // Only the edited movie's keys are recomputed
+    @Override
+    protected void update(int movieId, Movie movie) {
+        if (movieId >= 0) {
+            add(movieId, movie);
+            return;
+        }
+        for (int id = 0; id < size(); id++) {
+            add(id, movie(id));
+        }
+    }
+
+    // Title keys by movie id, up to date with the catalog (shared array, do not modify)
+    public synchronized String[] getTitleKeys() {
+        sync();
+        return titleKeys;
+    }
+
+    // Language keys by movie id, up to date with the catalog (shared array, do not modify)
+    public synchronized String[] getLanguageKeys() {
+        sync();
+        return languageKeys;
+    }
+}
@@ -0,0 +1,193 @@
+/**
+ * Facet Index
+ * Counts search results by language, hall type, age band and rating bucket
+ * in a single pass. Every movie's value for each facet is turned into a
+ * small ordinal when the movie is indexed, so counting a result set is one
+ * array increment per facet per movie, with no string work and no extra
+ * scan per facet. Counts can be taken from a result list or straight from a
+ * selection bitmap such as the ones MovieColumns produces.
+ */
+
+package src.primaryUseCases.browseMovies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import src.catalogIndex;
+import src.dataStore.Movie;
+import src.helpers.collation;
+
+public class FacetIndex extends catalogIndex {
+
+    public enum Facet { LANGUAGE, HALL_TYPE, AGE_BAND, RATING }
+
+    private static final int[] AGE_BANDS = {0, 13, 16, 18}; // Lowest age of each band
+    private static final String[] AGE_LABELS = {"All ages", "13+", "16+", "18+"};
+    private static final String[] RATING_LABELS = {"0-2", "2-4", "4-6", "6-8", "8-10"};
+
+    private final Map<Movie, Integer> movieIds = new IdentityHashMap<>();
+    private final Dictionary languages = new Dictionary();
+    private final Dictionary halls = new Dictionary();
+    private int[][] ordinals = new int[Facet.values().length][16]; // [facet][movie id]
+
+    @Override
+    protected void clear() {
+        movieIds.clear();
+        languages.clear();
+        halls.clear();
+        ordinals = new int[Facet.values().length][16];
+    }
+
+    @Override
+    protected void add(int movieId, Movie movie) {
+        if (movieId == ordinals[0].length) {
+            for (int facet = 0; facet < ordinals.length; facet++) {
+                ordinals[facet] = Arrays.copyOf(ordinals[facet], movieId * 2);
+            }
+        }
+        movieIds.put(movie, movieId);
+        ordinals[Facet.LANGUAGE.ordinal()][movieId] = languages.ordinal(movie.getLanguage());
+        ordinals[Facet.HALL_TYPE.ordinal()][movieId] = halls.ordinal(movie.getHallType());
+        ordinals[Facet.AGE_BAND.ordinal()][movieId] = ageBand(movie.getAgeRestriction());
+        ordinals[Facet.RATING.ordinal()][movieId] = ratingBucket(movie.getImdbRating());
+    }
+
+    // Only the edited movie's ordinals change; labels nobody uses any more just count 0
+    @Override
+    protected void update(int movieId, Movie movie) {
+        if (movieId >= 0) {
+            add(movieId, movie);
+            return;
+        }
+        for (int id = 0; id < size(); id++) {
+            add(id, movie(id));
+        }
+    }
+
+    // Counts the movies of a result list; movies that are not in the catalog are skipped
+    public synchronized Facets count(List<Movie> results) {
+        sync();
+        int[][] counts = newCounts();
+        for (Movie movie : results) {
+            Integer movieId = movieIds.get(movie);
+            if (movieId != null) tally(counts, movieId);
+        }
+        return new Facets(counts, languages.labels(), halls.labels());
+    }
+
+    // Counts the movies selected in a bitmap (bit i set for movie id i)
+    public synchronized Facets count(long[] selection) {
+        sync();
+        int[][] counts = newCounts();
+        for (int word = 0; word < selection.length; word++) {
+            long bits = selection[word];
+            while (bits != 0) {
+                int movieId = (word << 6) + Long.numberOfTrailingZeros(bits);
+                if (movieId >= size()) break;
+                tally(counts, movieId);
+                bits &= bits - 1;
+            }
+        }
+        return new Facets(counts, languages.labels(), halls.labels());
+    }
+
+    private int[][] newCounts() {
+        return new int[][]{
+                new int[languages.size()], new int[halls.size()], new int[AGE_LABELS.length], new int[RATING_LABELS.length]
+        };
+    }
+
+    private void tally(int[][] counts, int movieId) {
+        for (int facet = 0; facet < counts.length; facet++) {
+            counts[facet][ordinals[facet][movieId]]++;
+        }
+    }
+
+    private static int ageBand(int ageRestriction) {
+        int band = 0;
+        while (band + 1 < AGE_BANDS.length && ageRestriction >= AGE_BANDS[band + 1]) band++;
+        return band;
+    }
+
+    private static int ratingBucket(double rating) {
+        return Math.max(0, Math.min(RATING_LABELS.length - 1, (int) (rating / 2)));
+    }
+
+    // Distinct values of a text facet, told apart by collation key, shown as first seen
+    private static class Dictionary {
+        private final Map<String, Integer> ordinals = new HashMap<>();
+        private final List<String> labels = new ArrayList<>();
+
+        int ordinal(String value) {
+            String label = value == null ? "Unknown" : value.trim();
+            return ordinals.computeIfAbsent(collation.key(label), key -> {
+                labels.add(label);
+                return labels.size() - 1;
+            });
+        }
+
+        String[] labels() {
+            return labels.toArray(new String[0]);
+        }
+
+        int size() {
+            return labels.size();
+        }
+
+        void clear() {
+            ordinals.clear();
+            labels.clear();
+        }
+    }
+
+    // Counts of one result set for every facet
+    public static final class Facets {
+        private final int[][] counts;
+        private final String[][] labels;
+
+        private Facets(int[][] counts, String[] languageLabels, String[] hallLabels) {
+            this.counts = counts;
+            this.labels = new String[][]{languageLabels, hallLabels, AGE_LABELS, RATING_LABELS};
+        }
+
+        /**
+         * Returns the values of a facet that occur in the results with their
+         * counts, most frequent first (age bands and ratings in their natural order).
+         */
+        public Map<String, Integer> get(Facet facet) {
+            int f = facet.ordinal();
+            Integer[] order = new Integer[counts[f].length];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            if (facet == Facet.LANGUAGE || facet == Facet.HALL_TYPE) {
+                Arrays.sort(order, (a, b) -> Integer.compare(counts[f][b], counts[f][a]));
+            }
+            Map<String, Integer> values = new LinkedHashMap<>();
+            for (int i : order) {
+                if (counts[f][i] > 0) values.put(labels[f][i], counts[f][i]);
+            }
+            return values;
+        }
+
+        public int count(Facet facet, String value) {
+            Integer count = get(facet).get(value);
+            return count == null ? 0 : count;
+        }
+
+        // "English (5) · French (1) · IMAX (2) · ..."
+        @Override
+        public String toString() {
+            StringBuilder line = new StringBuilder();
+            for (Facet facet : Facet.values()) {
+                for (Map.Entry<String, Integer> value : get(facet).entrySet()) {
+                    if (line.length() > 0) line.append(" · ");
+                    line.append(value.getKey()).append(String.format(" (%,d)", value.getValue()));
+                }
+            }
+            return line.toString();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/**
+ * Movie Columns
+ * The ratings and durations of the catalog copied into primitive arrays,
+ * one row per movie id. Range filters run over these columns with a
+ * RangeKernel and produce a selection bitmap, which is much cheaper than
+ * calling getters on every Movie. The scalar kernel is the default; the
+ * vector kernel is opt-in (-Dcms.vectorKernel=true) because it benchmarked
+ * slower than the scalar loop, and it is only there when its separate source
+ * root was compiled and jdk.incubator.vector is present.
+ */
+
+package src.primaryUseCases.browseMovies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import src.catalogIndex;
+import src.dataStore.Movie;
+
+public class MovieColumns extends catalogIndex {
+
+    // Set to true to use the vector kernel when it can be loaded
+    public static final String VECTOR_KERNEL_PROPERTY = "cms.vectorKernel";
+
+    private static final String VECTOR_KERNEL = "src.primaryUseCases.browseMovies.simd.VectorRangeKernel";
+    private static final RangeKernel DEFAULT_KERNEL = loadKernel();
+
+    private final RangeKernel kernel;
+    private double[] ratings = new double[16];
+    private int[] durations = new int[16];
+
+    public MovieColumns() {
+        this(DEFAULT_KERNEL);
+    }
+
+    public MovieColumns(RangeKernel kernel) {
+        if (kernel == null) {
+            throw new IllegalArgumentException("Range kernel cannot be null");
+        }
+        this.kernel = kernel;
+    }
+
+    // The vector kernel if it was asked for and can be loaded, the scalar kernel otherwise
+    public static RangeKernel loadKernel() {
+        if (Boolean.getBoolean(VECTOR_KERNEL_PROPERTY)) {
+            RangeKernel vector = loadVectorKernel();
+            if (vector != null) return vector;
+        }
+        return new ScalarRangeKernel();
+    }
+
+    /**
+     * Loads the vector kernel regardless of the system property.
+     * @return The kernel, or null if it was not compiled in or the module is missing.
+     */
+    public static RangeKernel loadVectorKernel() {
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                return (RangeKernel) Class.forName(VECTOR_KERNEL).getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // Not compiled in, or the platform has no usable vector shape
+            }
+        }
+        return null;
+    }
+
+    @Override
+    protected void clear() {
+        ratings = new double[16];
+        durations = new int[16];
+    }
+
+    @Override
+    protected void add(int movieId, Movie movie) {
+        if (movieId == ratings.length) {
+            ratings = Arrays.copyOf(ratings, movieId * 2);
+            durations = Arrays.copyOf(durations, movieId * 2);
+        }
+        ratings[movieId] = movie.getImdbRating();
+        durations[movieId] = movie.getDuration();
+    }
+
+    // Edits only overwrite the row of the edited movie
+    @Override
+    protected void update(int movieId, Movie movie) {
+        if (movieId >= 0) {
+            add(movieId, movie);
+            return;
+        }
+        for (int id = 0; id < size(); id++) {
+            add(id, movie(id));
+        }
+    }
+
+    /**
+     * Selects the movies rated between min and max (inclusive).
+     * @return Bitmap with bit i set for movie id i.
+     */
+    public synchronized long[] selectRatingBetween(double min, double max) {
+        sync();
+        long[] selection = new long[words(size())];
+        kernel.selectBetween(ratings, size(), min, max, selection);
+        return selection;
+    }
+
+    // Selects the movies lasting between min and max minutes (inclusive)
+    public synchronized long[] selectDurationBetween(int min, int max) {
+        sync();
+        long[] selection = new long[words(size())];
+        kernel.selectBetween(durations, size(), min, max, selection);
+        return selection;
+    }
+
+    // The selected movies in catalog order
+    public synchronized List<Movie> movies(long[] selection) {
+        List<Movie> results = new ArrayList<>();
+        for (int word = 0; word < selection.length; word++) {
+            long bits = selection[word];
+            while (bits != 0) {
+                results.add(movie((word << 6) + Long.numberOfTrailingZeros(bits)));
+                bits &= bits - 1;
+            }
+        }
+        return results;
+    }
+
+    public List<Movie> ratingBetween(double min, double max) {
+        return movies(selectRatingBetween(min, max));
+    }
+
+    public List<Movie> durationBetween(int min, int max) {
+        return movies(selectDurationBetween(min, max));
+    }
+
+    public RangeKernel getKernel() {
+        return kernel;
+    }
+
+    private static int words(int rows) {
+        return (rows + 63) >>> 6;
+    }
+}
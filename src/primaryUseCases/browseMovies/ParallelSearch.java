@@ -0,0 +1,109 @@
+/**
+ * Parallel Search
+ * Runs a movie filter over the catalog on a ForkJoinPool. The catalog is
+ * split into chunks, every chunk is filtered into its own list, and the
+ * lists are joined left to right so the results keep catalog order.
+ * Splitting only pays off for large catalogs: below a threshold that grows
+ * with the number of threads the filter simply runs on the calling thread.
+ */
+
+package src.primaryUseCases.browseMovies;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import src.dataStore.Movie;
+
+public class ParallelSearch {
+
+    // Smallest chunk worth handing to another thread
+    public static final int MIN_CHUNK = 4096;
+    // Chunks per thread, so a thread that finishes early can steal more work
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    private final ForkJoinPool pool;
+
+    // Searches on the common pool
+    public ParallelSearch() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelSearch(ForkJoinPool pool) {
+        if (pool == null) {
+            throw new IllegalArgumentException("Search pool cannot be null");
+        }
+        this.pool = pool;
+    }
+
+    /**
+     * Returns the movies matching the filter, in catalog order.
+     */
+    public List<Movie> filter(List<Movie> movies, Predicate<Movie> matches) {
+        return filterIds(movies, movieId -> matches.test(movies.get(movieId)));
+    }
+
+    /**
+     * Returns the movies whose position in the list matches the filter, in
+     * catalog order. Lets a filter read per-movie data kept in arrays.
+     */
+    public List<Movie> filterIds(List<Movie> movies, IntPredicate matches) {
+        if (!isParallel(movies.size()) || !(movies instanceof RandomAccess)) {
+            return filterRange(movies, 0, movies.size(), matches);
+        }
+        int chunk = Math.max(MIN_CHUNK, movies.size() / (pool.getParallelism() * CHUNKS_PER_THREAD));
+        return pool.invoke(new FilterTask(movies, 0, movies.size(), chunk, matches));
+    }
+
+    // True if a catalog of this size is split across threads
+    public boolean isParallel(int catalogSize) {
+        int threads = pool.getParallelism();
+        return threads > 1 && catalogSize >= (long) threads * MIN_CHUNK;
+    }
+
+    public int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    private static List<Movie> filterRange(List<Movie> movies, int from, int to, IntPredicate matches) {
+        List<Movie> results = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            if (matches.test(i)) results.add(movies.get(i));
+        }
+        return results;
+    }
+
+    // Filters a range of the catalog, halving it until it is one chunk
+    private static class FilterTask extends RecursiveTask<List<Movie>> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Movie> movies;
+        private final int from, to, chunk;
+        private final IntPredicate matches;
+
+        FilterTask(List<Movie> movies, int from, int to, int chunk, IntPredicate matches) {
+            this.movies = movies;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.matches = matches;
+        }
+
+        @Override
+        protected List<Movie> compute() {
+            if (to - from <= chunk) {
+                return filterRange(movies, from, to, matches);
+            }
+            int middle = (from + to) >>> 1;
+            FilterTask left = new FilterTask(movies, from, middle, chunk, matches);
+            left.fork();
+            List<Movie> right = new FilterTask(movies, middle, to, chunk, matches).compute();
+            List<Movie> results = left.join();
+            results.addAll(right);
+            return results;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/**
+ * Query Cache
+ * Bounded cache of search results keyed by the normalized query, evicting
+ * the least recently used query when full. Every entry is stamped with the
+ * catalog version it was computed from (the sequence of the catalog change
+ * feed), so any change to the catalog invalidates results made before it.
+ */
+
+package src.primaryUseCases.browseMovies;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import src.dataStore;
+import src.dataStore.Movie;
+
+public class QueryCache {
+
+    public static final int DEFAULT_CAPACITY = 128;
+
+    private final int capacity;
+    private final Map<String, Entry> entries;
+
+    // Metrics
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public QueryCache() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public QueryCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive");
+        }
+        this.capacity = capacity;
+        // Access order, so the eldest entry is the least recently used one
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= QueryCache.this.capacity) return false;
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Returns the cached results of a query, computing them on a miss.
+     * @param key The normalized query, including what kind of search it is.
+     * @return A new list the caller may change.
+     */
+    public synchronized List<Movie> get(String key, Supplier<List<Movie>> search) {
+        long version = dataStore.getCatalogFeed().getSequence();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version == version) {
+            hits++;
+            return new ArrayList<>(entry.results);
+        }
+        if (entry != null) invalidations++;
+        misses++;
+
+        List<Movie> results = search.get();
+        entries.put(key, new Entry(version, Collections.unmodifiableList(new ArrayList<>(results))));
+        return results;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    // Entries found but computed for an older catalog
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    public synchronized double getHitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "Query cache: " + entries.size() + "/" + capacity + " entries, " + hits + " hits, "
+                + misses + " misses, " + evictions + " evictions, " + invalidations + " invalidations";
+    }
+
+    private static class Entry {
+        final long version;
+        final List<Movie> results;
+
+        Entry(long version, List<Movie> results) {
+            this.version = version;
+            this.results = results;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+/**
+ * Range Kernel
+ * Marks the rows of a numeric column that fall inside a range. The result
+ * is a selection bitmap: bit i of the array is set when row i matches.
+ * Implementations differ only in speed, never in which rows they select.
+ */
+
+package src.primaryUseCases.browseMovies;
+
+public interface RangeKernel {
+
+    /**
+     * Sets the bits of the rows 0 to count - 1 with min <= value <= max.
+     * @param selection Bitmap of at least (count + 63) / 64 words, cleared by the caller.
+     */
+    void selectBetween(double[] column, int count, double min, double max, long[] selection);
+
+    void selectBetween(int[] column, int count, int min, int max, long[] selection);
+
+    // Short name for reports, e.g. "scalar" or "vector (256 bit)"
+    String getName();
+}
@@ -0,0 +1,45 @@
+/**
+ * Scalar Range Kernel
+ * Plain loop version of the range filter. Used when the Vector API is not
+ * available, and as the reference the vector kernel is checked against.
+ * The comparison result is shifted straight into the bitmap word, so the
+ * loop has no branch that depends on the data.
+ */
+
+package src.primaryUseCases.browseMovies;
+
+public class ScalarRangeKernel implements RangeKernel {
+
+    @Override
+    public void selectBetween(double[] column, int count, double min, double max, long[] selection) {
+        for (int word = 0; word << 6 < count; word++) {
+            int base = word << 6;
+            int end = Math.min(count - base, 64);
+            long bits = 0;
+            for (int bit = 0; bit < end; bit++) {
+                double value = column[base + bit];
+                bits |= (value >= min & value <= max ? 1L : 0L) << bit;
+            }
+            selection[word] |= bits;
+        }
+    }
+
+    @Override
+    public void selectBetween(int[] column, int count, int min, int max, long[] selection) {
+        for (int word = 0; word << 6 < count; word++) {
+            int base = word << 6;
+            int end = Math.min(count - base, 64);
+            long bits = 0;
+            for (int bit = 0; bit < end; bit++) {
+                int value = column[base + bit];
+                bits |= (value >= min & value <= max ? 1L : 0L) << bit;
+            }
+            selection[word] |= bits;
+        }
+    }
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,281 @@
+/**
+ * Showtime Index
+ * Global index of screenings by start time. Every minute of the day owns a
+ * bucket of movie ids, so "what starts between 18:00 and 21:00" only visits
+ * the buckets inside the window instead of scanning every movie.
+ *
+ * For age-aware searches every screening is also kept as one packed long,
+ * (start minute, age restriction, movie id) from the high bits down, in a
+ * sorted array. A window is a range of that array, and inside each minute
+ * the screenings are ordered by age, so a scan skips to the next minute as
+ * soon as the age cap is exceeded.
+ *
+ * An edited movie is taken out of the buckets of its old showtimes and its
+ * old packed screenings are queued for removal, which happens in the same
+ * merge pass that adds new screenings.
+ */
+
+package src.primaryUseCases.browseMovies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import src.catalogIndex;
+import src.dataStore.Movie;
+import src.helpers.timeOfDay;
+
+public class ShowtimeIndex extends catalogIndex {
+
+    private final int[][] buckets = new int[timeOfDay.MINUTES_PER_DAY][];
+    private final int[] bucketSizes = new int[timeOfDay.MINUTES_PER_DAY];
+
+    // Packed screenings, see pack(); new ones wait in pending until the next search
+    private static final int ID_BITS = 24;
+    private static final int AGE_BITS = 16;
+    private static final int AGE_SHIFT = ID_BITS;
+    private static final int MINUTE_SHIFT = ID_BITS + AGE_BITS;
+    private long[] screenings = new long[0];
+    private long[] pending = new long[16];
+    private int pendingCount;
+    private long[] removals = new long[16]; // Packed screenings of edited movies, dropped at the next merge
+    private int removalCount;
+
+    // What each movie was indexed with, so an edit can find its old entries
+    private short[][] indexedMinutes = new short[16][];
+    private long[][] indexedScreenings = new long[16][];
+
+    // Dedup for startingBetween: a movie was already listed if its stamp is the current query's
+    private int[] seenStamps = new int[16];
+    private int stamp;
+
+    @Override
+    protected void clear() {
+        Arrays.fill(buckets, null);
+        Arrays.fill(bucketSizes, 0);
+        screenings = new long[0];
+        pendingCount = 0;
+        removalCount = 0;
+        indexedMinutes = new short[16][];
+        indexedScreenings = new long[16][];
+    }
+
+    @Override
+    protected void add(int movieId, Movie movie) {
+        if (movieId >= indexedMinutes.length) {
+            int capacity = Math.max(movieId + 1, indexedMinutes.length * 2);
+            indexedMinutes = Arrays.copyOf(indexedMinutes, capacity);
+            indexedScreenings = Arrays.copyOf(indexedScreenings, capacity);
+        }
+        short[] minutes = movie.getShowMinutes();
+        long[] packed = new long[minutes.length];
+        for (int m = 0; m < minutes.length; m++) {
+            short minute = minutes[m];
+            int[] bucket = buckets[minute];
+            int size = bucketSizes[minute];
+            if (bucket == null) {
+                bucket = new int[2];
+            } else if (size == bucket.length) {
+                bucket = Arrays.copyOf(bucket, size * 2);
+            }
+            // Buckets stay in id order; new movies always go at the end
+            int at = size;
+            while (at > 0 && bucket[at - 1] > movieId) at--;
+            System.arraycopy(bucket, at, bucket, at + 1, size - at);
+            bucket[at] = movieId;
+            buckets[minute] = bucket;
+            bucketSizes[minute] = size + 1;
+
+            packed[m] = pack(minute, movie.getAgeRestriction(), movieId);
+            if (pendingCount == pending.length) {
+                pending = Arrays.copyOf(pending, pendingCount * 2);
+            }
+            pending[pendingCount++] = packed[m];
+        }
+        indexedMinutes[movieId] = minutes;
+        indexedScreenings[movieId] = packed;
+    }
+
+    @Override
+    protected void update(int movieId, Movie movie) {
+        if (movieId < 0) {
+            rebuild();
+            return;
+        }
+        for (short minute : indexedMinutes[movieId]) {
+            int[] bucket = buckets[minute];
+            int size = bucketSizes[minute];
+            for (int i = 0; i < size; i++) {
+                if (bucket[i] == movieId) {
+                    System.arraycopy(bucket, i + 1, bucket, i, size - i - 1);
+                    bucketSizes[minute] = size - 1;
+                    break;
+                }
+            }
+        }
+        for (long screening : indexedScreenings[movieId]) {
+            if (removalCount == removals.length) {
+                removals = Arrays.copyOf(removals, removalCount * 2);
+            }
+            removals[removalCount++] = screening;
+        }
+        add(movieId, movie);
+    }
+
+    /**
+     * Returns the movies with a screening starting inside the window, ordered
+     * by start time. A window with from > to wraps around midnight.
+     * @param fromMinute First minute of the window (inclusive).
+     * @param toMinute Last minute of the window (inclusive).
+     */
+    public synchronized List<Movie> startingBetween(int fromMinute, int toMinute) {
+        sync();
+        List<Movie> results = new ArrayList<>();
+        nextStamp();
+
+        int length = Math.floorMod(toMinute - fromMinute, timeOfDay.MINUTES_PER_DAY) + 1;
+        for (int step = 0; step < length; step++) {
+            int minute = (fromMinute + step) % timeOfDay.MINUTES_PER_DAY;
+            int[] bucket = buckets[minute];
+            for (int i = 0; i < bucketSizes[minute]; i++) {
+                int movieId = bucket[i];
+                if (seenStamps[movieId] != stamp) {
+                    seenStamps[movieId] = stamp;
+                    results.add(movie(movieId));
+                }
+            }
+        }
+        return results;
+    }
+
+    // Starts a new dedup pass without clearing the stamps of earlier queries
+    private void nextStamp() {
+        if (seenStamps.length < size()) {
+            seenStamps = new int[Math.max(size(), seenStamps.length * 2)];
+            stamp = 0;
+        }
+        if (++stamp == 0) {
+            // Wrapped around, so old stamps could look current
+            Arrays.fill(seenStamps, 0);
+            stamp = 1;
+        }
+    }
+
+    /**
+     * Counts the screenings starting inside the window.
+     */
+    public synchronized int countStartingBetween(int fromMinute, int toMinute) {
+        sync();
+        int count = 0;
+        int length = Math.floorMod(toMinute - fromMinute, timeOfDay.MINUTES_PER_DAY) + 1;
+        for (int step = 0; step < length; step++) {
+            count += bucketSizes[(fromMinute + step) % timeOfDay.MINUTES_PER_DAY];
+        }
+        return count;
+    }
+
+    /**
+     * Returns the screenings starting inside the window that a customer of
+     * the given age may watch, ordered by start time. A window with from > to
+     * wraps around midnight.
+     * @param maxAge Age of the customer; movies restricted above it are left out.
+     */
+    public synchronized List<Screening> screeningsBetween(int fromMinute, int toMinute, int maxAge) {
+        sync();
+        flushPending();
+        List<Screening> results = new ArrayList<>();
+        if (fromMinute <= toMinute) {
+            scan(fromMinute, toMinute, maxAge, results);
+        } else {
+            scan(fromMinute, timeOfDay.MINUTES_PER_DAY - 1, maxAge, results);
+            scan(0, toMinute, maxAge, results);
+        }
+        return results;
+    }
+
+    private void scan(int fromMinute, int toMinute, int maxAge, List<Screening> results) {
+        long cap = Math.max(0, Math.min(maxAge, (1 << AGE_BITS) - 1));
+        int i = lowerBound(pack(fromMinute, 0, 0));
+        while (i < screenings.length) {
+            long screening = screenings[i];
+            int minute = (int) (screening >>> MINUTE_SHIFT);
+            if (minute > toMinute) break;
+
+            if ((screening >>> AGE_SHIFT & mask(AGE_BITS)) > cap) {
+                // The rest of this minute is restricted even higher
+                i = lowerBound(pack(minute + 1, 0, 0));
+                continue;
+            }
+            results.add(new Screening(movie((int) (screening & mask(ID_BITS))), minute));
+            i++;
+        }
+    }
+
+    // Sorts the new screenings and merges them into the sorted array in one pass,
+    // dropping the old screenings of edited movies on the way
+    private void flushPending() {
+        if (pendingCount == 0 && removalCount == 0) return;
+        Arrays.sort(pending, 0, pendingCount);
+        Arrays.sort(removals, 0, removalCount);
+        long[] merged = new long[screenings.length + pendingCount];
+        int i = 0, j = 0, k = 0, r = 0;
+        while (i < screenings.length || j < pendingCount) {
+            long next;
+            if (j == pendingCount || (i < screenings.length && screenings[i] <= pending[j])) {
+                next = screenings[i++];
+            } else {
+                next = pending[j++];
+            }
+            while (r < removalCount && removals[r] < next) r++;
+            if (r < removalCount && removals[r] == next) {
+                r++; // Each removal cancels one copy
+                continue;
+            }
+            merged[k++] = next;
+        }
+        screenings = k == merged.length ? merged : Arrays.copyOf(merged, k);
+        pendingCount = 0;
+        removalCount = 0;
+    }
+
+    // First position whose screening is not below the key
+    private int lowerBound(long key) {
+        int low = 0, high = screenings.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (screenings[middle] < key) low = middle + 1;
+            else high = middle;
+        }
+        return low;
+    }
+
+    private static long pack(int minute, int ageRestriction, int movieId) {
+        if (movieId > mask(ID_BITS)) {
+            throw new IllegalStateException("Too many movies for the showtime index");
+        }
+        long age = Math.max(0, Math.min(ageRestriction, (int) mask(AGE_BITS)));
+        return (long) minute << MINUTE_SHIFT | age << AGE_SHIFT | movieId;
+    }
+
+    private static long mask(int bits) {
+        return (1L << bits) - 1;
+    }
+
+    // One screening of a movie
+    public static final class Screening {
+        private final Movie movie;
+        private final int startMinute;
+
+        Screening(Movie movie, int startMinute) {
+            this.movie = movie;
+            this.startMinute = startMinute;
+        }
+
+        public Movie getMovie() { return movie; }
+        public int getStartMinute() { return startMinute; }
+
+        @Override
+        public String toString() {
+            return timeOfDay.format(startMinute) + "  " + movie.getTitle() + " (" + movie.getAgeRestriction() + "+)";
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/**
+ * Sorted Listings
+ * Keeps the catalog pre-sorted by the common sort keys as permutations of
+ * movie ids, so a ranked listing only reads the ids it shows: a top-k or a
+ * page of k movies costs O(k) instead of sorting the catalog per request.
+ * New movies are collected and merged into every permutation in one pass
+ * on the next read, so adding n movies never costs n separate inserts.
+ * A listing can also be limited to a selection bitmap from MovieColumns,
+ * in which case the permutation is walked until k selected movies are found.
+ */
+
+package src.primaryUseCases.browseMovies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import src.catalogIndex;
+import src.dataStore.Movie;
+import src.helpers.collation;
+
+public class SortedListings extends catalogIndex {
+
+    public enum SortKey { RATING, DURATION, TITLE }
+
+    private final int[][] permutations = new int[SortKey.values().length][];
+    private int sorted;               // Movie ids below this are in the permutations
+    private String[] titleKeys = new String[16]; // Collation keys of the titles, compared often
+
+    public SortedListings() {
+        clear();
+    }
+
+    @Override
+    protected void clear() {
+        for (int key = 0; key < permutations.length; key++) {
+            permutations[key] = new int[0];
+        }
+        sorted = 0;
+        titleKeys = new String[16];
+    }
+
+    @Override
+    protected void add(int movieId, Movie movie) {
+        if (movieId >= titleKeys.length) {
+            titleKeys = Arrays.copyOf(titleKeys, Math.max(movieId + 1, titleKeys.length * 2));
+        }
+        titleKeys[movieId] = collation.key(movie.getTitle());
+        // Merged into the permutations on the next read
+    }
+
+    // An edited movie is taken out of every permutation and merged back in
+    @Override
+    protected void update(int movieId, Movie movie) {
+        if (movieId < 0) {
+            for (int id = 0; id < size(); id++) {
+                titleKeys[id] = collation.key(movie(id).getTitle());
+            }
+            for (int key = 0; key < permutations.length; key++) {
+                permutations[key] = new int[0];
+            }
+            sorted = 0;
+            return;
+        }
+        titleKeys[movieId] = collation.key(movie.getTitle());
+        for (SortKey key : SortKey.values()) {
+            int[] order = permutations[key.ordinal()];
+            int at = indexOf(order, movieId);
+            if (at < 0) continue;
+            int[] without = new int[order.length - 1];
+            System.arraycopy(order, 0, without, 0, at);
+            System.arraycopy(order, at + 1, without, at, without.length - at);
+            permutations[key.ordinal()] = merge(without, new int[]{movieId}, comparator(key));
+        }
+    }
+
+    /**
+     * Returns the first k movies by a sort key.
+     * Ratings are listed highest first, durations shortest first, titles A to Z.
+     */
+    public synchronized List<Movie> top(SortKey key, int k) {
+        return page(key, 0, k);
+    }
+
+    /**
+     * Returns one page of the sorted catalog.
+     * @param page Page number, starting at 0.
+     */
+    public synchronized List<Movie> page(SortKey key, int page, int pageSize) {
+        if (page < 0 || pageSize <= 0) {
+            throw new IllegalArgumentException("Page must be 0 or more and page size positive");
+        }
+        int[] order = permutation(key);
+        List<Movie> results = new ArrayList<>();
+        long from = (long) page * pageSize;
+        for (long i = from; i < order.length && i < from + pageSize; i++) {
+            results.add(movie(order[(int) i]));
+        }
+        return results;
+    }
+
+    /**
+     * Returns the first k movies by a sort key among the selected ones.
+     * @param selection Bitmap with bit i set for movie id i, e.g. from MovieColumns.
+     */
+    public synchronized List<Movie> top(SortKey key, long[] selection, int k) {
+        int[] order = permutation(key);
+        List<Movie> results = new ArrayList<>();
+        for (int i = 0; i < order.length && results.size() < k; i++) {
+            int movieId = order[i];
+            int word = movieId >>> 6;
+            if (word < selection.length && (selection[word] & 1L << movieId) != 0) {
+                results.add(movie(movieId));
+            }
+        }
+        return results;
+    }
+
+    // The ids in sorted order, brought up to date with the catalog
+    private int[] permutation(SortKey key) {
+        sync();
+        if (sorted < size()) {
+            int[] added = new int[size() - sorted];
+            for (int i = 0; i < added.length; i++) {
+                added[i] = sorted + i;
+            }
+            for (SortKey k : SortKey.values()) {
+                permutations[k.ordinal()] = merge(permutations[k.ordinal()], sortIds(added, comparator(k)),
+                        comparator(k));
+            }
+            sorted = size();
+        }
+        return permutations[key.ordinal()];
+    }
+
+    private Comparator<Integer> comparator(SortKey key) {
+        Comparator<Integer> order;
+        switch (key) {
+            case RATING:
+                order = (a, b) -> Double.compare(movie(b).getImdbRating(), movie(a).getImdbRating());
+                break;
+            case DURATION:
+                order = (a, b) -> Integer.compare(movie(a).getDuration(), movie(b).getDuration());
+                break;
+            default:
+                order = (a, b) -> titleKeys[a].compareTo(titleKeys[b]);
+        }
+        // Equal keys keep catalog order
+        return order.thenComparing(Comparator.naturalOrder());
+    }
+
+    private static int[] sortIds(int[] ids, Comparator<Integer> order) {
+        Integer[] boxed = new Integer[ids.length];
+        for (int i = 0; i < ids.length; i++) boxed[i] = ids[i];
+        Arrays.sort(boxed, order);
+        int[] result = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) result[i] = boxed[i];
+        return result;
+    }
+
+    // Merges two sorted id arrays in one pass
+    private static int[] merge(int[] a, int[] b, Comparator<Integer> order) {
+        int[] merged = new int[a.length + b.length];
+        int i = 0, j = 0, k = 0;
+        while (i < a.length && j < b.length) {
+            merged[k++] = order.compare(a[i], b[j]) <= 0 ? a[i++] : b[j++];
+        }
+        while (i < a.length) merged[k++] = a[i++];
+        while (j < b.length) merged[k++] = b[j++];
+        return merged;
+    }
+
+    private static int indexOf(int[] ids, int id) {
+        for (int i = 0; i < ids.length; i++) {
+            if (ids[i] == id) return i;
+        }
+        return -1;
+    }
+}
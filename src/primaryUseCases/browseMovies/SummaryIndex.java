@@ -0,0 +1,213 @@
+/**
+ * Summary Index
+ * Full-text index over movie titles and summaries ranked with BM25.
+ * Each term keeps its postings as a compressed byte array of
+ * (movie id gap, term frequency) pairs written as variable-length integers.
+ * Movie ids only grow, so new movies are appended to the postings in place.
+ * An edited movie is taken out of the postings of the terms it was indexed
+ * under and written back, which only rewrites those terms' postings.
+ */
+
+package src.primaryUseCases.browseMovies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import src.catalogIndex;
+import src.dataStore.Movie;
+import src.helpers.textTokenizer;
+
+public class SummaryIndex extends catalogIndex {
+
+    // BM25 parameters (standard values)
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Title words count as much as this many summary words
+    private static final int TITLE_WEIGHT = 2;
+
+    private final Map<String, Postings> terms = new HashMap<>();
+    private int[] documentLengths = new int[16];
+    private String[][] documentTerms = new String[16][]; // Terms indexed for each movie
+    private long totalLength;
+
+    @Override
+    protected void clear() {
+        terms.clear();
+        documentLengths = new int[16];
+        documentTerms = new String[16][];
+        totalLength = 0;
+    }
+
+    @Override
+    protected void update(int movieId, Movie movie) {
+        if (movieId < 0) {
+            rebuild();
+            return;
+        }
+        for (String term : documentTerms[movieId]) {
+            Postings postings = terms.get(term);
+            postings.remove(movieId);
+            if (postings.documentCount == 0) terms.remove(term);
+        }
+        totalLength -= documentLengths[movieId];
+        add(movieId, movie);
+    }
+
+    @Override
+    protected void add(int movieId, Movie movie) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String token : textTokenizer.tokenize(movie.getTitle())) {
+            frequencies.merge(token, TITLE_WEIGHT, Integer::sum);
+        }
+        for (String token : textTokenizer.tokenize(movie.getSummary())) {
+            frequencies.merge(token, 1, Integer::sum);
+        }
+
+        int length = 0;
+        for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+            terms.computeIfAbsent(entry.getKey(), k -> new Postings()).add(movieId, entry.getValue());
+            length += entry.getValue();
+        }
+
+        if (movieId >= documentLengths.length) {
+            int capacity = Math.max(movieId + 1, documentLengths.length * 2);
+            documentLengths = Arrays.copyOf(documentLengths, capacity);
+            documentTerms = Arrays.copyOf(documentTerms, capacity);
+        }
+        documentLengths[movieId] = length;
+        documentTerms[movieId] = frequencies.keySet().toArray(new String[0]);
+        totalLength += length;
+    }
+
+    /**
+     * Returns the best matching movies for a free-text query, best first.
+     * @param query Words to look for in titles and summaries.
+     * @param limit Maximum number of results.
+     */
+    public synchronized List<Movie> search(String query, int limit) {
+        sync();
+        List<Movie> results = new ArrayList<>();
+        int documents = size();
+        if (documents == 0 || limit <= 0) return results;
+
+        double averageLength = Math.max(1.0, (double) totalLength / documents);
+        Map<Integer, Double> scores = new HashMap<>();
+
+        for (String token : new LinkedHashSet<>(textTokenizer.tokenize(query))) {
+            Postings postings = terms.get(token);
+            if (postings == null) continue;
+
+            double idf = Math.log(1 + (documents - postings.documentCount + 0.5) / (postings.documentCount + 0.5));
+            int[] position = {0};
+            int movieId = 0;
+            for (int i = 0; i < postings.documentCount; i++) {
+                movieId += postings.readInt(position);
+                int frequency = postings.readInt(position);
+                double norm = K1 * (1 - B + B * documentLengths[movieId] / averageLength);
+                double score = idf * frequency * (K1 + 1) / (frequency + norm);
+                scores.merge(movieId, score, Double::sum);
+            }
+        }
+
+        // Keep only the top results in a min-heap ordered by score, then id
+        PriorityQueue<Map.Entry<Integer, Double>> top = new PriorityQueue<>((a, b) -> {
+            int byScore = Double.compare(a.getValue(), b.getValue());
+            return byScore != 0 ? byScore : Integer.compare(b.getKey(), a.getKey());
+        });
+        for (Map.Entry<Integer, Double> entry : scores.entrySet()) {
+            top.offer(entry);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+
+        while (!top.isEmpty()) {
+            results.add(movie(top.poll().getKey()));
+        }
+        Collections.reverse(results);
+        return results;
+    }
+
+    // Compressed postings: variable-length (id gap, frequency) pairs
+    private static class Postings {
+        byte[] bytes = new byte[8];
+        int length;
+        int documentCount;
+        int lastMovieId;
+
+        void add(int movieId, int frequency) {
+            if (documentCount > 0 && movieId <= lastMovieId) {
+                // An edited movie goes back into the middle, so the postings are rewritten
+                int[][] entries = decode();
+                rewrite(entries, movieId, frequency);
+                return;
+            }
+            writeInt(movieId - lastMovieId);
+            writeInt(frequency);
+            lastMovieId = movieId;
+            documentCount++;
+        }
+
+        void remove(int movieId) {
+            rewrite(decode(), movieId, 0);
+        }
+
+        // (movie id, frequency) of every document
+        private int[][] decode() {
+            int[][] entries = new int[documentCount][2];
+            int[] position = {0};
+            int movieId = 0;
+            for (int i = 0; i < documentCount; i++) {
+                movieId += readInt(position);
+                entries[i][0] = movieId;
+                entries[i][1] = readInt(position);
+            }
+            return entries;
+        }
+
+        // Writes the entries back with movieId set to frequency (0 leaves it out)
+        private void rewrite(int[][] entries, int movieId, int frequency) {
+            length = 0;
+            documentCount = 0;
+            lastMovieId = 0;
+            boolean written = frequency == 0;
+            for (int[] entry : entries) {
+                if (!written && movieId < entry[0]) {
+                    add(movieId, frequency);
+                    written = true;
+                }
+                if (entry[0] != movieId) add(entry[0], entry[1]);
+            }
+            if (!written) add(movieId, frequency);
+        }
+
+        private void writeInt(int value) {
+            if (length + 5 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            while ((value & ~0x7F) != 0) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        int readInt(int[] position) {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = bytes[position[0]++];
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return value;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+/**
+ * Title Autocomplete
+ * Prefix trie over normalized titles for letter-by-letter completion.
+ * Every node caches the ids of its most popular completions, so a lookup only
+ * walks the typed prefix and never depends on the size of the catalog.
+ * When a movie is edited only the nodes on its old and new title paths are
+ * touched: each node on the old path recomputes its cache from the titles
+ * ending there and the caches of its children.
+ * Popularity is the number of tickets paid for, read incrementally from the
+ * sales history. Bookings still in the cart are not counted: they may be
+ * cancelled or expire before checkout.
+ */
+
+package src.primaryUseCases.browseMovies;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import src.catalogIndex;
+import src.dataStore;
+import src.dataStore.Movie;
+import src.primaryUseCases.bookingMovies.PackedBookingStore;
+import src.helpers.collation;
+
+public class TitleAutocomplete extends catalogIndex {
+
+    // Completions cached at every node
+    public static final int TOP_K = 5;
+
+    private Node root = new Node();
+    private int[] ticketsSold = new int[16];
+    private String[] titleKeys = new String[16]; // Normalized title each movie was inserted under
+    private final Map<Movie, Integer> movieIds = new IdentityHashMap<>();
+
+    private PackedBookingStore salesSource; // The sales history popularity was read from
+    private int salesSeen;                  // Number of sales already counted
+
+    @Override
+    protected void clear() {
+        root = new Node();
+        ticketsSold = new int[16];
+        titleKeys = new String[16];
+        movieIds.clear();
+        salesSource = null;
+        salesSeen = 0;
+    }
+
+    @Override
+    protected void add(int movieId, Movie movie) {
+        movieIds.put(movie, movieId);
+        if (movieId >= ticketsSold.length) {
+            int capacity = Math.max(movieId + 1, ticketsSold.length * 2);
+            ticketsSold = Arrays.copyOf(ticketsSold, capacity);
+            titleKeys = Arrays.copyOf(titleKeys, capacity);
+        }
+        insert(movieId, movie);
+    }
+
+    // A new title or rating: take the movie off its old path, then insert it again
+    @Override
+    protected void update(int movieId, Movie movie) {
+        if (movieId < 0) {
+            rebuild();
+            return;
+        }
+        List<Node> path = new ArrayList<>();
+        Node node = root;
+        path.add(node);
+        String oldKey = titleKeys[movieId];
+        for (int i = 0; i < oldKey.length(); i++) {
+            node = node.child(oldKey.charAt(i));
+            path.add(node);
+        }
+        node.removeEnd(movieId);
+        for (int i = path.size() - 1; i >= 0; i--) {
+            path.get(i).recompute();
+        }
+        insert(movieId, movie);
+    }
+
+    /**
+     * Returns the most popular titles starting with the prefix.
+     * @param prefix What the customer has typed so far.
+     * @param limit Maximum number of completions, at most TOP_K.
+     */
+    public synchronized List<Movie> complete(String prefix, int limit) {
+        sync();
+        syncSales();
+
+        List<Movie> results = new ArrayList<>();
+        Node node = root;
+        String key = normalize(prefix);
+        for (int i = 0; i < key.length() && node != null; i++) {
+            node = node.child(key.charAt(i));
+        }
+        if (node == null) return results;
+
+        for (int i = 0; i < node.topCount && i < limit; i++) {
+            results.add(movie(node.top[i]));
+        }
+        return results;
+    }
+
+    // Counts tickets from sales recorded since the last call
+    private void syncSales() {
+        PackedBookingStore sales = dataStore.getSalesHistory();
+        if (sales != salesSource) {
+            // A new sales history, so popularity is recounted from scratch
+            Arrays.fill(ticketsSold, 0);
+            root = new Node();
+            for (int movieId = 0; movieId < size(); movieId++) {
+                insert(movieId, movie(movieId));
+            }
+            salesSource = sales;
+            salesSeen = 0;
+        }
+        if (sales == null) return;
+
+        // Sales are only ever appended, so the records already counted never change
+        int salesCount = sales.getBookingCount();
+        while (salesSeen < salesCount) {
+            Integer movieId = movieIds.get(sales.get(salesSeen).getMovie());
+            salesSeen++;
+            if (movieId == null) continue;
+
+            ticketsSold[movieId]++;
+            // Popularity only grows, so only the nodes on this title's path can change
+            Node node = root;
+            node.offer(movieId);
+            String key = titleKeys[movieId];
+            for (int i = 0; i < key.length(); i++) {
+                node = node.child(key.charAt(i));
+                node.offer(movieId);
+            }
+        }
+    }
+
+    private void insert(int movieId, Movie movie) {
+        Node node = root;
+        node.offer(movieId);
+        String key = normalize(movie.getTitle());
+        titleKeys[movieId] = key;
+        for (int i = 0; i < key.length(); i++) {
+            node = node.childOrCreate(key.charAt(i));
+            node.offer(movieId);
+        }
+        node.addEnd(movieId);
+    }
+
+    // True if movie a should be listed before movie b
+    private boolean ranksBefore(int a, int b) {
+        if (ticketsSold[a] != ticketsSold[b]) return ticketsSold[a] > ticketsSold[b];
+        int byRating = Double.compare(movie(a).getImdbRating(), movie(b).getImdbRating());
+        return byRating != 0 ? byRating > 0 : a < b;
+    }
+
+    private static String normalize(String text) {
+        if (text == null) return "";
+        return collation.fold(text).replaceAll("\\s+", " ").replaceAll("^ ", "");
+    }
+
+    private class Node {
+        char[] keys = new char[0];
+        Node[] children = new Node[0];
+        int[] top = new int[TOP_K];
+        int topCount;
+        int[] ends = new int[0]; // Movies whose whole title is the path to this node
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) return children[i];
+
+            // Keep keys sorted so lookups can binary search
+            int insertAt = -i - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = c;
+            newChildren[insertAt] = new Node();
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            keys = newKeys;
+            children = newChildren;
+            return newChildren[insertAt];
+        }
+
+        void addEnd(int movieId) {
+            ends = Arrays.copyOf(ends, ends.length + 1);
+            ends[ends.length - 1] = movieId;
+        }
+
+        void removeEnd(int movieId) {
+            for (int i = 0; i < ends.length; i++) {
+                if (ends[i] == movieId) {
+                    int[] rest = new int[ends.length - 1];
+                    System.arraycopy(ends, 0, rest, 0, i);
+                    System.arraycopy(ends, i + 1, rest, i, rest.length - i);
+                    ends = rest;
+                    return;
+                }
+            }
+        }
+
+        // Rebuilds the cached completions from the titles ending here and the children's caches
+        void recompute() {
+            topCount = 0;
+            for (int movieId : ends) {
+                offer(movieId);
+            }
+            for (Node child : children) {
+                for (int i = 0; i < child.topCount; i++) {
+                    offer(child.top[i]);
+                }
+            }
+        }
+
+        // Adds or moves up a movie in the cached completions
+        void offer(int movieId) {
+            int position = -1;
+            for (int i = 0; i < topCount; i++) {
+                if (top[i] == movieId) {
+                    position = i;
+                    break;
+                }
+            }
+            if (position < 0) {
+                if (topCount < TOP_K) {
+                    position = topCount++;
+                } else if (ranksBefore(movieId, top[TOP_K - 1])) {
+                    position = TOP_K - 1;
+                } else {
+                    return;
+                }
+                top[position] = movieId;
+            }
+            while (position > 0 && ranksBefore(top[position], top[position - 1])) {
+                int swap = top[position - 1];
+                top[position - 1] = top[position];
+                top[position] = swap;
+                position--;
+            }
+        }
+    }
+}
@@ -19,6 +19,7 @@ import src.dataStore.SavedPaymentMethod;
 import src.dataStore.ValidDiscountCode;
 import src.helpers.consoleColors;
 import src.helpers.validation;
+import src.primaryUseCases.bookingMovies.BookingRecord;
 
 public class CheckoutMovies {
 
@@ -32,6 +33,7 @@ public class CheckoutMovies {
 
     public void start() {
         System.out.println(consoleColors.BLUE_BOLD + "\n--- Checkout ---" + consoleColors.RESET);
+        releaseExpiredHolds();
 
         if (dataStore.getBookings().isEmpty()) {
             System.out.println(consoleColors.RED_BOLD +
@@ -40,10 +42,12 @@ public class CheckoutMovies {
             return;
         }
 
+        renewHeldSeats();
         printShoppingCart();
         double price = calculateTotalPrice();
 
         String discountCode = promptForDiscountCode();
+        dataStore.applyDiscount(discountCode, getDiscountPercentageByCode(discountCode));
         if (!discountCode.isEmpty()) {
             price = applyDiscount(discountCode, price);
             System.out.println(consoleColors.GREEN_BOLD +
@@ -91,9 +95,15 @@ public class CheckoutMovies {
 
     // ==================== SHOPPING CART METHODS ====================
 
+    // Read from the running cart totals, no need to walk the bookings
     public static double calculateTotalPrice() {
+        return dataStore.getCartProjection().getSubtotal();
+    }
+
+    // Works on the cart as well as on a booking history such as an OffHeapBookingLedger
+    public static double calculateTotalPrice(Iterable<? extends BookingRecord> bookings) {
         double total = 0;
-        for (Booking booking : dataStore.getBookings()) {
+        for (BookingRecord booking : bookings) {
             total += booking.getBookingPrice();
         }
         return total;
@@ -218,6 +228,7 @@ System.out.println();
         if (savedPaymentMethod != null) {
             System.out.println(savedPaymentMethod);
             promptForCheckoutConfirmation();
+            if (!confirmHeldSeats()) return false;
             dataStore.clearAllBookings();
             return true;
         }
@@ -235,11 +246,53 @@ System.out.println();
         String cvv = promptForCVV();
 
         promptForCheckoutConfirmation();
+        if (!confirmHeldSeats()) return false;
         dataStore.clearAllBookings();
 
         return promptForSavePaymentMethod(cardType, cardholderName, cardNumber, expiryDate, cvv);
     }
 
+    // ==================== SEAT HOLD METHODS ====================
+
+    // Drops bookings whose seats were held too long without paying
+    private int releaseExpiredHolds() {
+        int expired = dataStore.getSeatHolds().expireDue();
+        if (expired > 0) {
+            System.out.println(consoleColors.RED_BOLD + expired +
+                    " booking(s) expired before payment and were removed from the cart." +
+                    consoleColors.RESET);
+        }
+        return expired;
+    }
+
+    // The customer gets the full hold time to pay for the cart shown to them
+    private void renewHeldSeats() {
+        for (Booking booking : dataStore.getBookings()) {
+            dataStore.getSeatHolds().renew(booking.getBookingId());
+        }
+    }
+
+    // Paid bookings keep their seats for good and are kept in the sales history,
+    // which records any booking, packed or not, so it cannot fail a paid checkout.
+    // If a hold still ran out while paying, the cart is no longer the one whose
+    // total was accepted, so nothing is charged and the new total is shown.
+    private boolean confirmHeldSeats() {
+        if (releaseExpiredHolds() > 0) {
+            System.out.println(consoleColors.RED_BOLD +
+                    "Payment was not taken. Your cart changed, the new total is " +
+                    consoleColors.RESET + dataStore.getCartProjection().getTotal());
+            System.out.println(consoleColors.YELLOW_BOLD +
+                    "Please check out again to pay for the updated cart." +
+                    consoleColors.RESET);
+            return false;
+        }
+        dataStore.getSalesHistory().addAll(dataStore.getBookings());
+        for (Booking booking : dataStore.getBookings()) {
+            dataStore.getSeatHolds().confirm(booking.getBookingId());
+        }
+        return true;
+    }
+
     // ==================== PAYMENT INPUT METHODS ====================
 
     private String promptForCardType() {
@@ -1,6 +1,8 @@
 package src.primaryUseCases.manageMovies;
 
+import src.dataStore;
 import src.helpers.consoleColors;
+import src.helpers.timeOfDay;
 import java.util.*;
 
 public class AddMovie {
@@ -8,6 +10,8 @@ public class AddMovie {
     private Scanner scanner;
     private List<Movie> movies = new ArrayList<>();
     private Set<String> movieTitles = new HashSet<>();
+    private HallTimetable timetable; // Optional, rejects showtimes that overlap in the same hall
+    private boolean publishToCatalog; // Also add new movies to dataStore, where browsing and booking see them
 
     private static final int ACTOR_COUNT = 3;
     private static final int SHOWTIME_COUNT = 5;
@@ -22,6 +26,16 @@ public class AddMovie {
         this.scanner = scanner;
     }
 
+    public AddMovie(Scanner scanner, HallTimetable timetable) {
+        this.scanner = scanner;
+        this.timetable = timetable;
+    }
+
+    // New movies also go into the shared catalog and its change feed
+    public void setPublishToCatalog(boolean publishToCatalog) {
+        this.publishToCatalog = publishToCatalog;
+    }
+
     public void addMovie() {
         System.out.println("\n" + consoleColors.CYAN_BOLD + "=== Add New Movie ===" + consoleColors.RESET);
 
@@ -38,8 +52,17 @@ public class AddMovie {
         double imdbRating = readImdbRating();
         String language = readLanguage();
         int duration = readPositiveInt(consoleColors.BLUE_BOLD + "Enter duration (minutes): " + consoleColors.RESET);
-        String[] showTimes = readShowTimes();
-        String hallType = readHallType();
+
+        // With a timetable the hall must be known first, so showtimes can be checked as they are entered
+        String[] showTimes;
+        String hallType;
+        if (timetable != null) {
+            hallType = readHallType();
+            showTimes = readShowTimes(title, duration, hallType);
+        } else {
+            showTimes = readShowTimes();
+            hallType = readHallType();
+        }
 
         Movie movie = new Movie(
                 title, actors, summary, ageRestriction, imdbRating,
@@ -171,6 +194,10 @@ public class AddMovie {
     }
 
     private String[] readShowTimes() {
+        return readShowTimes(null, 0, null);
+    }
+
+    private String[] readShowTimes(String title, int duration, String hallType) {
         String[] times = new String[SHOWTIME_COUNT];
         System.out.println(consoleColors.BLUE_BOLD + "Enter 5 show times (HH:MM):" + consoleColors.RESET);
 
@@ -191,6 +218,10 @@ public class AddMovie {
                     continue;
                 }
 
+                if (timetable != null && !isHallFree(title, duration, hallType, trimmed)) {
+                    continue;
+                }
+
                 times[i] = appendAmPm(trimmed);
                 break;
             }
@@ -198,6 +229,26 @@ public class AddMovie {
         return times;
     }
 
+    // Checks the hall timetable and books the slot if it is free
+    private boolean isHallFree(String title, int duration, String hallType, String hhmm) {
+        int start = timeOfDay.parse(hhmm);
+        String conflict = timetable.findConflict(hallType, start, duration);
+
+        if (conflict != null) {
+            System.out.println(consoleColors.RED_BOLD + "Show time overlaps '" + conflict + "' in the "
+                    + hallType + " hall." + consoleColors.RESET);
+            int next = timetable.nextFreeSlot(hallType, start, duration);
+            if (next != timeOfDay.INVALID) {
+                System.out.println(consoleColors.YELLOW_BOLD + "Next free slot: "
+                        + String.format("%02d:%02d", next / 60, next % 60) + consoleColors.RESET);
+            }
+            return false;
+        }
+
+        timetable.addScreening(hallType, title, start, duration);
+        return true;
+    }
+
     private String appendAmPm(String hhmm) {
         int hour = Integer.parseInt(hhmm.substring(0, 2));
         return hour < 12 ? hhmm + " AM" : hhmm + " PM";
@@ -227,10 +278,21 @@ public class AddMovie {
     private void addMovieToCollection(Movie movie) {
         movieTitles.add(movie.getTitle().toLowerCase());
         movies.add(movie);
+
+        if (publishToCatalog && dataStore.getMovies() != null) {
+            dataStore.addMovie(new dataStore.Movie(movie.getTitle(), movie.getActors(), movie.getSummary(),
+                    movie.getAgeRestriction(), movie.getImdbRating(), movie.getLanguage(), movie.getDuration(),
+                    movie.getShowTimes(), movie.getHallType()));
+        }
     }
 
     private boolean movieExists(String title) {
-        return movieTitles.contains(title.toLowerCase());
+        if (movieTitles.contains(title.toLowerCase())) return true;
+        if (!publishToCatalog || dataStore.getMovies() == null) return false;
+        for (dataStore.Movie movie : dataStore.getMovies()) {
+            if (movie.getTitle().equalsIgnoreCase(title)) return true;
+        }
+        return false;
     }
 
     public List<Movie> getMovies() {
@@ -0,0 +1,179 @@
+/*
+The HallTimetable class keeps the daily screening schedule of every hall.
+A screening occupies its hall from its start time for the movie's duration plus
+a fixed cleanup time. Screenings are stored per hall in an interval tree, so
+checking a new showtime for overlaps and finding the next free slot do not
+need a scan of every screening.
+*/
+
+package src.primaryUseCases.manageMovies;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import src.dataStore;
+import src.helpers.timeOfDay;
+
+public class HallTimetable {
+
+    public static final int CLEANUP_MINUTES = 15;
+
+    private final Map<String, IntervalTree> halls = new HashMap<>();
+
+    // Builds a timetable from the screenings already in the catalog
+    public static HallTimetable fromCatalog(List<dataStore.Movie> movies) {
+        HallTimetable timetable = new HallTimetable();
+        if (movies == null) return timetable;
+
+        for (dataStore.Movie movie : movies) {
+            for (short start : movie.getShowMinutes()) {
+                timetable.addScreening(movie.getHallType(), movie.getTitle(), start, movie.getDuration());
+            }
+        }
+        return timetable;
+    }
+
+    /**
+     * Adds a screening to the hall. Overlaps are not rejected here, so existing
+     * schedules can be loaded as they are; use findConflict before adding.
+     */
+    public synchronized void addScreening(String hall, String title, int startMinute, int duration) {
+        IntervalTree tree = halls.computeIfAbsent(key(hall), k -> new IntervalTree());
+        int end = startMinute + duration + CLEANUP_MINUTES;
+
+        // A screening running past midnight also blocks the start of the day
+        tree.insert(startMinute, Math.min(end, timeOfDay.MINUTES_PER_DAY), title);
+        if (end > timeOfDay.MINUTES_PER_DAY) {
+            tree.insert(0, Math.min(end - timeOfDay.MINUTES_PER_DAY, timeOfDay.MINUTES_PER_DAY), title);
+        }
+    }
+
+    /**
+     * Returns the title of a screening that overlaps the proposed one, or null
+     * if the hall is free for the whole screening and its cleanup.
+     */
+    public synchronized String findConflict(String hall, int startMinute, int duration) {
+        Interval hit = overlapping(hall, startMinute, duration);
+        return hit == null ? null : hit.title;
+    }
+
+    /**
+     * Finds the earliest start at or after fromMinute where the hall is free
+     * for the whole screening, or timeOfDay.INVALID if there is none today.
+     * Every probe is one interval tree search and jumps past the blocking screening.
+     */
+    public synchronized int nextFreeSlot(String hall, int fromMinute, int duration) {
+        int start = fromMinute;
+        while (start < timeOfDay.MINUTES_PER_DAY) {
+            Interval hit = overlapping(hall, start, duration);
+            if (hit == null) return start;
+            if (hit.end <= start) {
+                // Only the part after midnight conflicts, and a later start only makes that part longer
+                return timeOfDay.INVALID;
+            }
+            start = hit.end;
+        }
+        return timeOfDay.INVALID;
+    }
+
+    private Interval overlapping(String hall, int startMinute, int duration) {
+        IntervalTree tree = halls.get(key(hall));
+        if (tree == null) return null;
+
+        int end = startMinute + duration + CLEANUP_MINUTES;
+        Interval hit = tree.findOverlap(startMinute, Math.min(end, timeOfDay.MINUTES_PER_DAY));
+        if (hit == null && end > timeOfDay.MINUTES_PER_DAY) {
+            hit = tree.findOverlap(0, Math.min(end - timeOfDay.MINUTES_PER_DAY, timeOfDay.MINUTES_PER_DAY));
+        }
+        return hit;
+    }
+
+    private static String key(String hall) {
+        return hall == null ? "" : hall.trim().toUpperCase();
+    }
+
+    // A half-open range of minutes [start, end) taken by one screening
+    private static class Interval {
+        final int start, end;
+        final String title;
+        final int priority;
+        int maxEnd;
+        Interval left, right;
+
+        Interval(int start, int end, String title, int priority) {
+            this.start = start;
+            this.end = end;
+            this.title = title;
+            this.priority = priority;
+            this.maxEnd = end;
+        }
+    }
+
+    /**
+     * Interval tree built on a treap ordered by start time. Every node also
+     * stores the largest end time in its subtree, which lets an overlap search
+     * follow a single path from the root.
+     */
+    private static class IntervalTree {
+        private final Random random = new Random(403);
+        private Interval root;
+
+        void insert(int start, int end, String title) {
+            root = insert(root, new Interval(start, end, title, random.nextInt()));
+        }
+
+        private Interval insert(Interval node, Interval added) {
+            if (node == null) return added;
+
+            if (added.start < node.start) {
+                node.left = insert(node.left, added);
+                if (node.left.priority > node.priority) node = rotateRight(node);
+            } else {
+                node.right = insert(node.right, added);
+                if (node.right.priority > node.priority) node = rotateLeft(node);
+            }
+            update(node);
+            return node;
+        }
+
+        Interval findOverlap(int start, int end) {
+            Interval node = root;
+            while (node != null) {
+                if (node.start < end && start < node.end) return node;
+                // If anything on the left ends after our start, an overlap (if any) is there
+                if (node.left != null && node.left.maxEnd > start) {
+                    node = node.left;
+                } else {
+                    node = node.right;
+                }
+            }
+            return null;
+        }
+
+        private static Interval rotateRight(Interval node) {
+            Interval pivot = node.left;
+            node.left = pivot.right;
+            pivot.right = node;
+            update(node);
+            update(pivot);
+            return pivot;
+        }
+
+        private static Interval rotateLeft(Interval node) {
+            Interval pivot = node.right;
+            node.right = pivot.left;
+            pivot.left = node;
+            update(node);
+            update(pivot);
+            return pivot;
+        }
+
+        private static void update(Interval node) {
+            int maxEnd = node.end;
+            if (node.left != null) maxEnd = Math.max(maxEnd, node.left.maxEnd);
+            if (node.right != null) maxEnd = Math.max(maxEnd, node.right.maxEnd);
+            node.maxEnd = maxEnd;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package tests.benchmarks;
+
+import src.dataStore;
+import src.dataStore.Booking;
+import src.dataStore.HallType;
+import src.dataStore.Movie;
+import src.primaryUseCases.bookingMovies.BookingEngine;
+import src.primaryUseCases.bookingMovies.BookingRequest;
+import src.primaryUseCases.bookingMovies.LockingBookingEngine;
+import src.primaryUseCases.bookingMovies.RingBufferBookingEngine;
+import src.primaryUseCases.bookingMovies.SeatInventory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/*
+Load test for a premiere rush: 1, 8 and 64 threads book seats for the same
+screening through the lock based engine and the ring buffer engine.
+Reports throughput and the 50th, 99th and 99.9th percentile latency of a
+single booking. The screening is large enough that it never sells out.
+Run with: java -cp <classes> tests.benchmarks.benchBookingEngine
+*/
+public class benchBookingEngine {
+
+    private static final int[] THREADS = { 1, 8, 64 };
+    private static final int BOOKINGS_PER_RUN = 192_000;
+    private static final int ROUNDS = 3; // The first round warms up and is not printed
+
+    public static void main(String[] args) throws InterruptedException {
+        new dataStore();
+        // A hall big enough for every booking of a run
+        dataStore.getHalls().add(new HallType("Premiere", 12.0, 400, 500));
+        Movie premiere = new Movie("Premiere Night", new String[]{"Cast"}, "Opening night.", 0, 9.0,
+                "English", 150, new String[]{"8:00 PM"}, "Premiere");
+        dataStore.getMovies().add(premiere);
+
+        System.out.printf("%-12s %8s %14s %10s %10s %10s%n", "engine", "threads", "bookings/s", "p50 us", "p99 us", "p99.9 us");
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int threads : THREADS) {
+                for (int engineType = 0; engineType < 2; engineType++) {
+                    List<Booking> ledger = new ArrayList<>(BOOKINGS_PER_RUN);
+                    SeatInventory inventory = new SeatInventory();
+                    BookingEngine engine = engineType == 0
+                            ? new LockingBookingEngine(inventory, ledger)
+                            : new RingBufferBookingEngine(inventory, ledger);
+                    String name = engineType == 0 ? "lock" : "ring buffer";
+                    run(name, engine, premiere, threads, round > 0);
+                    engine.close();
+                }
+            }
+        }
+    }
+
+    private static void run(String name, BookingEngine engine, Movie movie, int threads, boolean print)
+            throws InterruptedException {
+        int perThread = BOOKINGS_PER_RUN / threads;
+        long[][] latencies = new long[threads][perThread];
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            long[] mine = latencies[t];
+            Thread worker = new Thread(() -> {
+                BookingRequest request = new BookingRequest(movie, "8:00 PM");
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perThread; i++) {
+                    long begin = System.nanoTime();
+                    engine.book(request.reset(movie, "8:00 PM"));
+                    mine[i] = System.nanoTime() - begin;
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsed = System.nanoTime() - begin;
+        if (!print) return;
+
+        long[] all = new long[threads * perThread];
+        for (int t = 0; t < threads; t++) {
+            System.arraycopy(latencies[t], 0, all, t * perThread, perThread);
+        }
+        Arrays.sort(all);
+        System.out.printf("%-12s %8d %14.0f %10.1f %10.1f %10.1f%n", name, threads,
+                all.length / (elapsed / 1e9),
+                percentile(all, 0.50) / 1e3, percentile(all, 0.99) / 1e3, percentile(all, 0.999) / 1e3);
+    }
+
+    private static long percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))];
+    }
+}
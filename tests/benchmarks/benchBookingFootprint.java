@@ -0,0 +1,54 @@
+package tests.benchmarks;
+
+import src.dataStore;
+import src.dataStore.Booking;
+import src.dataStore.Movie;
+import src.primaryUseCases.bookingMovies.PackedBookingStore;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/*
+Compares the heap used by one million bookings kept as Booking objects with
+the same bookings in a PackedBookingStore.
+Run with: java -Xmx2g -cp <classes> tests.benchmarks.benchBookingFootprint
+*/
+public class benchBookingFootprint {
+
+    private static final int BOOKINGS = 1_000_000;
+
+    public static void main(String[] args) {
+        new dataStore();
+        List<Movie> movies = dataStore.getMovies();
+
+        long before = usedHeap();
+        List<Booking> objects = new ArrayList<>(BOOKINGS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            Movie movie = movies.get(i % movies.size());
+            String[] showTimes = movie.getShowTimes();
+            objects.add(new Booking(movie, showTimes[i % showTimes.length], i % 400));
+        }
+        long objectBytes = usedHeap() - before;
+
+        before = usedHeap();
+        PackedBookingStore store = new PackedBookingStore();
+        for (Booking booking : objects) {
+            store.add(booking);
+        }
+        long packedBytes = usedHeap() - before;
+
+        System.out.printf("Booking objects: %.1f bytes per booking (measured)%n", (double) objectBytes / BOOKINGS);
+        System.out.printf("Packed store:    %.1f bytes per booking (measured), %.1f reported%n",
+                (double) packedBytes / BOOKINGS, store.getBytesPerBooking());
+        // Both collections are still in use here, so neither was collected while measuring
+        System.out.println("Bookings: " + objects.size() + " objects, " + store.getBookingCount() + " packed");
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,108 @@
+package tests.benchmarks;
+
+import src.helpers.compressedBitmap;
+
+import java.util.BitSet;
+import java.util.Random;
+
+/*
+Compares compressedBitmap with java.util.BitSet on sparse, dense and
+run-heavy sets over ten million possible ids: heap size, serialized size,
+and the time of AND, OR, ANDNOT and the cardinality of an intersection.
+Run with: java -cp <classes> tests.benchmarks.benchCompressedBitmap
+*/
+public class benchCompressedBitmap {
+
+    private static final int RANGE = 10_000_000;
+    private static final int ROUNDS = 20;
+
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        run("sparse (0.1%)", sparse(random), sparse(random));
+        run("dense (50%)", dense(random), dense(random));
+        run("runs", runs(random), runs(random));
+    }
+
+    private static void run(String name, BitSet a, BitSet b) {
+        compressedBitmap ca = toBitmap(a);
+        compressedBitmap cb = toBitmap(b);
+        ca.runOptimize();
+        cb.runOptimize();
+
+        System.out.printf("%s, %,d values%n", name, a.cardinality());
+        System.out.printf("  heap        BitSet %,11d bytes   compressed %,11d bytes%n",
+                16 + 16 + a.size() / 8, ca.sizeInBytes());
+        System.out.printf("  serialized  BitSet %,11d bytes   compressed %,11d bytes%n",
+                a.toByteArray().length, ca.toBytes().length);
+
+        long[] sink = new long[1];
+        for (int pass = 0; pass < 2; pass++) { // The first pass only warms up
+            boolean print = pass == 1;
+            report(print, "AND", time(() -> sink[0] += bitSetAnd(a, b)),
+                    time(() -> sink[0] += compressedBitmap.and(ca, cb).cardinality()));
+            report(print, "OR", time(() -> {
+                BitSet or = (BitSet) a.clone();
+                or.or(b);
+                sink[0] += or.length();
+            }), time(() -> sink[0] += compressedBitmap.or(ca, cb).isEmpty() ? 0 : 1));
+            report(print, "ANDNOT", time(() -> {
+                BitSet andNot = (BitSet) a.clone();
+                andNot.andNot(b);
+                sink[0] += andNot.length();
+            }), time(() -> sink[0] += compressedBitmap.andNot(ca, cb).isEmpty() ? 0 : 1));
+            report(print, "|A AND B|", time(() -> sink[0] += bitSetAnd(a, b)),
+                    time(() -> sink[0] += compressedBitmap.andCardinality(ca, cb)));
+        }
+
+        if (bitSetAnd(a, b) != compressedBitmap.andCardinality(ca, cb)) {
+            throw new AssertionError("Intersection sizes differ");
+        }
+        System.out.println();
+    }
+
+    private static int bitSetAnd(BitSet a, BitSet b) {
+        BitSet and = (BitSet) a.clone();
+        and.and(b);
+        return and.cardinality();
+    }
+
+    private static double time(Runnable operation) {
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            operation.run();
+        }
+        return (System.nanoTime() - start) / 1e6 / ROUNDS;
+    }
+
+    private static void report(boolean print, String operation, double bitSetMillis, double compressedMillis) {
+        if (!print) return;
+        System.out.printf("  %-10s  BitSet %8.3f ms     compressed %8.3f ms%n", operation, bitSetMillis, compressedMillis);
+    }
+
+    private static BitSet sparse(Random random) {
+        BitSet set = new BitSet(RANGE);
+        for (int i = 0; i < RANGE / 1000; i++) set.set(random.nextInt(RANGE));
+        return set;
+    }
+
+    private static BitSet dense(Random random) {
+        BitSet set = new BitSet(RANGE);
+        for (int i = 0; i < RANGE; i++) if (random.nextBoolean()) set.set(i);
+        return set;
+    }
+
+    // A few hundred long ranges, like blocks of sold seats or a catalog listed by id
+    private static BitSet runs(Random random) {
+        BitSet set = new BitSet(RANGE);
+        for (int i = 0; i < 300; i++) {
+            int start = random.nextInt(RANGE);
+            set.set(start, Math.min(RANGE, start + random.nextInt(20000)));
+        }
+        return set;
+    }
+
+    private static compressedBitmap toBitmap(BitSet set) {
+        long[] words = set.toLongArray();
+        return compressedBitmap.fromWords(words);
+    }
+}
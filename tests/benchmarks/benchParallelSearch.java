@@ -0,0 +1,57 @@
+package tests.benchmarks;
+
+import src.dataStore;
+import src.dataStore.Movie;
+import src.primaryUseCases.browseMovies.ParallelSearch;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+/*
+Filters a catalog of two million movies by rating and by title with
+ParallelSearch on pools of 1, 4, 16 and 32 threads and reports the speedup
+over one thread. The speedup is bounded by the cores of the machine, see
+the "available processors" line.
+Run with: java -Xmx2g -cp <classes> tests.benchmarks.benchParallelSearch
+*/
+public class benchParallelSearch {
+
+    private static final int MOVIES = 2_000_000;
+    private static final int ROUNDS = 10;
+    private static final int[] THREADS = {1, 4, 16, 32};
+
+    public static void main(String[] args) {
+        new dataStore();
+        List<Movie> catalog = new ArrayList<>(MOVIES);
+        for (int i = 0; i < MOVIES; i++) {
+            catalog.add(new Movie("Movie " + i, new String[]{"Actor"}, "Summary", 0, (i % 100) / 10.0,
+                    "English", 100, new String[]{"6:00 PM"}, "Standard"));
+        }
+        Predicate<Movie> byRating = movie -> movie.getImdbRating() >= 7 && movie.getImdbRating() <= 10;
+        Predicate<Movie> byTitle = movie -> movie.getTitle().toLowerCase().contains("99");
+
+        System.out.println("Available processors: " + Runtime.getRuntime().availableProcessors());
+        double baseline = 0;
+        for (int threads : THREADS) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            ParallelSearch search = new ParallelSearch(pool);
+
+            int found = 0;
+            for (int i = 0; i < 3; i++) { // Warm up
+                found += search.filter(catalog, byRating).size() + search.filter(catalog, byTitle).size();
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                found += search.filter(catalog, byRating).size() + search.filter(catalog, byTitle).size();
+            }
+            double millis = (System.nanoTime() - start) / 1e6 / ROUNDS;
+            if (threads == 1) baseline = millis;
+
+            System.out.printf("%2d threads: %7.1f ms per rating + title search, speedup %.2fx (%d matches)%n",
+                    threads, millis, baseline / millis, found);
+            pool.shutdown();
+        }
+    }
+}
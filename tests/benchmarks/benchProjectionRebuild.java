@@ -0,0 +1,88 @@
+package tests.benchmarks;
+
+import src.dataStore;
+import src.dataStore.Booking;
+import src.dataStore.Movie;
+import src.primaryUseCases.bookingMovies.BookingEventLog;
+import src.primaryUseCases.bookingMovies.CartProjection;
+import src.primaryUseCases.bookingMovies.SalesProjection;
+import src.primaryUseCases.checkout.CheckoutMovies;
+
+import java.util.List;
+
+/*
+Builds a booking event log of about one million events through the bookings
+list (bookings, cancellations, discounts and checkouts), then compares reading
+the cart total from the projection with summing the cart, and times a full
+rebuild of the projections from the log.
+Run with: java -Xmx2g -cp <classes> tests.benchmarks.benchProjectionRebuild
+*/
+public class benchProjectionRebuild {
+
+    private static final int BOOKINGS = 900_000;
+    private static final int CART_SIZE = 1_000; // Bookings per checkout
+    private static final int QUERIES = 1_000;
+
+    public static void main(String[] args) {
+        new dataStore();
+        List<Movie> movies = dataStore.getMovies();
+        List<Booking> cart = dataStore.getBookings();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < BOOKINGS; i++) {
+            Movie movie = movies.get(i % movies.size());
+            String[] showTimes = movie.getShowTimes();
+            Booking booking = new Booking(movie, showTimes[i % showTimes.length]);
+            cart.add(booking);
+            if (i % 10 == 9) {
+                dataStore.cancelBooking(booking.getBookingId());
+            }
+            if (i % CART_SIZE == CART_SIZE - 1) {
+                dataStore.applyDiscount("BAHRAINSPIRIT30", i % 3 == 0 ? 30 : 0);
+                dataStore.clearAllBookings();
+            }
+        }
+        BookingEventLog log = dataStore.getEventLog();
+        System.out.printf("Appended %,d events in %d ms%n", log.size(), (System.nanoTime() - start) / 1_000_000);
+
+        // Leave a full cart open so summing has something to walk
+        for (int i = 0; i < CART_SIZE; i++) {
+            cart.add(new Booking(movies.get(i % movies.size()), movies.get(i % movies.size()).getShowTimes()[0]));
+        }
+
+        double sink = 0;
+        for (int round = 0; round < 2; round++) { // First round warms up
+            start = System.nanoTime();
+            for (int q = 0; q < QUERIES; q++) {
+                sink += CheckoutMovies.calculateTotalPrice(cart);
+            }
+            long scanNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int q = 0; q < QUERIES; q++) {
+                sink += CheckoutMovies.calculateTotalPrice();
+            }
+            long projectionNanos = System.nanoTime() - start;
+
+            if (round == 1) {
+                System.out.printf("Cart total, %d bookings: sum %.0f ns, projection %.0f ns per query%n",
+                        cart.size(), (double) scanNanos / QUERIES, (double) projectionNanos / QUERIES);
+            }
+        }
+
+        CartProjection rebuiltCart = new CartProjection();
+        SalesProjection rebuiltSales = new SalesProjection();
+        for (int round = 0; round < 3; round++) {
+            start = System.nanoTime();
+            log.replay(rebuiltCart);
+            log.replay(rebuiltSales);
+            long rebuildMillis = (System.nanoTime() - start) / 1_000_000;
+            System.out.printf("Rebuilt both projections from %,d events in %d ms%n", log.size(), rebuildMillis);
+        }
+
+        System.out.printf("Tickets sold %,d (live %,d), paid %.2f (live %.2f), cart %.2f (live %.2f) [%s]%n",
+                rebuiltSales.getTicketsSold(), dataStore.getSalesProjection().getTicketsSold(),
+                rebuiltSales.getPaidRevenue(), dataStore.getSalesProjection().getPaidRevenue(),
+                rebuiltCart.getSubtotal(), dataStore.getCartProjection().getSubtotal(), sink > 0 ? "ok" : "");
+    }
+}
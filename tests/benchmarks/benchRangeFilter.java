@@ -0,0 +1,72 @@
+package tests.benchmarks;
+
+import src.primaryUseCases.browseMovies.MovieColumns;
+import src.primaryUseCases.browseMovies.RangeKernel;
+import src.primaryUseCases.browseMovies.ScalarRangeKernel;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/*
+Runs the rating and duration range filters over columns of ten million rows
+with the scalar kernel and with the vector kernel, when it was compiled in
+and jdk.incubator.vector is present, and checks both select the same rows.
+Run with: java --add-modules jdk.incubator.vector -cp <classes> tests.benchmarks.benchRangeFilter
+*/
+public class benchRangeFilter {
+
+    private static final int ROWS = 10_000_000;
+    private static final int ROUNDS = 20;
+
+    public static void main(String[] args) {
+        Random random = new Random(1);
+        double[] ratings = new double[ROWS];
+        int[] durations = new int[ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            ratings[i] = random.nextInt(101) / 10.0;
+            durations[i] = 60 + random.nextInt(150);
+        }
+
+        RangeKernel scalar = new ScalarRangeKernel();
+        RangeKernel vector = MovieColumns.loadVectorKernel();
+        long[] expected = run(scalar, ratings, durations);
+        if (vector == null) {
+            System.out.println("Vector kernel not available, only the scalar kernel was measured");
+            return;
+        }
+        long[] actual = run(vector, ratings, durations);
+        if (!Arrays.equals(expected, actual)) {
+            throw new AssertionError(vector.getName() + " kernel selected different rows");
+        }
+    }
+
+    private static long[] run(RangeKernel kernel, double[] ratings, int[] durations) {
+        long[] selection = new long[(ROWS + 63) / 64];
+        for (int i = 0; i < 5; i++) { // Warm up
+            Arrays.fill(selection, 0);
+            kernel.selectBetween(ratings, ROWS, 7.0, 10.0, selection);
+        }
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            Arrays.fill(selection, 0);
+            kernel.selectBetween(ratings, ROWS, 7.0, 10.0, selection);
+        }
+        double ratingMillis = (System.nanoTime() - start) / 1e6 / ROUNDS;
+        long[] ratingSelection = selection.clone();
+
+        start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            Arrays.fill(selection, 0);
+            kernel.selectBetween(durations, ROWS, 90, 120, selection);
+        }
+        double durationMillis = (System.nanoTime() - start) / 1e6 / ROUNDS;
+
+        int selected = 0;
+        for (long word : ratingSelection) selected += Long.bitCount(word);
+        System.out.printf("%-18s rating %6.2f ms (%.2f ns/row), duration %6.2f ms (%.2f ns/row), %,d rated 7-10%n",
+                kernel.getName(), ratingMillis, ratingMillis * 1e6 / ROWS,
+                durationMillis, durationMillis * 1e6 / ROWS, selected);
+        return ratingSelection;
+    }
+}
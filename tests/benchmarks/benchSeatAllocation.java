@@ -0,0 +1,60 @@
+package tests.benchmarks;
+
+import src.primaryUseCases.bookingMovies.SeatAllocator;
+import src.primaryUseCases.bookingMovies.SeatMap;
+
+import java.util.Random;
+
+/*
+Benchmark for group seat allocation in a 500 seat IMAX hall (20 rows of 25).
+Every round fills a fresh hall to about 60% at random so the free seats are
+scattered in short runs, then times how long it takes to seat groups of four.
+Run with: java -cp <classes> tests.benchmarks.benchSeatAllocation
+*/
+public class benchSeatAllocation {
+
+    private static final int ROWS = 20;
+    private static final int SEATS_PER_ROW = 25;
+    private static final double TAKEN_FRACTION = 0.6;
+    private static final int GROUP_SIZE = 4;
+    private static final int WARMUP_ROUNDS = 2_000;
+    private static final int ROUNDS = 10_000;
+
+    public static void main(String[] args) {
+        SeatAllocator allocator = new SeatAllocator();
+        Random random = new Random(33);
+
+        run(allocator, random, WARMUP_ROUNDS);
+        long[] result = run(allocator, random, ROUNDS);
+
+        System.out.printf("Hall: %d seats, %.0f%% taken before each round%n",
+                ROWS * SEATS_PER_ROW, TAKEN_FRACTION * 100);
+        System.out.printf("Groups of %d seated: %d (%d split across blocks)%n",
+                GROUP_SIZE, result[0], result[1]);
+        System.out.printf("Average time per allocation: %.2f us%n", result[2] / 1000.0 / result[0]);
+    }
+
+    // Returns {allocations, split allocations, total nanoseconds}
+    private static long[] run(SeatAllocator allocator, Random random, int rounds) {
+        long allocations = 0, splits = 0, nanos = 0;
+        for (int round = 0; round < rounds; round++) {
+            SeatMap seats = fragmentedHall(random);
+            long start = System.nanoTime();
+            int[] claimed;
+            while ((claimed = allocator.allocate(seats, GROUP_SIZE)).length > 0) {
+                allocations++;
+                if (claimed[GROUP_SIZE - 1] - claimed[0] != GROUP_SIZE - 1) splits++;
+            }
+            nanos += System.nanoTime() - start;
+        }
+        return new long[] { allocations, splits, nanos };
+    }
+
+    private static SeatMap fragmentedHall(Random random) {
+        SeatMap seats = new SeatMap(ROWS, SEATS_PER_ROW);
+        for (int seat = 0; seat < seats.getCapacity(); seat++) {
+            if (random.nextDouble() < TAKEN_FRACTION) seats.claim(seat);
+        }
+        return seats;
+    }
+}
@@ -170,4 +170,32 @@ public class testBooking {
         String id = booking.bookMovie("Inception", "10:00 AM   ");
         Assert.assertFalse(id.isEmpty());
     }
-}
\ No newline at end of file
+
+    // 21. Showtime entered in 24-hour format matches the stored 12-hour time
+    @Test
+    public void test_Showtime24HourFormat() {
+        String id = booking.bookMovie("Inception", "19:00");
+        Assert.assertFalse(id.isEmpty());
+    }
+
+    // ---------------- FUZZY TITLE TESTS ---------------- //
+
+    // 22. Typo in title is suggested but not booked automatically
+    @Test
+    public void test_TitleTypoSuggested() {
+        Assert.assertEquals("", booking.bookMovie("Incepton", "10:00 AM"));
+        Assert.assertEquals("Inception", booking.suggestTitles("Incepton").get(0).getTitle());
+    }
+
+    // 23. Missing leading article and a typo
+    @Test
+    public void test_TitleTypoWithoutArticle() {
+        Assert.assertEquals("The Godfather", booking.suggestTitles("Godfathr").get(0).getTitle());
+    }
+
+    // 24. Unrelated title has no suggestions
+    @Test
+    public void test_TitleNoSuggestions() {
+        Assert.assertTrue(booking.suggestTitles("RandomMovie").isEmpty());
+    }
+}
@@ -0,0 +1,123 @@
+package tests.bookingMoviesTesting;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import src.primaryUseCases.bookingMovies.BookingEngine;
+import src.primaryUseCases.bookingMovies.BookingRequest;
+import src.primaryUseCases.bookingMovies.LockingBookingEngine;
+import src.primaryUseCases.bookingMovies.RingBufferBookingEngine;
+import src.primaryUseCases.bookingMovies.SeatInventory;
+import src.dataStore;
+import src.dataStore.Booking;
+import src.dataStore.Movie;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class testBookingEngine {
+
+    private Movie bab; // VIP hall, 48 seats
+
+    @Before
+    public void setUp() {
+        new dataStore();
+        bab = dataStore.getMovies().get(3);
+    }
+
+    // Books from many threads at once, returns the number of successful bookings
+    private int rush(BookingEngine engine, int threads, int attemptsPerThread,
+            ConcurrentLinkedQueue<Integer> seats) throws InterruptedException {
+        AtomicInteger booked = new AtomicInteger();
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                BookingRequest request = new BookingRequest(bab, "9:00 PM");
+                for (int i = 0; i < attemptsPerThread; i++) {
+                    if (engine.book(request.reset(bab, "9:00 PM"))) {
+                        booked.incrementAndGet();
+                        seats.add(request.getSeat());
+                    }
+                }
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        return booked.get();
+    }
+
+    private void assertNoSeatSoldTwice(BookingEngine engine, List<Booking> ledger) throws InterruptedException {
+        ConcurrentLinkedQueue<Integer> seats = new ConcurrentLinkedQueue<>();
+        int booked = rush(engine, 8, 20, seats);
+        engine.close();
+
+        Assert.assertEquals(48, booked);
+        Assert.assertEquals(48, new HashSet<>(seats).size());
+        Assert.assertEquals(48, ledger.size());
+        Set<String> ids = new HashSet<>();
+        for (Booking booking : ledger) {
+            Assert.assertTrue(ids.add(booking.getBookingId()));
+        }
+    }
+
+    // 1. Ring buffer engine sells every seat exactly once
+    @Test
+    public void test_RingBufferRush() throws InterruptedException {
+        List<Booking> ledger = new ArrayList<>();
+        assertNoSeatSoldTwice(new RingBufferBookingEngine(new SeatInventory(), ledger, 16), ledger);
+    }
+
+    // 2. Lock based engine sells every seat exactly once
+    @Test
+    public void test_LockingRush() throws InterruptedException {
+        List<Booking> ledger = new ArrayList<>();
+        assertNoSeatSoldTwice(new LockingBookingEngine(new SeatInventory(), ledger), ledger);
+    }
+
+    // 3. Results of a single request
+    @Test
+    public void test_RequestResults() {
+        List<Booking> ledger = new ArrayList<>();
+        try (RingBufferBookingEngine engine = new RingBufferBookingEngine(new SeatInventory(), ledger)) {
+            BookingRequest request = new BookingRequest(bab, "9:00 PM");
+            Assert.assertTrue(engine.book(request));
+            Assert.assertEquals(BookingRequest.Status.BOOKED, request.getStatus());
+            Assert.assertEquals(ledger.get(0).getBookingId(), request.getBookingId());
+            Assert.assertEquals(0, request.getSeat());
+
+            Assert.assertFalse(engine.book(request.reset(bab, "3:00 AM")));
+            Assert.assertEquals(BookingRequest.Status.NO_SUCH_SCREENING, request.getStatus());
+            Assert.assertNull(request.getBookingId());
+        }
+    }
+
+    // 4. Sold out screening is reported as such
+    @Test
+    public void test_SoldOut() {
+        SeatInventory inventory = new SeatInventory();
+        try (LockingBookingEngine engine = new LockingBookingEngine(inventory, new ArrayList<Booking>())) {
+            BookingRequest request = new BookingRequest(bab, "9:00 PM");
+            for (int i = 0; i < 48; i++) {
+                Assert.assertTrue(engine.book(request.reset(bab, "9:00 PM")));
+            }
+            Assert.assertFalse(engine.book(request.reset(bab, "9:00 PM")));
+            Assert.assertEquals(BookingRequest.Status.SOLD_OUT, request.getStatus());
+        }
+    }
+
+    // 5. Closed engine refuses new requests
+    @Test(expected = IllegalStateException.class)
+    public void test_ClosedEngine() {
+        RingBufferBookingEngine engine = new RingBufferBookingEngine(new SeatInventory(), new ArrayList<Booking>());
+        engine.close();
+        engine.book(new BookingRequest(bab, "9:00 PM"));
+    }
+}
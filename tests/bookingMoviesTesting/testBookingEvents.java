@@ -0,0 +1,134 @@
+package tests.bookingMoviesTesting;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import src.primaryUseCases.bookingMovies.BookingEvent;
+import src.primaryUseCases.bookingMovies.BookingEventLog;
+import src.primaryUseCases.bookingMovies.BookingMovies;
+import src.primaryUseCases.bookingMovies.CartProjection;
+import src.primaryUseCases.bookingMovies.SalesProjection;
+import src.primaryUseCases.checkout.CheckoutMovies;
+import src.dataStore;
+import src.dataStore.Movie;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class testBookingEvents {
+
+    private BookingMovies booking;
+
+    @Before
+    public void setUp() {
+        booking = new BookingMovies(new dataStore());
+    }
+
+    // 1. Sample bookings are recorded as created, in order
+    @Test
+    public void test_SampleBookingsAreEvents() {
+        List<BookingEvent> events = dataStore.getEventLog().getEvents();
+        Assert.assertEquals(4, events.size());
+        for (int i = 0; i < events.size(); i++) {
+            Assert.assertTrue(events.get(i) instanceof BookingEvent.BookingCreated);
+            Assert.assertEquals(i, events.get(i).getSequence());
+        }
+        Assert.assertEquals(4, dataStore.getCartProjection().getItemCount());
+        Assert.assertEquals(21.0, dataStore.getCartProjection().getSubtotal(), 0.001);
+    }
+
+    // 2. Booking and cancelling keep the cart total up to date
+    @Test
+    public void test_CartFollowsBookingsAndCancellations() {
+        String bookingId = booking.bookMovie("Inception", "10:00 AM");
+        Assert.assertEquals(28.0, CheckoutMovies.calculateTotalPrice(), 0.001);
+
+        booking.cancelBooking(bookingId);
+        Assert.assertEquals(21.0, CheckoutMovies.calculateTotalPrice(), 0.001);
+        Assert.assertEquals(4, dataStore.getCartProjection().getItemCount());
+    }
+
+    // 3. Clearing or replacing the list directly is recorded too
+    @Test
+    public void test_DirectListChanges() {
+        dataStore.getBookings().clear();
+        Assert.assertEquals(0.0, CheckoutMovies.calculateTotalPrice(), 0.001);
+
+        List<dataStore.Booking> bookings = new ArrayList<>();
+        bookings.add(new dataStore.Booking(dataStore.getMovies().get(1), "12:00 PM"));
+        dataStore.setBookings(bookings);
+        Assert.assertEquals(3.5, CheckoutMovies.calculateTotalPrice(), 0.001);
+
+        dataStore.setBookings(new ArrayList<>());
+        Assert.assertEquals(0, dataStore.getCartProjection().getItemCount());
+    }
+
+    // 4. A discount lowers the total, and checkout moves the cart into the sales figures
+    @Test
+    public void test_DiscountAndCheckout() {
+        Movie inception = dataStore.getMovies().get(0);
+        booking.bookMovie("Inception", "10:00 AM");
+
+        dataStore.applyDiscount("NEWYEAR25", 25);
+        Assert.assertEquals(21.0, dataStore.getCartProjection().getTotal(), 0.001);
+
+        dataStore.clearAllBookings();
+        CartProjection cart = dataStore.getCartProjection();
+        Assert.assertEquals(0, cart.getItemCount());
+        Assert.assertEquals(0, cart.getDiscountPercentage());
+
+        SalesProjection sales = dataStore.getSalesProjection();
+        Assert.assertEquals(2, sales.getTicketsSold(inception));
+        Assert.assertEquals(14.0, sales.getRevenue(inception), 0.001);
+        Assert.assertEquals(5, sales.getTicketsSold());
+        Assert.assertEquals(21.0, sales.getPaidRevenue(), 0.001);
+        Assert.assertEquals(0, sales.getPendingCount());
+        Assert.assertTrue(dataStore.getEventLog().getEvents().get(dataStore.getEventLog().size() - 1)
+                instanceof BookingEvent.CheckoutCompleted);
+    }
+
+    // 5. Cancelled bookings never count as sold
+    @Test
+    public void test_CancelledBookingIsNotSold() {
+        Movie inception = dataStore.getMovies().get(0);
+        String bookingId = booking.bookMovie("Inception", "10:00 AM");
+        booking.cancelBooking(bookingId);
+        dataStore.clearAllBookings();
+        Assert.assertEquals(1, dataStore.getSalesProjection().getTicketsSold(inception));
+    }
+
+    // 6. Replaying the log rebuilds the same figures
+    @Test
+    public void test_ReplayRebuildsProjections() {
+        booking.bookMovie("Inception", "10:00 AM");
+        booking.bookMovie("The Dark Knight", "2:00 PM");
+        dataStore.applyDiscount("EIDMUBARAK15", 15);
+        dataStore.clearAllBookings();
+        booking.bookMovie("Amélie", "5:00 PM");
+
+        BookingEventLog log = dataStore.getEventLog();
+        CartProjection cart = new CartProjection();
+        SalesProjection sales = new SalesProjection();
+        log.replay(cart);
+        log.replay(sales);
+
+        Assert.assertEquals(dataStore.getCartProjection().getSubtotal(), cart.getSubtotal(), 0.001);
+        Assert.assertEquals(dataStore.getSalesProjection().getPaidRevenue(), sales.getPaidRevenue(), 0.001);
+        Assert.assertEquals(dataStore.getSalesProjection().getTicketsByTitle(), sales.getTicketsByTitle());
+
+        // Replaying again gives the same result, not double the figures
+        log.replay(sales);
+        Assert.assertEquals(dataStore.getSalesProjection().getTicketsSold(), sales.getTicketsSold());
+    }
+
+    // 7. Events are appended only once and discounts stay within 0 to 100 percent
+    @Test
+    public void test_InvalidEvents() {
+        BookingEvent event = new BookingEvent.DiscountApplied("X", 10);
+        BookingEventLog log = new BookingEventLog();
+        log.append(event);
+        Assert.assertThrows(IllegalStateException.class, () -> log.append(event));
+        Assert.assertThrows(IllegalArgumentException.class, () -> new BookingEvent.DiscountApplied("X", 101));
+    }
+}
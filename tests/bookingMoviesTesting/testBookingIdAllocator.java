@@ -0,0 +1,114 @@
+package tests.bookingMoviesTesting;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import src.primaryUseCases.bookingMovies.BookingIdAllocator;
+import src.primaryUseCases.bookingMovies.FileLeaseIdAllocator;
+import src.primaryUseCases.bookingMovies.LocalIdAllocator;
+import src.dataStore;
+import src.dataStore.Booking;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class testBookingIdAllocator {
+
+    private Path idFile;
+
+    @After
+    public void tearDown() throws IOException {
+        Booking.setIdAllocator(new LocalIdAllocator(100_000)); // Keep later tests clear of used IDs
+        if (idFile != null) Files.deleteIfExists(idFile);
+    }
+
+    private Path newIdFile() throws IOException {
+        idFile = Files.createTempFile("booking", ".ids");
+        Files.delete(idFile); // Start without a file, like a fresh install
+        return idFile;
+    }
+
+    // 1. IDs keep three digits at least and grow past 999
+    @Test
+    public void test_Format() {
+        Assert.assertEquals("B001", BookingIdAllocator.format(1));
+        Assert.assertEquals("B042", BookingIdAllocator.format(42));
+        Assert.assertEquals("B999", BookingIdAllocator.format(999));
+        Assert.assertEquals("B1000", BookingIdAllocator.format(1000));
+        Assert.assertEquals("B" + Long.MAX_VALUE, BookingIdAllocator.format(Long.MAX_VALUE));
+    }
+
+    // 2. Local counter counts up from its first number
+    @Test
+    public void test_LocalAllocator() {
+        LocalIdAllocator allocator = new LocalIdAllocator(998);
+        Assert.assertEquals(998, allocator.nextId());
+        Assert.assertEquals(999, allocator.nextId());
+        Assert.assertEquals(1000, allocator.nextId());
+    }
+
+    // 3. Two nodes sharing a file never get the same number
+    @Test
+    public void test_LeasedBlocksDoNotOverlap() throws IOException {
+        Path file = newIdFile();
+        FileLeaseIdAllocator kioskA = new FileLeaseIdAllocator(file, 10);
+        FileLeaseIdAllocator kioskB = new FileLeaseIdAllocator(file, 10);
+
+        Assert.assertEquals(1, kioskA.nextId());
+        Assert.assertEquals(11, kioskB.nextId()); // B leases the second block
+        Assert.assertEquals(2, kioskA.nextId());
+        Assert.assertEquals(8, kioskA.getRemainingInBlock());
+
+        Set<Long> seen = new HashSet<>(List.of(1L, 2L, 11L));
+        for (int i = 0; i < 50; i++) {
+            Assert.assertTrue(seen.add(kioskA.nextId()));
+            Assert.assertTrue(seen.add(kioskB.nextId()));
+        }
+    }
+
+    // 4. A restarted node continues after every block already leased
+    @Test
+    public void test_RestartSkipsLeasedBlocks() throws IOException {
+        Path file = newIdFile();
+        FileLeaseIdAllocator first = new FileLeaseIdAllocator(file, 100);
+        first.nextId();
+        Assert.assertEquals(101, new FileLeaseIdAllocator(file, 100).nextId());
+    }
+
+    // 5. Concurrent nodes and threads get unique numbers
+    @Test
+    public void test_ConcurrentLeases() throws Exception {
+        Path file = newIdFile();
+        ConcurrentLinkedQueue<Long> ids = new ConcurrentLinkedQueue<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int node = 0; node < 4; node++) {
+            FileLeaseIdAllocator allocator = new FileLeaseIdAllocator(file, 7);
+            for (int t = 0; t < 2; t++) {
+                Thread thread = new Thread(() -> {
+                    for (int i = 0; i < 200; i++) ids.add(allocator.nextId());
+                });
+                threads.add(thread);
+                thread.start();
+            }
+        }
+        for (Thread thread : threads) thread.join();
+        Assert.assertEquals(1600, ids.size());
+        Assert.assertEquals(1600, new HashSet<>(ids).size());
+    }
+
+    // 6. Bookings take their IDs from the configured allocator
+    @Test
+    public void test_BookingUsesAllocator() {
+        new dataStore();
+        Booking.setIdAllocator(new LocalIdAllocator(1234));
+        Booking booking = new Booking(dataStore.getMovies().get(0), "10:00 AM");
+        Assert.assertEquals("B1234", booking.getBookingId());
+    }
+}
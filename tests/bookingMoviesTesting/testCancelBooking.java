@@ -0,0 +1,184 @@
+package tests.bookingMoviesTesting;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import src.primaryUseCases.bookingMovies.BookingList;
+import src.primaryUseCases.bookingMovies.BookingMovies;
+import src.primaryUseCases.bookingMovies.SeatMap;
+import src.dataStore;
+import src.dataStore.Booking;
+import src.dataStore.Movie;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class testCancelBooking {
+
+    private BookingMovies booking;
+
+    @Before
+    public void setUp() {
+        booking = new BookingMovies(new dataStore());
+    }
+
+    // 1. Booking is found by its ID
+    @Test
+    public void test_FindBooking() {
+        String bookingId = booking.bookMovie("Inception", "10:00 AM");
+        Booking found = dataStore.findBooking(bookingId);
+        Assert.assertNotNull(found);
+        Assert.assertEquals("Inception", found.getMovieTitle());
+        Assert.assertSame(found, dataStore.findBooking(bookingId.toLowerCase()));
+        Assert.assertNull(dataStore.findBooking("B999999"));
+    }
+
+    // 2. Cancel removes the booking and frees its held seat
+    @Test
+    public void test_CancelHeldBooking() {
+        Movie inception = dataStore.getMovies().get(0);
+        String bookingId = booking.bookMovie("Inception", "10:00 AM");
+        Assert.assertEquals(499, dataStore.getSeatInventory().getAvailable(inception, 10 * 60));
+
+        Assert.assertTrue(booking.cancelBooking(bookingId));
+        Assert.assertNull(dataStore.findBooking(bookingId));
+        Assert.assertEquals(4, dataStore.getBookings().size());
+        Assert.assertEquals(500, dataStore.getSeatInventory().getAvailable(inception, 10 * 60));
+        Assert.assertFalse(dataStore.getSeatHolds().isHeld(bookingId));
+        Assert.assertFalse(booking.cancelBooking(bookingId));
+    }
+
+    // 3. Sample bookings have no hold but still give their seat back
+    @Test
+    public void test_CancelSampleBooking() {
+        Movie inception = dataStore.getMovies().get(0);
+        String bookingId = dataStore.getBookings().get(0).getBookingId();
+        Assert.assertTrue(booking.cancelBooking(bookingId));
+        Assert.assertEquals(500, dataStore.getSeatInventory().getAvailable(inception, 13 * 60));
+    }
+
+    // 4. Cancelled seat goes to the waitlist
+    @Test
+    public void test_CancelServesWaitlist() {
+        Movie bab = dataStore.getMovies().get(3);
+        SeatMap seats = dataStore.getSeatInventory().screening(bab, 16 * 60);
+        while (seats.claimAny() != SeatMap.NO_SEAT) {
+            // Fill the hall, the sample booking already holds one seat
+        }
+        booking.joinWaitlist(bab, "4:00 PM", seats);
+        String sampleId = dataStore.getBookings().get(3).getBookingId();
+
+        Assert.assertTrue(booking.cancelBooking(sampleId));
+        Assert.assertTrue(seats.isSoldOut());
+        Assert.assertEquals(4, dataStore.getBookings().size());
+        Assert.assertEquals("Bab Alharra", dataStore.getBookings().get(3).getMovieTitle());
+    }
+
+    // 5. Tombstones are skipped and compacted once they outnumber live bookings
+    @Test
+    public void test_TombstonesCompact() {
+        BookingList list = new BookingList();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Booking b = new Booking(dataStore.getMovies().get(0), "10:00 AM");
+            list.add(b);
+            ids.add(b.getBookingId());
+        }
+        for (int i = 0; i < 5; i++) {
+            list.removeById(ids.get(i * 2));
+        }
+        Assert.assertEquals(5, list.size());
+        Assert.assertEquals(5, list.getTombstones());
+
+        int seen = 0;
+        for (Booking b : list) {
+            Assert.assertNotNull(b);
+            seen++;
+        }
+        Assert.assertEquals(5, seen);
+
+        list.removeById(ids.get(1)); // Tombstones now outnumber live bookings
+        Assert.assertEquals(0, list.getTombstones());
+        Assert.assertEquals(ids.get(3), list.get(0).getBookingId());
+        Assert.assertSame(list.get(3), list.find(ids.get(9)));
+    }
+
+    // 6. Reading by position and clearing keep the index consistent
+    @Test
+    public void test_ListOperations() {
+        BookingList list = new BookingList(dataStore.getBookings());
+        String secondId = list.get(1).getBookingId();
+        list.removeById(list.get(0).getBookingId());
+        Assert.assertEquals(secondId, list.get(0).getBookingId()); // Position skips the tombstone
+        list.removeIf(b -> b.getMovieTitle().equals("Amélie"));
+        Assert.assertEquals(2, list.size());
+        list.clear();
+        Assert.assertTrue(list.isEmpty());
+        Assert.assertNull(list.find(secondId));
+    }
+
+    // 7. Reading by position skips tombstones without compacting, even while iterating
+    @Test
+    public void test_PositionalReadsKeepTombstones() {
+        BookingList list = new BookingList();
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            Booking b = new Booking(dataStore.getMovies().get(0), "10:00 AM");
+            list.add(b);
+            ids.add(b.getBookingId());
+        }
+        for (int i = 0; i < 40; i += 3) {
+            list.removeById(ids.get(i));
+        }
+        int tombstones = list.getTombstones();
+        Assert.assertEquals(14, tombstones);
+
+        int position = 0;
+        for (Booking b : list) {
+            Assert.assertSame(b, list.get(position++));
+        }
+        Assert.assertEquals(list.size(), position);
+        Assert.assertEquals(tombstones, list.getTombstones());
+
+        Assert.assertEquals(ids.get(1), list.remove(0).getBookingId());
+        Assert.assertEquals(ids.get(2), list.get(0).getBookingId());
+        Assert.assertEquals(ids.get(37), list.get(list.size() - 2).getBookingId());
+        Assert.assertEquals(ids.get(37), list.remove(list.size() - 2).getBookingId());
+        Assert.assertEquals(ids.get(35), list.get(list.size() - 2).getBookingId());
+    }
+
+    // 8. Set, insert and sort work on live positions, as on an ArrayList
+    @Test
+    public void test_SetInsertAndSort() {
+        BookingList list = new BookingList();
+        List<Booking> expected = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Booking b = new Booking(dataStore.getMovies().get(i % 3), "10:00 AM");
+            list.add(b);
+            expected.add(b);
+        }
+        for (int i = 0; i < 4; i++) {
+            list.remove(expected.remove(i)); // Leaves tombstones between live bookings
+        }
+        Assert.assertTrue(list.getTombstones() > 0);
+
+        Booking replacement = new Booking(dataStore.getMovies().get(4), "2:00 PM");
+        Assert.assertSame(expected.set(2, replacement), list.set(2, replacement));
+        Booking inserted = new Booking(dataStore.getMovies().get(5), "2:00 PM");
+        list.add(1, inserted);
+        expected.add(1, inserted);
+        Assert.assertEquals(expected, list);
+        Assert.assertSame(replacement, list.find(replacement.getBookingId()));
+
+        Comparator<Booking> byTitle = Comparator.comparing(Booking::getMovieTitle);
+        list.sort(byTitle);
+        expected.sort(byTitle);
+        Assert.assertEquals(expected, list);
+        for (Booking b : expected) {
+            Assert.assertSame(b, list.find(b.getBookingId()));
+        }
+        Assert.assertThrows(IllegalArgumentException.class, () -> list.set(0, expected.get(1)));
+    }
+}
@@ -0,0 +1,134 @@
+package tests.bookingMoviesTesting;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import src.primaryUseCases.bookingMovies.BookingMovies;
+import src.primaryUseCases.bookingMovies.BookingRecord;
+import src.primaryUseCases.bookingMovies.OffHeapBookingLedger;
+import src.primaryUseCases.checkout.CheckoutMovies;
+import src.dataStore;
+import src.dataStore.Booking;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class testOffHeapBookingLedger {
+
+    @Before
+    public void setUp() {
+        new BookingMovies(new dataStore());
+    }
+
+    // 1. Records read back like the bookings they came from
+    @Test
+    public void test_RoundTrip() {
+        OffHeapBookingLedger ledger = new OffHeapBookingLedger();
+        for (Booking b : dataStore.getBookings()) {
+            ledger.add(b);
+        }
+        Assert.assertEquals(4, ledger.size());
+        for (int i = 0; i < 4; i++) {
+            Booking original = dataStore.getBookings().get(i);
+            BookingRecord record = ledger.get(i);
+            Assert.assertEquals(original.getBookingId(), record.getBookingId());
+            Assert.assertEquals(original.getMovieTitle(), record.getMovieTitle());
+            Assert.assertEquals(original.getSeat(), record.getSeat());
+            Assert.assertEquals(original.getBookingPrice(), record.getBookingPrice(), 0.001);
+        }
+    }
+
+    // 2. New segments are added as the ledger grows
+    @Test
+    public void test_GrowsBySegments() {
+        OffHeapBookingLedger ledger = new OffHeapBookingLedger(3);
+        Booking sample = dataStore.getBookings().get(1);
+        for (int i = 0; i < 10; i++) {
+            ledger.add(sample);
+        }
+        Assert.assertEquals(10, ledger.size());
+        Assert.assertEquals(4L * 3 * OffHeapBookingLedger.RECORD_BYTES, ledger.getOffHeapBytes());
+        Assert.assertEquals("The Godfather", ledger.get(9).getMovieTitle());
+    }
+
+    // 3. Checkout totals read the ledger the same way as the cart
+    @Test
+    public void test_SameReadApiAsCart() {
+        OffHeapBookingLedger ledger = new OffHeapBookingLedger();
+        ledger.addAll(dataStore.getBookings());
+        Assert.assertEquals(CheckoutMovies.calculateTotalPrice(), CheckoutMovies.calculateTotalPrice(ledger), 0.001);
+        Assert.assertEquals(21.0, ledger.getTotalRevenue(), 0.001);
+
+        List<String> titles = new ArrayList<>();
+        ledger.forEach(record -> titles.add(record.getMovieTitle()));
+        Assert.assertEquals(List.of("Inception", "The Godfather", "Amélie", "Bab Alharra"), titles);
+    }
+
+    // 4. File-backed ledger survives being closed and opened again
+    @Test
+    public void test_MappedFileSurvivesRestart() throws IOException {
+        Path file = Files.createTempFile("bookings", ".ledger");
+        Files.delete(file); // Let the ledger create it
+        try {
+            try (OffHeapBookingLedger ledger = OffHeapBookingLedger.open(file, 2)) {
+                Assert.assertTrue(ledger.isFileBacked());
+                ledger.addAll(dataStore.getBookings());
+            }
+            try (OffHeapBookingLedger reopened = OffHeapBookingLedger.open(file)) {
+                Assert.assertEquals(4, reopened.size());
+                Assert.assertEquals(dataStore.getBookings().get(3).getBookingId(), reopened.get(3).getBookingId());
+                Assert.assertEquals("4:00 PM", reopened.get(3).getShowTime());
+                reopened.add(dataStore.getBookings().get(0));
+                Assert.assertEquals(5, reopened.size());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // 5. A file that is not a ledger is refused
+    @Test(expected = IOException.class)
+    public void test_RejectsForeignFile() throws IOException {
+        Path file = Files.createTempFile("not-a", ".ledger");
+        try {
+            Files.write(file, "hello, world".getBytes());
+            OffHeapBookingLedger.open(file).close();
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // 6. Ledger is append only
+    @Test(expected = UnsupportedOperationException.class)
+    public void test_AppendOnly() {
+        OffHeapBookingLedger ledger = new OffHeapBookingLedger();
+        ledger.add(dataStore.getBookings().get(0));
+        ledger.remove(0);
+    }
+
+    // 7. Records keep their showtime when the movie's showtimes change, also after a restart
+    @Test
+    public void test_ShowtimeEdit() throws IOException {
+        Path file = Files.createTempFile("bookings", ".ledger");
+        Files.delete(file);
+        try {
+            Booking sold = dataStore.getBookings().get(3); // Bab Alharra at 4:00 PM
+            try (OffHeapBookingLedger ledger = OffHeapBookingLedger.open(file)) {
+                ledger.add(sold);
+                sold.getMovie().setShowTimes(new String[]{"1:00 PM", "2:00 PM", "4:00 PM"});
+                Assert.assertEquals("4:00 PM", ledger.get(0).getShowTime());
+            }
+            sold.getMovie().setShowTimes(new String[]{"9:00 PM"});
+            try (OffHeapBookingLedger reopened = OffHeapBookingLedger.open(file)) {
+                Assert.assertEquals("4:00 PM", reopened.get(0).getShowTime());
+                Assert.assertEquals("Bab Alharra", reopened.get(0).getMovieTitle());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
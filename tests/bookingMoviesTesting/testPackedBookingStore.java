@@ -0,0 +1,155 @@
+package tests.bookingMoviesTesting;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import src.primaryUseCases.bookingMovies.BookingMovies;
+import src.primaryUseCases.bookingMovies.BookingRecord;
+import src.primaryUseCases.bookingMovies.LocalIdAllocator;
+import src.primaryUseCases.bookingMovies.PackedBookingStore;
+import src.primaryUseCases.bookingMovies.SeatMap;
+import src.primaryUseCases.checkout.CheckoutMovies;
+import src.dataStore;
+import src.dataStore.Booking;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+public class testPackedBookingStore {
+
+    private BookingMovies booking;
+    private PackedBookingStore store;
+
+    @Before
+    public void setUp() {
+        booking = new BookingMovies(new dataStore());
+        store = new PackedBookingStore();
+    }
+
+    // 1. Packed booking reads back the same as the original
+    @Test
+    public void test_RoundTrip() {
+        String bookingId = booking.bookMovie("The Dark Knight", "8:00 PM");
+        Booking original = dataStore.findBooking(bookingId);
+        BookingRecord packed = store.get(store.add(original));
+
+        Assert.assertEquals(original.getBookingId(), packed.getBookingId());
+        Assert.assertSame(original.getMovie(), packed.getMovie());
+        Assert.assertEquals("IMAX", packed.getHallType());
+        Assert.assertEquals("8:00 PM", packed.getShowTime());
+        Assert.assertEquals(original.getSeat(), packed.getSeat());
+        Assert.assertEquals(original.getBookingPrice(), packed.getBookingPrice(), 0.001);
+    }
+
+    // 2. Booking without a seat keeps NO_SEAT
+    @Test
+    public void test_NoSeat() {
+        Booking noSeat = new Booking(dataStore.getMovies().get(2), "5:00 PM");
+        Assert.assertEquals(SeatMap.NO_SEAT, store.get(store.add(noSeat)).getSeat());
+    }
+
+    // 3. Reused view visits every booking, revenue comes from packed cents
+    @Test
+    public void test_ForEachAndRevenue() {
+        for (Booking b : dataStore.getBookings()) {
+            store.add(b);
+        }
+        List<String> ids = new ArrayList<>();
+        store.forEach(record -> ids.add(record.getBookingId()));
+        Assert.assertEquals(4, ids.size());
+        Assert.assertEquals(dataStore.getBookings().get(3).getBookingId(), ids.get(3));
+        Assert.assertEquals(21.0, store.getTotalRevenue(), 0.001);
+    }
+
+    // 4. Footprint is a long and an int per booking
+    @Test
+    public void test_BytesPerBooking() {
+        Booking sample = dataStore.getBookings().get(0);
+        for (int i = 0; i < 4096; i++) {
+            store.add(sample);
+        }
+        Assert.assertEquals(4096, store.getBookingCount());
+        Assert.assertTrue(store.getBytesPerBooking() < 13);
+    }
+
+    // 5. Showtime that is not a time cannot be packed, so that booking is kept unpacked
+    @Test
+    public void test_InvalidShowtime() {
+        List<Booking> batch = new ArrayList<>(dataStore.getBookings());
+        batch.add(new Booking(dataStore.getMovies().get(0), "soon"));
+        store.addAll(batch);
+        Assert.assertEquals(5, store.getBookingCount());
+        Assert.assertEquals(1, store.getUnpackedCount());
+        BookingRecord soon = store.get(4);
+        Assert.assertEquals("soon", soon.getShowTime());
+        Assert.assertEquals(batch.get(4).getBookingId(), soon.getBookingId());
+        Assert.assertEquals(21.0 + batch.get(4).getBookingPrice(), store.getTotalRevenue(), 0.001);
+
+        List<String> ids = new ArrayList<>();
+        store.forEach(record -> ids.add(record.getBookingId()));
+        Assert.assertEquals(batch.get(4).getBookingId(), ids.get(4));
+    }
+
+    // 6. Booking IDs beyond int range are still recorded, and checkout does not fail on them
+    @Test
+    public void test_IdBeyondIntRange() {
+        Booking.setIdAllocator(new LocalIdAllocator(Integer.MAX_VALUE + 1L));
+        try {
+            String bookingId = booking.bookMovie("Inception", "10:00 AM");
+            InputStream originalIn = System.in;
+            try {
+                System.setIn(new ByteArrayInputStream("1\n\n".getBytes()));
+                Assert.assertTrue(new CheckoutMovies().processPayment());
+            } finally {
+                System.setIn(originalIn);
+            }
+            PackedBookingStore sales = dataStore.getSalesHistory();
+            Assert.assertEquals(5, sales.getBookingCount());
+            Assert.assertEquals(1, sales.getUnpackedCount());
+            Assert.assertEquals(bookingId, sales.get(4).getBookingId());
+        } finally {
+            Booking.setIdAllocator(new LocalIdAllocator(100_000)); // Keep later tests clear of used IDs
+        }
+    }
+
+    // 7. Paid bookings go into the sales history
+    @Test
+    public void test_SalesHistory() {
+        InputStream originalIn = System.in;
+        try {
+            // Saved payment method, then ENTER at the confirmation
+            System.setIn(new ByteArrayInputStream("1\n\n".getBytes()));
+            Assert.assertTrue(new CheckoutMovies().processPayment());
+        } finally {
+            System.setIn(originalIn);
+        }
+        Assert.assertTrue(dataStore.getBookings().isEmpty());
+        Assert.assertEquals(4, dataStore.getSalesHistory().getBookingCount());
+        Assert.assertEquals(21.0, dataStore.getSalesHistory().getTotalRevenue(), 0.001);
+    }
+
+    // 8. Sold bookings keep their showtime when the movie's showtimes are edited
+    @Test
+    public void test_ShowtimeEdit() {
+        Booking sold = dataStore.getBookings().get(0); // Inception at 1:00 PM
+        int position = store.add(sold);
+        sold.getMovie().setShowTimes(new String[]{"8:00 AM", "9:00 AM", "10:00 AM", "11:00 AM", "12:00 PM", "2:00 PM"});
+        Assert.assertEquals("1:00 PM", store.get(position).getShowTime());
+        Assert.assertEquals("12:00 PM", store.get(store.add(new Booking(sold.getMovie(), "12:00 PM"))).getShowTime());
+    }
+
+    // 9. Replacing the catalog keeps the sales history
+    @Test
+    public void test_CatalogReset() {
+        Booking sold = dataStore.getBookings().get(1);
+        store.add(sold);
+        dataStore.setMovies(new ArrayList<>());
+        store.add(dataStore.getBookings().get(2));
+        Assert.assertEquals(2, store.getBookingCount());
+        Assert.assertSame(sold.getMovie(), store.get(0).getMovie());
+        Assert.assertEquals("11:00 AM", store.get(0).getShowTime());
+    }
+}
@@ -0,0 +1,192 @@
+package tests.bookingMoviesTesting;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import src.primaryUseCases.bookingMovies.BookingMovies;
+import src.primaryUseCases.bookingMovies.SeatHolds;
+import src.primaryUseCases.bookingMovies.SeatMap;
+import src.primaryUseCases.checkout.CheckoutMovies;
+import src.dataStore;
+import src.dataStore.Movie;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class testSeatHolds {
+
+    private static final long TTL = 10_000;
+
+    private AtomicLong now;
+    private SeatHolds holds;
+    private SeatMap seats;
+
+    @Before
+    public void setUp() {
+        // Wheel of 8 one-second buckets, so a 10 second hold wraps around it
+        now = new AtomicLong(1_000_000);
+        holds = new SeatHolds(TTL, 1000, 8, now::get);
+        seats = new SeatMap(2, 10);
+    }
+
+    private void hold(String bookingId, int seat) {
+        Assert.assertTrue(seats.claim(seat));
+        holds.hold(bookingId, seats, seat);
+    }
+
+    // 1. Hold is kept until its time runs out
+    @Test
+    public void test_HoldExpiresAfterTtl() {
+        hold("B1", 3);
+        now.addAndGet(TTL - 1);
+        Assert.assertEquals(0, holds.expireDue());
+        Assert.assertTrue(seats.isTaken(3));
+
+        now.addAndGet(1);
+        Assert.assertEquals(1, holds.expireDue());
+        Assert.assertFalse(seats.isTaken(3));
+        Assert.assertEquals(1, holds.getExpiredCount());
+        Assert.assertEquals(0, holds.getActiveCount());
+    }
+
+    // 2. Confirmed hold keeps its seat
+    @Test
+    public void test_ConfirmKeepsSeat() {
+        hold("B1", 0);
+        now.addAndGet(TTL / 2);
+        Assert.assertTrue(holds.confirm("B1"));
+        now.addAndGet(TTL * 5);
+        Assert.assertEquals(0, holds.expireDue());
+        Assert.assertTrue(seats.isTaken(0));
+        Assert.assertFalse(holds.confirm("B1"));
+        Assert.assertEquals(1, holds.getConfirmedCount());
+    }
+
+    // 3. Expired hold cannot be confirmed
+    @Test
+    public void test_ConfirmAfterExpiry() {
+        hold("B1", 0);
+        now.addAndGet(TTL);
+        Assert.assertFalse(holds.confirm("B1"));
+        Assert.assertFalse(seats.isTaken(0));
+    }
+
+    // 4. Holds placed at different times expire in order
+    @Test
+    public void test_StaggeredHolds() {
+        hold("B1", 0);
+        now.addAndGet(3000);
+        hold("B2", 1);
+        now.addAndGet(TTL - 3000);
+        Assert.assertEquals(1, holds.expireDue());
+        Assert.assertFalse(holds.isHeld("B1"));
+        Assert.assertTrue(holds.isHeld("B2"));
+        now.addAndGet(3000);
+        Assert.assertEquals(1, holds.expireDue());
+        Assert.assertEquals(20, seats.getAvailable());
+    }
+
+    // 5. Clock jumping past a whole turn of the wheel expires everything due
+    @Test
+    public void test_LongPause() {
+        for (int i = 0; i < 20; i++) {
+            hold("B" + i, i);
+            now.addAndGet(100);
+        }
+        now.addAndGet(TTL * 10);
+        Assert.assertEquals(20, holds.expireDue());
+        Assert.assertEquals(20, seats.getAvailable());
+    }
+
+    // 6. Cancelled hold gives its seat back at once
+    @Test
+    public void test_Cancel() {
+        hold("B1", 5);
+        Assert.assertTrue(holds.cancel("B1"));
+        Assert.assertFalse(seats.isTaken(5));
+        now.addAndGet(TTL);
+        Assert.assertEquals(0, holds.expireDue());
+        Assert.assertEquals(1, holds.getCancelledCount());
+    }
+
+    // 7. Expired booking leaves the cart and frees its seat
+    @Test
+    public void test_BookingExpiresFromCart() {
+        BookingMovies booking = new BookingMovies(new dataStore());
+        dataStore.setSeatHolds(holds);
+        Movie inception = dataStore.getMovies().get(0);
+
+        String bookingId = booking.bookMovie("Inception", "10:00 AM");
+        Assert.assertEquals(5, dataStore.getBookings().size());
+        Assert.assertEquals(499, dataStore.getSeatInventory().getAvailable(inception, 10 * 60));
+
+        now.addAndGet(TTL);
+        holds.expireDue();
+        Assert.assertEquals(4, dataStore.getBookings().size());
+        Assert.assertTrue(dataStore.getBookings().stream().noneMatch(b -> b.getBookingId().equals(bookingId)));
+        Assert.assertEquals(500, dataStore.getSeatInventory().getAvailable(inception, 10 * 60));
+    }
+
+    // 8. Wheel size must be a power of two
+    @Test(expected = IllegalArgumentException.class)
+    public void test_InvalidWheelSize() {
+        new SeatHolds(TTL, 1000, 6, now::get);
+    }
+
+    // 9. A new booking first takes back seats from holds that ran out
+    @Test
+    public void test_BookingReclaimsExpiredHolds() {
+        BookingMovies booking = new BookingMovies(new dataStore());
+        dataStore.setSeatHolds(holds);
+        SeatMap screening = dataStore.getSeatInventory().screening(dataStore.getMovies().get(0), 10 * 60);
+        while (screening.claimAny() != SeatMap.NO_SEAT) {
+            // Fill the hall
+        }
+        screening.release(0);
+
+        Assert.assertFalse(booking.bookMovie("Inception", "10:00 AM").isEmpty());
+        Assert.assertTrue(screening.isSoldOut());
+        now.addAndGet(TTL);
+        Assert.assertFalse(booking.bookMovie("Inception", "10:00 AM").isEmpty());
+        Assert.assertEquals(1, holds.getExpiredCount());
+        Assert.assertEquals(0, screening.getWaitlist().size());
+    }
+
+    // 10. Renewing a hold gives it its full time to live again
+    @Test
+    public void test_RenewExtendsHold() {
+        hold("B1", 0);
+        now.addAndGet(TTL - 1000);
+        Assert.assertTrue(holds.renew("B1"));
+        now.addAndGet(TTL - 1000);
+        Assert.assertEquals(0, holds.expireDue());
+        Assert.assertTrue(holds.isHeld("B1"));
+        now.addAndGet(1000);
+        Assert.assertEquals(1, holds.expireDue());
+        Assert.assertFalse(holds.renew("B1"));
+    }
+
+    // 11. A hold that runs out during payment stops the payment instead of dropping the booking
+    @Test
+    public void test_ExpiryDuringPaymentIsNotCharged() {
+        BookingMovies booking = new BookingMovies(new dataStore());
+        dataStore.setSeatHolds(holds);
+        booking.bookMovie("Inception", "10:00 AM");
+        double approved = CheckoutMovies.calculateTotalPrice();
+
+        now.addAndGet(TTL); // The customer took too long at the payment prompts
+        InputStream originalIn = System.in;
+        try {
+            System.setIn(new ByteArrayInputStream("1\n\n".getBytes()));
+            Assert.assertFalse(new CheckoutMovies().processPayment());
+        } finally {
+            System.setIn(originalIn);
+        }
+        Assert.assertEquals(0, dataStore.getSalesHistory().getBookingCount());
+        Assert.assertEquals(0, dataStore.getSalesProjection().getTicketsSold());
+        Assert.assertEquals(4, dataStore.getBookings().size());
+        Assert.assertTrue(CheckoutMovies.calculateTotalPrice() < approved);
+    }
+}
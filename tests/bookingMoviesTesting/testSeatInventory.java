@@ -0,0 +1,189 @@
+package tests.bookingMoviesTesting;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import src.primaryUseCases.bookingMovies.BookingMovies;
+import src.primaryUseCases.bookingMovies.SeatAllocator;
+import src.primaryUseCases.bookingMovies.SeatMap;
+import src.dataStore;
+import src.dataStore.Movie;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+public class testSeatInventory {
+
+    private BookingMovies booking;
+
+    @Before
+    public void setUp() {
+        // Rebuild sample data and an empty seat inventory
+        booking = new BookingMovies(new dataStore());
+    }
+
+    // 1. Layout comes from the hall type
+    @Test
+    public void test_LayoutFromHallType() {
+        Movie inception = dataStore.getMovies().get(0); // IMAX
+        SeatMap seats = dataStore.getSeatInventory().screening(inception, 10 * 60);
+        Assert.assertEquals(500, seats.getCapacity());
+        Assert.assertEquals(500, seats.getAvailable());
+    }
+
+    // 2. Unknown screening has no seat map
+    @Test
+    public void test_UnknownScreening() {
+        Movie inception = dataStore.getMovies().get(0);
+        Assert.assertNull(dataStore.getSeatInventory().screening(inception, 11 * 60));
+    }
+
+    // 3. Booking takes one seat
+    @Test
+    public void test_BookingClaimsSeat() {
+        Movie inception = dataStore.getMovies().get(0);
+        booking.bookMovie("Inception", "10:00 AM");
+        Assert.assertEquals(499, dataStore.getSeatInventory().getAvailable(inception, 10 * 60));
+    }
+
+    // 4. Sample bookings already hold their seats
+    @Test
+    public void test_SampleBookingsHoldSeats() {
+        Movie inception = dataStore.getMovies().get(0);
+        Assert.assertEquals(499, dataStore.getSeatInventory().getAvailable(inception, 13 * 60));
+        Assert.assertEquals("A1", dataStore.getBookings().get(0).getSeatLabel());
+    }
+
+    // 5. Sold out screening refuses bookings
+    @Test
+    public void test_SoldOut() {
+        Movie bab = dataStore.getMovies().get(3); // VIP, 48 seats
+        SeatMap seats = dataStore.getSeatInventory().screening(bab, 18 * 60);
+        while (seats.claimAny() != SeatMap.NO_SEAT) {
+            // Fill the hall
+        }
+        Assert.assertTrue(seats.isSoldOut());
+        Assert.assertEquals("", booking.bookMovie("Bab Alharra", "6:00 PM"));
+    }
+
+    // 6. Released seat can be claimed again
+    @Test
+    public void test_ReleaseSeat() {
+        SeatMap seats = new SeatMap(2, 40);
+        for (int i = 0; i < 80; i++) {
+            Assert.assertEquals(i, seats.claimAny());
+        }
+        Assert.assertTrue(seats.release(70));
+        Assert.assertFalse(seats.release(70));
+        Assert.assertEquals(1, seats.getAvailable());
+        Assert.assertEquals(70, seats.claimAny());
+        Assert.assertEquals(SeatMap.NO_SEAT, seats.claimAny());
+    }
+
+    // 7. Seat labels
+    @Test
+    public void test_SeatLabels() {
+        SeatMap seats = new SeatMap(20, 25);
+        Assert.assertEquals("A1", seats.seatLabel(0));
+        Assert.assertEquals("B3", seats.seatLabel(27));
+        Assert.assertEquals("T25", seats.seatLabel(499));
+    }
+
+    // 8. Concurrent claims never sell a seat twice
+    @Test
+    public void test_ConcurrentClaims() throws InterruptedException {
+        SeatMap seats = new SeatMap(20, 25);
+        ConcurrentLinkedQueue<Integer> claimed = new ConcurrentLinkedQueue<>();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 100; i++) {
+                    int seat = seats.claimAny();
+                    if (seat != SeatMap.NO_SEAT) claimed.add(seat);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        Set<Integer> unique = new HashSet<>(claimed);
+        Assert.assertEquals(500, claimed.size());
+        Assert.assertEquals(500, unique.size());
+        Assert.assertTrue(seats.isSoldOut());
+    }
+
+    // 9. Group gets a central block behind the middle row
+    @Test
+    public void test_GroupGetsCentralBlock() {
+        SeatMap seats = new SeatMap(10, 12);
+        int[] claimed = new SeatAllocator().allocate(seats, 4);
+        Assert.assertArrayEquals(new int[] { 64, 65, 66, 67 }, claimed); // F5 to F8
+        Assert.assertEquals(116, seats.getAvailable());
+    }
+
+    // 10. Fragmented hall splits the group into the largest blocks left
+    @Test
+    public void test_FragmentedHallSplitsGroup() {
+        SeatMap seats = new SeatMap(2, 4);
+        seats.claim(1);
+        seats.claim(2);
+        seats.claim(5);
+        seats.claim(6);
+        // Free runs: {0}, {3}, {4}, {7}
+        int[] claimed = new SeatAllocator().allocate(seats, 3);
+        Assert.assertEquals(3, claimed.length);
+        Assert.assertEquals(1, seats.getAvailable());
+    }
+
+    // 11. Not enough seats leaves the hall untouched
+    @Test
+    public void test_GroupTooLarge() {
+        SeatMap seats = new SeatMap(1, 5);
+        seats.claim(0);
+        Assert.assertEquals(0, new SeatAllocator().allocate(seats, 5).length);
+        Assert.assertEquals(4, seats.getAvailable());
+    }
+
+    // 12. Rows wider than 64 seats still find blocks
+    @Test
+    public void test_WideRows() {
+        SeatMap seats = new SeatMap(1, 100);
+        for (int i = 0; i < 100; i++) {
+            if (i != 10 && i != 11 && i != 12) seats.claim(i);
+        }
+        Assert.assertEquals(10, new SeatAllocator().findBestBlock(seats, 3));
+        Assert.assertEquals(SeatMap.NO_SEAT, new SeatAllocator().findBestBlock(seats, 4));
+    }
+
+    // 13. Group booking creates one booking per seat
+    @Test
+    public void test_BookSeatsForGroup() {
+        List<String> ids = booking.bookSeats("Inception", "10:00 AM", 3);
+        Assert.assertEquals(3, ids.size());
+        Assert.assertEquals(497, dataStore.getSeatInventory().getAvailable(dataStore.getMovies().get(0), 10 * 60));
+        Assert.assertTrue(booking.bookSeats("Inception", "11:00 AM", 2).isEmpty());
+    }
+
+    // 14. Editing the showtimes keeps every screening's sold seats in place
+    @Test
+    public void test_ShowtimeEditKeepsSeats() {
+        Movie inception = dataStore.getMovies().get(0);
+        booking.bookMovie("Inception", "10:00 AM");
+        inception.setShowTimes(new String[]{"8:00 AM", "10:00 AM", "1:00 PM", "4:00 PM", "7:00 PM", "10:00 PM"});
+        Assert.assertEquals(500, dataStore.getSeatInventory().getAvailable(inception, 8 * 60));
+        Assert.assertEquals(499, dataStore.getSeatInventory().getAvailable(inception, 10 * 60));
+        Assert.assertEquals(499, dataStore.getSeatInventory().getAvailable(inception, 13 * 60)); // Sample booking
+        Assert.assertEquals(500, dataStore.getSeatInventory().getAvailable(inception, 22 * 60));
+
+        inception.setShowTimes(new String[]{"1:00 PM"});
+        Assert.assertNull(dataStore.getSeatInventory().screening(inception, 10 * 60));
+        Assert.assertEquals(499, dataStore.getSeatInventory().getAvailable(inception, 13 * 60));
+    }
+}
@@ -0,0 +1,156 @@
+package tests.bookingMoviesTesting;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import src.primaryUseCases.bookingMovies.BookingMovies;
+import src.primaryUseCases.bookingMovies.SeatHolds;
+import src.primaryUseCases.bookingMovies.SeatMap;
+import src.primaryUseCases.bookingMovies.Waitlist;
+import src.dataStore;
+import src.dataStore.Movie;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Scanner;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class testWaitlist {
+
+    private BookingMovies booking;
+
+    @Before
+    public void setUp() {
+        booking = new BookingMovies(new dataStore());
+    }
+
+    private SeatMap soldOut(Movie movie, int minute) {
+        SeatMap seats = dataStore.getSeatInventory().screening(movie, minute);
+        while (seats.claimAny() != SeatMap.NO_SEAT) {
+            // Fill the hall
+        }
+        return seats;
+    }
+
+    // 1. Positions follow the order customers joined
+    @Test
+    public void test_PositionsAndSize() {
+        Waitlist waitlist = new Waitlist(3);
+        long first = waitlist.join(seat -> { });
+        long second = waitlist.join(seat -> { });
+        Assert.assertEquals(2, waitlist.size());
+        Assert.assertEquals(1, waitlist.position(first));
+        Assert.assertEquals(2, waitlist.position(second));
+    }
+
+    // 2. Full waitlist turns customers away
+    @Test
+    public void test_Bounded() {
+        Waitlist waitlist = new Waitlist(2);
+        waitlist.join(seat -> { });
+        waitlist.join(seat -> { });
+        Assert.assertTrue(waitlist.isFull());
+        Assert.assertEquals(Waitlist.NOT_WAITING, waitlist.join(seat -> { }));
+    }
+
+    // 3. Released seat goes to the head of the queue, in order
+    @Test
+    public void test_ReleasedSeatGoesToHead() {
+        SeatMap seats = new SeatMap(1, 4);
+        for (int i = 0; i < 4; i++) seats.claim(i);
+        List<String> served = new ArrayList<>();
+        long first = seats.getWaitlist().join(seat -> served.add("first:" + seat));
+        long second = seats.getWaitlist().join(seat -> served.add("second:" + seat));
+
+        Assert.assertTrue(seats.release(2));
+        Assert.assertEquals(List.of("first:2"), served);
+        Assert.assertTrue(seats.isTaken(2)); // Handed over, never free
+        Assert.assertEquals(0, seats.getWaitlist().position(first));
+        Assert.assertEquals(1, seats.getWaitlist().position(second));
+
+        seats.release(0);
+        seats.release(1);
+        Assert.assertEquals(List.of("first:2", "second:0"), served);
+        Assert.assertFalse(seats.isTaken(1));
+        Assert.assertEquals(1, seats.getAvailable());
+    }
+
+    // 4. Ring buffer wraps around
+    @Test
+    public void test_RingWraps() {
+        SeatMap seats = new SeatMap(1, 2);
+        seats.claim(0);
+        seats.claim(1);
+        int[] servedCount = new int[1];
+        for (int round = 0; round < 5; round++) {
+            long ticket = seats.getWaitlist().join(seat -> servedCount[0]++);
+            Assert.assertEquals(1, seats.getWaitlist().position(ticket));
+            seats.release(round % 2);
+        }
+        Assert.assertEquals(5, servedCount[0]);
+        Assert.assertTrue(seats.getWaitlist().isEmpty());
+    }
+
+    // 5. Waitlisted customer of a sold out screening gets the next expired seat
+    @Test
+    public void test_ExpiredHoldServesWaitlist() {
+        AtomicLong now = new AtomicLong();
+        SeatHolds holds = new SeatHolds(1000, 100, 16, now::get);
+        dataStore.setSeatHolds(holds);
+        Movie bab = dataStore.getMovies().get(3);
+        SeatMap seats = dataStore.getSeatInventory().screening(bab, 18 * 60);
+        for (int i = 0; i < seats.getCapacity() - 1; i++) seats.claimAny();
+
+        String heldId = booking.bookMovie("Bab Alharra", "6:00 PM"); // Last seat, held
+        Assert.assertFalse(heldId.isEmpty());
+        Assert.assertEquals("", booking.bookMovie("Bab Alharra", "6:00 PM"));
+        Assert.assertEquals(0, seats.getWaitlist().size()); // Only joined when the customer asks
+        Assert.assertNotEquals(Waitlist.NOT_WAITING, booking.joinWaitlist(bab, "6:00 PM", seats));
+        Assert.assertEquals(1, seats.getWaitlist().size());
+
+        now.addAndGet(1000);
+        Assert.assertEquals(1, holds.expireDue());
+        Assert.assertEquals(0, seats.getWaitlist().size());
+        Assert.assertTrue(seats.isSoldOut());
+
+        // The expired booking left the cart and the waitlisted one took its place, held again
+        Assert.assertEquals(5, dataStore.getBookings().size());
+        String servedId = dataStore.getBookings().get(4).getBookingId();
+        Assert.assertNotEquals(heldId, servedId);
+        Assert.assertTrue(holds.isHeld(servedId));
+    }
+
+    // 6. Waitlist of a sold out screening fills up to one hall's worth
+    @Test
+    public void test_WaitlistFullMessage() {
+        Movie bab = dataStore.getMovies().get(3); // VIP, 48 seats
+        SeatMap seats = soldOut(bab, 21 * 60);
+        for (int i = 0; i < 48; i++) {
+            Assert.assertNotEquals(Waitlist.NOT_WAITING, seats.getWaitlist().join(seat -> { })); // Other customers
+        }
+        Assert.assertEquals(Waitlist.NOT_WAITING, booking.joinWaitlist(bab, "9:00 PM", seats));
+    }
+
+    // 7. The customer is asked before joining, and retrying does not add a second place
+    @Test
+    public void test_RetryDoesNotJoinTwice() {
+        BookingMovies prompted = new BookingMovies(new dataStore(),
+                new Scanner("Bab Alharra\n9:00 PM\nno\nBab Alharra\n9:00 PM\nyes\nBab Alharra\n9:00 PM\nyes\n"));
+        Movie bab = dataStore.getMovies().get(3);
+        SeatMap seats = soldOut(bab, 21 * 60);
+
+        prompted.bookMoviePrompt();
+        Assert.assertEquals(0, seats.getWaitlist().size());
+        prompted.bookMoviePrompt();
+        Assert.assertEquals(1, seats.getWaitlist().size());
+        prompted.bookMoviePrompt();
+        Assert.assertEquals(1, seats.getWaitlist().size());
+        Assert.assertEquals(Waitlist.NOT_WAITING, prompted.joinWaitlist(bab, "9:00 PM", seats));
+
+        // Once served, the cart may wait for another seat
+        seats.release(0);
+        Assert.assertEquals(0, seats.getWaitlist().size());
+        Assert.assertNotEquals(Waitlist.NOT_WAITING, prompted.joinWaitlist(bab, "9:00 PM", seats));
+    }
+}
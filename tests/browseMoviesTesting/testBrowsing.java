@@ -4,7 +4,9 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 import src.primaryUseCases.browseMovies.BrowseMovies;
+import src.primaryUseCases.browseMovies.ShowtimeIndex;
 import src.dataStore;
+import src.helpers.collation;
 import src.dataStore.Movie;
 
 import java.io.ByteArrayInputStream;
@@ -101,6 +103,23 @@ public class testBrowsing {
                 results.stream().anyMatch(m -> m.getTitle().equals("Amélie")));
     }
 
+    // Accents and case are folded on both sides
+    @Test
+    public void test_SearchMoviesByTitleWithoutAccents() {
+        List<Movie> results = browseMovies.searchMoviesByTitle("amelie");
+        Assert.assertEquals(1, results.size());
+        Assert.assertEquals("Amélie", results.get(0).getTitle());
+        Assert.assertEquals(results, browseMovies.searchMoviesByTitle("AMÉLIE"));
+    }
+
+    @Test
+    public void test_CollationKeys() {
+        Assert.assertEquals("amelie", collation.key("  Ame\u0301lie "));
+        Assert.assertEquals("strasse", collation.key("Straße"));
+        Assert.assertEquals("bab alharra", collation.key("Bab\tAlharra"));
+        Assert.assertEquals("", collation.key(null));
+    }
+
     // Search by language
     @Test
     public void test_SearchMoviesByExistingLanguage() {
@@ -131,6 +150,16 @@ public class testBrowsing {
                         results.stream().allMatch(m -> m.getLanguage().equals("Arabic")));
     }
 
+    @Test
+    public void test_SearchMoviesByAccentedLanguage() {
+        List<Movie> results = browseMovies.searchMoviesByLanguage("Françáis");
+        Assert.assertTrue(results.isEmpty());
+        results = browseMovies.searchMoviesByLanguage("FRÉNCH");
+        Assert.assertEquals(1, results.size());
+        Assert.assertEquals("Amélie", results.get(0).getTitle());
+        Assert.assertTrue(browseMovies.searchMoviesByLanguage("العربية").isEmpty());
+    }
+
     @Test
     public void test_SearchMoviesByLanguageWithNumbers() {
         Assert.assertThrows(IllegalArgumentException.class, () -> {
@@ -219,6 +248,183 @@ public class testBrowsing {
         });
     }
 
+    // Search by showtime window
+    @Test
+    public void test_SearchMoviesByShowtimeWindow() {
+        List<Movie> results = browseMovies.searchMoviesByShowtime("18:00", "21:00");
+        Assert.assertTrue("Evening window should include The Godfather",
+                results.stream().anyMatch(m -> m.getTitle().equals("The Godfather")));
+        Assert.assertTrue("Evening window should not include a late-night only movie",
+                results.stream().noneMatch(m -> m.getTitle().equals("The Worst Film Ever")));
+    }
+
+    @Test
+    public void test_SearchMoviesByShowtimeWindowAcrossMidnight() {
+        List<Movie> results = browseMovies.searchMoviesByShowtime("10:30 PM", "0:30");
+        Assert.assertEquals("Only the 11:00 PM screening starts in this window", 1, results.size());
+        Assert.assertEquals("The Worst Film Ever", results.get(0).getTitle());
+    }
+
+    @Test
+    public void test_SearchMoviesByInvalidShowtime() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            browseMovies.searchMoviesByShowtime("25:00", "26:00");
+        });
+    }
+
+    @Test
+    public void test_SearchMoviesByShowtimeListsEachMovieOnce() {
+        int before = browseMovies.searchMoviesByShowtime("0:00", "23:59").size();
+        for (int i = 0; i < 20; i++) {
+            dataStore.getMovies().add(new Movie("Rerun " + i, new String[]{"Unknown Actor"},
+                    "Shown twice a night.", 12, 6.0, "English", 90,
+                    new String[]{"8:00 PM", "9:00 PM"}, "Standard"));
+        }
+        Assert.assertEquals(before + 20, browseMovies.searchMoviesByShowtime("0:00", "23:59").size());
+        // Repeated searches must not see each other's movies as already listed
+        Assert.assertEquals(20, browseMovies.searchMoviesByShowtime("8:00 PM", "9:00 PM").stream()
+                .filter(m -> m.getTitle().startsWith("Rerun ")).count());
+        Assert.assertEquals(20, browseMovies.searchMoviesByShowtime("8:00 PM", "9:00 PM").stream()
+                .filter(m -> m.getTitle().startsWith("Rerun ")).count());
+    }
+
+    // Search screenings by showtime window and age
+    @Test
+    public void test_SearchScreeningsForAge() {
+        List<ShowtimeIndex.Screening> results = browseMovies.searchScreeningsForAge("8:00 PM", "23:59", "13");
+        Assert.assertEquals(4, results.size());
+        Assert.assertEquals("Amélie", results.get(0).getMovie().getTitle());
+        Assert.assertEquals("The Dark Knight", results.get(1).getMovie().getTitle());
+        Assert.assertEquals("Perfect Score", results.get(2).getMovie().getTitle());
+        Assert.assertEquals("Inception", results.get(3).getMovie().getTitle());
+        Assert.assertTrue("A 13-year-old cannot watch 18+ movies",
+                results.stream().allMatch(s -> s.getMovie().getAgeRestriction() <= 13));
+    }
+
+    @Test
+    public void test_SearchScreeningsForAgeAcrossMidnight() {
+        Assert.assertTrue(browseMovies.searchScreeningsForAge("10:30 PM", "0:30", "17").isEmpty());
+        List<ShowtimeIndex.Screening> results = browseMovies.searchScreeningsForAge("10:30 PM", "0:30", "18");
+        Assert.assertEquals(1, results.size());
+        Assert.assertEquals(23 * 60, results.get(0).getStartMinute());
+    }
+
+    @Test
+    public void test_SearchScreeningsFollowsAgeChange() {
+        dataStore.getMovies().get(6).setAgeRestriction(12);
+        Assert.assertEquals(1, browseMovies.searchScreeningsForAge("23:00", "23:00", "12").size());
+    }
+
+    @Test
+    public void test_SearchScreeningsForInvalidAge() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> {
+            browseMovies.searchScreeningsForAge("18:00", "21:00", "teen");
+        });
+    }
+
+    // Search by actor
+    @Test
+    public void test_SearchMoviesByActorFullName() {
+        List<Movie> results = browseMovies.searchMoviesByActor("Al Pacino");
+        Assert.assertEquals("Exact full name should rank first", "The Godfather", results.get(0).getTitle());
+    }
+
+    @Test
+    public void test_SearchMoviesByActorPrefix() {
+        List<Movie> results = browseMovies.searchMoviesByActor("leo dicap");
+        Assert.assertTrue("Prefix of first and last name should find Inception",
+                results.stream().anyMatch(m -> m.getTitle().equals("Inception")));
+    }
+
+    @Test
+    public void test_SearchMoviesByActorRanking() {
+        // "Joseph Gordon-Levitt" matches on both words, "John Doe" only on the prefix "jo"
+        List<Movie> results = browseMovies.searchMoviesByActor("jo gordon");
+        Assert.assertEquals("Inception", results.get(0).getTitle());
+        Assert.assertTrue(results.stream().anyMatch(m -> m.getTitle().equals("Perfect Score")));
+    }
+
+    @Test
+    public void test_SearchMoviesByEmptyActor() {
+        List<Movie> results = browseMovies.searchMoviesByActor("   ");
+        Assert.assertTrue(results.isEmpty());
+    }
+
+    // Search by keywords
+    @Test
+    public void test_SearchMoviesByKeywordInSummary() {
+        List<Movie> results = browseMovies.searchMoviesByKeyword("mafia");
+        Assert.assertEquals(1, results.size());
+        Assert.assertEquals("The Godfather", results.get(0).getTitle());
+    }
+
+    @Test
+    public void test_SearchMoviesByKeywordRanking() {
+        // "dark" is in the title of The Dark Knight, "dreams" only in the summary of Inception
+        List<Movie> results = browseMovies.searchMoviesByKeyword("Dreams of the DARK knight");
+        Assert.assertEquals("The Dark Knight", results.get(0).getTitle());
+        Assert.assertTrue(results.stream().anyMatch(m -> m.getTitle().equals("Inception")));
+    }
+
+    @Test
+    public void test_SearchMoviesByKeywordStopWordsOnly() {
+        List<Movie> results = browseMovies.searchMoviesByKeyword("the of a");
+        Assert.assertTrue(results.isEmpty());
+    }
+
+    @Test
+    public void test_SearchMoviesByKeywordAfterMovieAdded() {
+        browseMovies.searchMoviesByKeyword("heist");
+        dataStore.getMovies().add(new Movie("Heat", new String[]{"Al Pacino", "Robert De Niro"},
+                "A crew of thieves plans one last heist.", 16, 8.3, "English", 170,
+                new String[]{"9:00 PM"}, "Standard"));
+        List<Movie> results = browseMovies.searchMoviesByKeyword("heist");
+        Assert.assertEquals("Heat", results.get(0).getTitle());
+    }
+
+    // Title autocomplete
+    @Test
+    public void test_AutocompleteTitleWithoutAccents() {
+        List<Movie> results = browseMovies.autocompleteTitle("ame");
+        Assert.assertEquals("Amélie", results.get(0).getTitle());
+    }
+
+    @Test
+    public void test_AutocompleteTitlePrefix() {
+        List<Movie> results = browseMovies.autocompleteTitle("The ");
+        Assert.assertEquals(3, results.size());
+        Assert.assertTrue(results.stream().allMatch(m -> m.getTitle().startsWith("The ")));
+    }
+
+    @Test
+    public void test_AutocompleteTitleRanksByTicketsSold() {
+        // Without sales the higher rated title comes first
+        Assert.assertEquals("The Godfather", browseMovies.autocompleteTitle("the").get(0).getTitle());
+
+        dataStore.getSalesHistory().add(new dataStore.Booking(dataStore.getMovies().get(4), "2:00 PM"));
+        dataStore.getSalesHistory().add(new dataStore.Booking(dataStore.getMovies().get(4), "5:00 PM"));
+        Assert.assertEquals("The Dark Knight", browseMovies.autocompleteTitle("the").get(0).getTitle());
+    }
+
+    @Test
+    public void test_AutocompleteTitleIgnoresUnpaidBookings() {
+        // Bookings in the cart are not sold yet, so cancelling one must not change the ranking
+        dataStore.getSalesHistory().add(new dataStore.Booking(dataStore.getMovies().get(4), "2:00 PM"));
+        dataStore.getBookings().add(new dataStore.Booking(dataStore.getMovies().get(1), "12:00 PM"));
+        dataStore.getBookings().add(new dataStore.Booking(dataStore.getMovies().get(1), "3:00 PM"));
+        Assert.assertEquals("The Dark Knight", browseMovies.autocompleteTitle("the").get(0).getTitle());
+
+        dataStore.getBookings().remove(0);
+        dataStore.getBookings().add(new dataStore.Booking(dataStore.getMovies().get(4), "5:00 PM"));
+        Assert.assertEquals("The Dark Knight", browseMovies.autocompleteTitle("the").get(0).getTitle());
+        Assert.assertEquals("The Godfather", browseMovies.autocompleteTitle("the").get(1).getTitle());
+    }
+
+    @Test
+    public void test_AutocompleteTitleNoMatch() {
+        Assert.assertTrue(browseMovies.autocompleteTitle("xyz").isEmpty());
+    }
+
     // Presentation Layer Tests
     @Test
     public void testPL_InvalidMenuChoiceOutOfRange() {
@@ -251,6 +457,24 @@ public class testBrowsing {
         }
     }
 
+    @Test
+    public void testPL_MenuOptionsInNumericOrder() {
+        PrintStream originalOut = System.out;
+        try {
+            ByteArrayOutputStream outContent = new ByteArrayOutputStream();
+            System.setOut(new PrintStream(outContent));
+            browseMovies.displayMenu();
+
+            String output = outContent.toString();
+            for (int option = 1; option < 11; option++) {
+                Assert.assertTrue("Option " + option + " should come before option " + (option + 1),
+                        output.indexOf(option + ". ") < output.indexOf((option + 1) + ". "));
+            }
+        } finally {
+            System.setOut(originalOut);
+        }
+    }
+
     @Test
     public void testPL_InvalidMenuChoiceZero() {
         InputStream originalIn = System.in;
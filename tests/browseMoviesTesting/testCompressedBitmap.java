@@ -0,0 +1,171 @@
+package tests.browseMoviesTesting;
+
+import org.junit.Assert;
+import org.junit.Test;
+import src.helpers.compressedBitmap;
+
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * Test suite for the compressed bitmap used for id sets
+ */
+public class testCompressedBitmap {
+
+    // 1. Adding, finding and removing single values
+    @Test
+    public void test_AddContainsRemove() {
+        compressedBitmap bitmap = compressedBitmap.of(3, 70000, 5, 3);
+        Assert.assertEquals(3, bitmap.cardinality());
+        Assert.assertTrue(bitmap.contains(70000));
+        Assert.assertFalse(bitmap.contains(4));
+        bitmap.remove(70000);
+        Assert.assertFalse(bitmap.contains(70000));
+        Assert.assertArrayEquals(new int[]{3, 5}, bitmap.toArray());
+        bitmap.remove(3);
+        bitmap.remove(5);
+        Assert.assertTrue(bitmap.isEmpty());
+    }
+
+    // 2. Negative values are rejected
+    @Test(expected = IllegalArgumentException.class)
+    public void test_NegativeValue() {
+        new compressedBitmap().add(-1);
+    }
+
+    // 3. A chunk that grows past 4096 values and shrinks back keeps every value
+    @Test
+    public void test_ArrayBitmapSwitch() {
+        compressedBitmap bitmap = new compressedBitmap();
+        for (int i = 0; i < 10000; i += 2) bitmap.add(i);
+        Assert.assertEquals(5000, bitmap.cardinality());
+        for (int i = 0; i < 4000; i += 2) bitmap.remove(i);
+        Assert.assertEquals(3000, bitmap.cardinality());
+        Assert.assertTrue(bitmap.contains(9998));
+        Assert.assertFalse(bitmap.contains(3998));
+    }
+
+    // 4. AND, OR and ANDNOT match BitSet over sparse, dense and run-heavy sets
+    @Test
+    public void test_OperationsMatchBitSet() {
+        Random random = new Random(7);
+        for (int round = 0; round < 20; round++) {
+            BitSet expectedA = randomSet(random, round % 3);
+            BitSet expectedB = randomSet(random, (round / 3) % 3); // Every pair of kinds
+            compressedBitmap a = toBitmap(expectedA);
+            compressedBitmap b = toBitmap(expectedB);
+            if (round % 2 == 0) {
+                a.runOptimize();
+                b.runOptimize();
+            }
+
+            BitSet and = (BitSet) expectedA.clone();
+            and.and(expectedB);
+            BitSet or = (BitSet) expectedA.clone();
+            or.or(expectedB);
+            BitSet andNot = (BitSet) expectedA.clone();
+            andNot.andNot(expectedB);
+
+            Assert.assertArrayEquals(and.stream().toArray(), compressedBitmap.and(a, b).toArray());
+            Assert.assertArrayEquals(or.stream().toArray(), compressedBitmap.or(a, b).toArray());
+            Assert.assertArrayEquals(andNot.stream().toArray(), compressedBitmap.andNot(a, b).toArray());
+            Assert.assertEquals(and.cardinality(), compressedBitmap.andCardinality(a, b));
+            Assert.assertEquals(expectedA.cardinality(), a.cardinality());
+        }
+    }
+
+    // 5. Operations leave their inputs unchanged
+    @Test
+    public void test_OperationsDoNotModifyInputs() {
+        compressedBitmap a = compressedBitmap.of(1, 2, 3);
+        compressedBitmap b = compressedBitmap.of(3, 4);
+        compressedBitmap union = compressedBitmap.or(a, b);
+        union.add(99);
+        Assert.assertArrayEquals(new int[]{1, 2, 3}, a.toArray());
+        Assert.assertArrayEquals(new int[]{3, 4}, b.toArray());
+    }
+
+    // 6. Long ranges shrink to run containers
+    @Test
+    public void test_RunOptimizeShrinks() {
+        compressedBitmap bitmap = new compressedBitmap();
+        bitmap.addRange(0, 200000);
+        long before = bitmap.sizeInBytes();
+        bitmap.runOptimize();
+        Assert.assertTrue(bitmap.sizeInBytes() < before / 100);
+        Assert.assertEquals(200000, bitmap.cardinality());
+        Assert.assertTrue(bitmap.contains(65536));
+        Assert.assertFalse(bitmap.contains(200000));
+        bitmap.remove(100000);
+        Assert.assertEquals(199999, bitmap.cardinality());
+
+        compressedBitmap ranges = new compressedBitmap();
+        ranges.addRange(100000, 300000);
+        ranges.runOptimize();
+        bitmap.runOptimize();
+        Assert.assertEquals(300000, compressedBitmap.or(bitmap, ranges).cardinality());
+        Assert.assertEquals(99999, compressedBitmap.and(bitmap, ranges).cardinality());
+    }
+
+    // 7. A sparse set is far smaller than a BitSet over the same range
+    @Test
+    public void test_SparseSetIsSmall() {
+        compressedBitmap bitmap = compressedBitmap.of(10, 5_000_000, 9_999_999);
+        Assert.assertTrue(bitmap.sizeInBytes() < 1000);
+    }
+
+    // 8. Serialized sets read back equal, for every container kind
+    @Test
+    public void test_SerializationRoundTrip() throws IOException {
+        compressedBitmap bitmap = compressedBitmap.of(1, 2, 3, 1_000_000);
+        for (int i = 70000; i < 80000; i += 2) bitmap.add(i);
+        bitmap.addRange(200000, 210000);
+        bitmap.runOptimize();
+        compressedBitmap read = compressedBitmap.fromBytes(bitmap.toBytes());
+        Assert.assertEquals(bitmap, read);
+        Assert.assertEquals(bitmap.cardinality(), read.cardinality());
+    }
+
+    // 9. Bytes that are not a bitmap are rejected
+    @Test(expected = IOException.class)
+    public void test_RejectsCorruptBytes() throws IOException {
+        compressedBitmap.fromBytes(new byte[]{1, 2, 3, 4, 0, 0, 0, 0});
+    }
+
+    // 10. Plain word bitmaps such as MovieColumns selections convert both ways
+    @Test
+    public void test_WordsRoundTrip() {
+        long[] words = new long[3000];
+        words[0] = 0b1011L;
+        words[1500] = -1L;
+        words[2999] = 1L << 63;
+        compressedBitmap bitmap = compressedBitmap.fromWords(words);
+        Assert.assertEquals(3 + 64 + 1, bitmap.cardinality());
+        Assert.assertTrue(bitmap.contains(2999 * 64 + 63));
+        Assert.assertArrayEquals(words, bitmap.toWords());
+    }
+
+    // Kind 0: sparse, 1: dense, 2: long runs
+    private static BitSet randomSet(Random random, int kind) {
+        BitSet set = new BitSet();
+        int range = 300000;
+        if (kind == 0) {
+            for (int i = 0; i < 2000; i++) set.set(random.nextInt(range));
+        } else if (kind == 1) {
+            for (int i = 0; i < range; i++) if (random.nextInt(3) == 0) set.set(i);
+        } else {
+            for (int i = 0; i < 40; i++) {
+                int start = random.nextInt(range);
+                set.set(start, Math.min(range, start + random.nextInt(20000)));
+            }
+        }
+        return set;
+    }
+
+    private static compressedBitmap toBitmap(BitSet set) {
+        compressedBitmap bitmap = new compressedBitmap();
+        set.stream().forEach(bitmap::add);
+        return bitmap;
+    }
+}
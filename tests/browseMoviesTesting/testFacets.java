@@ -0,0 +1,108 @@
+package tests.browseMoviesTesting;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import src.primaryUseCases.browseMovies.BrowseMovies;
+import src.primaryUseCases.browseMovies.FacetIndex;
+import src.primaryUseCases.browseMovies.FacetIndex.Facet;
+import src.primaryUseCases.browseMovies.FacetIndex.Facets;
+import src.dataStore;
+import src.dataStore.Movie;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test suite for the facet counts returned with search results
+ */
+public class testFacets {
+
+    private dataStore ds;
+    private BrowseMovies browseMovies;
+
+    @Before
+    public void setUp() {
+        ds = new dataStore();
+        browseMovies = new BrowseMovies(ds);
+    }
+
+    // 1. Every facet of the whole sample catalog
+    @Test
+    public void test_CountsWholeCatalog() {
+        Facets facets = browseMovies.facets(dataStore.getMovies());
+        Assert.assertEquals(5, facets.count(Facet.LANGUAGE, "English"));
+        Assert.assertEquals(1, facets.count(Facet.LANGUAGE, "French"));
+        Assert.assertEquals(1, facets.count(Facet.LANGUAGE, "Arabic"));
+        Assert.assertEquals(3, facets.count(Facet.HALL_TYPE, "Standard"));
+        Assert.assertEquals(2, facets.count(Facet.HALL_TYPE, "IMAX"));
+        Assert.assertEquals(1, facets.count(Facet.AGE_BAND, "All ages"));
+        Assert.assertEquals(3, facets.count(Facet.AGE_BAND, "13+"));
+        Assert.assertEquals(1, facets.count(Facet.AGE_BAND, "16+"));
+        Assert.assertEquals(2, facets.count(Facet.AGE_BAND, "18+"));
+        Assert.assertEquals(4, facets.count(Facet.RATING, "8-10"));
+        Assert.assertEquals(1, facets.count(Facet.RATING, "0-2"));
+    }
+
+    // 2. Text facets come most frequent first and leave out values with no results
+    @Test
+    public void test_OrderAndEmptyValues() {
+        Facets facets = browseMovies.facets(browseMovies.searchMoviesByLanguage("english"));
+        Map<String, Integer> languages = facets.get(Facet.LANGUAGE);
+        Assert.assertEquals(1, languages.size());
+        Assert.assertEquals(Integer.valueOf(5), languages.get("English"));
+        Assert.assertEquals(Integer.valueOf(2), facets.get(Facet.HALL_TYPE).values().iterator().next());
+        Assert.assertEquals(1, facets.count(Facet.HALL_TYPE, "VIP"));
+        Assert.assertEquals(0, facets.count(Facet.LANGUAGE, "French"));
+    }
+
+    // 3. Counting from the rating column's bitmap matches counting the result list
+    @Test
+    public void test_BitmapMatchesList() {
+        Facets fromBitmap = browseMovies.facetsForRating(5.0, 10.0);
+        Facets fromList = browseMovies.facets(browseMovies.searchMoviesByRating("5", "10"));
+        Assert.assertEquals(fromList.toString(), fromBitmap.toString());
+        Assert.assertEquals(1, fromBitmap.count(Facet.RATING, "4-6"));
+    }
+
+    // 4. Languages that differ only by case or accents share one value, named as first seen
+    @Test
+    public void test_LanguagesFoldTogether() {
+        browseMovies.facets(dataStore.getMovies());
+        Movie movie = dataStore.getMovies().get(2);
+        movie.setLanguage("FRENCH");
+        Facets facets = browseMovies.facets(dataStore.getMovies());
+        Assert.assertEquals(1, facets.count(Facet.LANGUAGE, "French"));
+        Assert.assertEquals(0, facets.count(Facet.LANGUAGE, "FRENCH"));
+    }
+
+    // 5. Edits to a movie move it to its new values
+    @Test
+    public void test_FollowsMovieEdits() {
+        FacetIndex index = new FacetIndex();
+        Assert.assertEquals(2, index.count(dataStore.getMovies()).count(Facet.AGE_BAND, "18+"));
+        dataStore.getMovies().get(1).setAgeRestriction(16);
+        Facets facets = index.count(dataStore.getMovies());
+        Assert.assertEquals(1, facets.count(Facet.AGE_BAND, "18+"));
+        Assert.assertEquals(2, facets.count(Facet.AGE_BAND, "16+"));
+    }
+
+    // 6. Movies that are not in the catalog are not counted
+    @Test
+    public void test_IgnoresUnknownMovies() {
+        List<Movie> results = new ArrayList<>(dataStore.getMovies().subList(0, 2));
+        results.add(new Movie("Elsewhere", new String[]{"Nobody"}, "Not listed.", 0, 5.0, "German", 90,
+                new String[]{"1:00 PM"}, "3D"));
+        Facets facets = browseMovies.facets(results);
+        Assert.assertEquals(0, facets.count(Facet.LANGUAGE, "German"));
+        Assert.assertEquals(2, facets.count(Facet.LANGUAGE, "English"));
+    }
+
+    // 7. The facet line printed under search results
+    @Test
+    public void test_FacetLine() {
+        Facets facets = browseMovies.facets(browseMovies.searchMoviesByTitle("amelie"));
+        Assert.assertEquals("French (1) · Standard (1) · 13+ (1) · 4-6 (1)", facets.toString());
+    }
+}
@@ -0,0 +1,103 @@
+package tests.browseMoviesTesting;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import src.primaryUseCases.browseMovies.BrowseMovies;
+import src.primaryUseCases.browseMovies.ParallelSearch;
+import src.dataStore;
+import src.dataStore.Movie;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Predicate;
+
+/**
+ * Test suite for the fork-join search path of Browse Movies
+ */
+public class testParallelSearch {
+
+    private static final int LARGE_CATALOG = 50_000;
+
+    private ForkJoinPool pool;
+    private List<Movie> catalog;
+
+    @Before
+    public void setUp() {
+        new dataStore();
+        pool = new ForkJoinPool(4);
+        catalog = new ArrayList<>();
+        for (int i = 0; i < LARGE_CATALOG; i++) {
+            catalog.add(new Movie("Movie " + i, new String[]{"Actor"}, "Summary", 0, (i % 100) / 10.0,
+                    i % 3 == 0 ? "French" : "English", 100, new String[]{"6:00 PM"}, "Standard"));
+        }
+    }
+
+    @After
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private static List<Movie> sequential(List<Movie> movies, Predicate<Movie> matches) {
+        List<Movie> results = new ArrayList<>();
+        for (Movie movie : movies) {
+            if (matches.test(movie)) results.add(movie);
+        }
+        return results;
+    }
+
+    // 1. Parallel results are the same movies in catalog order
+    @Test
+    public void test_SameResultsInCatalogOrder() {
+        ParallelSearch search = new ParallelSearch(pool);
+        Predicate<Movie> highlyRated = movie -> movie.getImdbRating() >= 7.5;
+
+        Assert.assertTrue(search.isParallel(catalog.size()));
+        Assert.assertEquals(sequential(catalog, highlyRated), search.filter(catalog, highlyRated));
+    }
+
+    // 2. Small catalogs and single threads stay on the sequential path
+    @Test
+    public void test_AdaptiveThreshold() {
+        Assert.assertFalse(new ParallelSearch(pool).isParallel(7));
+        Assert.assertFalse(new ParallelSearch(pool).isParallel(4 * ParallelSearch.MIN_CHUNK - 1));
+
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            Assert.assertFalse(new ParallelSearch(single).isParallel(LARGE_CATALOG));
+        } finally {
+            single.shutdown();
+        }
+    }
+
+    // 3. Browse searches give the same answer on a large catalog
+    @Test
+    public void test_BrowseSearchOnLargeCatalog() {
+        BrowseMovies browse = new BrowseMovies(new dataStore());
+        dataStore.setMovies(catalog);
+        browse.setSearchPool(pool);
+
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            Assert.assertEquals(sequential(catalog, m -> m.getLanguage().equals("French")),
+                    browse.searchMoviesByLanguage("french"));
+            Assert.assertEquals(sequential(catalog, m -> m.getImdbRating() >= 2 && m.getImdbRating() <= 3),
+                    browse.searchMoviesByRating("2", "3"));
+            Assert.assertEquals(sequential(catalog, m -> m.getTitle().contains("Movie 4999")),
+                    browse.searchMoviesByTitle("movie 4999"));
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    // 4. A pool is required
+    @Test(expected = IllegalArgumentException.class)
+    public void test_NullPool() {
+        new ParallelSearch(null);
+    }
+}
@@ -0,0 +1,94 @@
+package tests.browseMoviesTesting;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import src.primaryUseCases.browseMovies.BrowseMovies;
+import src.primaryUseCases.browseMovies.QueryCache;
+import src.dataStore;
+import src.dataStore.Movie;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Test suite for the search result cache of Browse Movies
+ */
+public class testQueryCache {
+
+    private BrowseMovies browseMovies;
+
+    @Before
+    public void setUp() {
+        browseMovies = new BrowseMovies(new dataStore());
+    }
+
+    // 1. Repeating a search is served from the cache
+    @Test
+    public void test_RepeatedSearchHits() {
+        List<Movie> first = browseMovies.searchMoviesByLanguage("English");
+        List<Movie> second = browseMovies.searchMoviesByLanguage("  ENGLISH ");
+        Assert.assertEquals(first, second);
+
+        QueryCache cache = browseMovies.getQueryCache();
+        Assert.assertEquals(1, cache.getMisses());
+        Assert.assertEquals(1, cache.getHits());
+    }
+
+    // 2. Title queries are normalized before lookup
+    @Test
+    public void test_TitleNormalization() {
+        browseMovies.searchMoviesByTitle("the  dark");
+        List<Movie> results = browseMovies.searchMoviesByTitle("The Dark ");
+        Assert.assertEquals(1, results.size());
+        Assert.assertEquals(1, browseMovies.getQueryCache().getHits());
+    }
+
+    // 3. Changing the catalog invalidates cached results
+    @Test
+    public void test_CatalogChangeInvalidates() {
+        Assert.assertEquals(3, browseMovies.searchMoviesByRating("9", "10").size());
+
+        dataStore.getMovies().get(0).setImdbRating(9.5);
+        Assert.assertEquals(4, browseMovies.searchMoviesByRating("9", "10").size());
+
+        dataStore.getMovies().add(new Movie("Heat", new String[]{"Al Pacino"}, "A heist.", 15, 9.9,
+                "English", 170, new String[]{"8:00 PM"}, "IMAX"));
+        Assert.assertEquals(5, browseMovies.searchMoviesByRating("9", "10").size());
+
+        QueryCache cache = browseMovies.getQueryCache();
+        Assert.assertEquals(0, cache.getHits());
+        Assert.assertEquals(2, cache.getInvalidations());
+    }
+
+    // 4. Callers get their own copy of the results
+    @Test
+    public void test_ResultsAreCopies() {
+        List<Movie> results = browseMovies.searchMoviesByTitle("Inception");
+        results.clear();
+        Assert.assertEquals(1, browseMovies.searchMoviesByTitle("Inception").size());
+    }
+
+    // 5. The least recently used query is evicted when the cache is full
+    @Test
+    public void test_LruEviction() {
+        QueryCache cache = new QueryCache(2);
+        cache.get("a", ArrayList::new);
+        cache.get("b", ArrayList::new);
+        cache.get("a", ArrayList::new); // "b" is now the least recently used
+        cache.get("c", ArrayList::new);
+
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getEvictions());
+        cache.get("a", ArrayList::new);
+        Assert.assertEquals(2, cache.getHits());
+        cache.get("b", ArrayList::new);
+        Assert.assertEquals(4, cache.getMisses());
+    }
+
+    // 6. The capacity must be positive
+    @Test(expected = IllegalArgumentException.class)
+    public void test_InvalidCapacity() {
+        new QueryCache(0);
+    }
+}
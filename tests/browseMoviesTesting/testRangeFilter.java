@@ -0,0 +1,101 @@
+package tests.browseMoviesTesting;
+
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import src.primaryUseCases.browseMovies.MovieColumns;
+import src.primaryUseCases.browseMovies.RangeKernel;
+import src.primaryUseCases.browseMovies.ScalarRangeKernel;
+import src.dataStore;
+import src.dataStore.Movie;
+
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test suite for the column range filters behind the rating search
+ */
+public class testRangeFilter {
+
+    private final RangeKernel scalar = new ScalarRangeKernel();
+
+    @Before
+    public void setUp() {
+        new dataStore();
+    }
+
+    // 1. The scalar kernel sets exactly the bits of the rows in range
+    @Test
+    public void test_ScalarSelection() {
+        double[] column = {1.0, 5.0, 7.0, 7.5, 10.0};
+        long[] selection = new long[1];
+        scalar.selectBetween(column, column.length, 5.0, 7.5, selection);
+        Assert.assertEquals(0b01110L, selection[0]);
+    }
+
+    // 2. The loaded kernel (vector when enabled) agrees with the scalar one
+    @Test
+    public void test_LoadedKernelMatchesScalar() {
+        crossCheck(MovieColumns.loadKernel());
+    }
+
+    // 3. The vector kernel itself, when this JVM can run it
+    @Test
+    public void test_VectorKernelMatchesScalar() {
+        RangeKernel kernel = MovieColumns.loadVectorKernel();
+        Assume.assumeTrue("The vector kernel is not available", kernel != null);
+        crossCheck(kernel);
+    }
+
+    private void crossCheck(RangeKernel kernel) {
+        Random random = new Random(42);
+        for (int rows : new int[]{0, 1, 7, 63, 64, 65, 1000, 4099}) {
+            double[] ratings = new double[rows];
+            int[] durations = new int[rows];
+            for (int i = 0; i < rows; i++) {
+                ratings[i] = random.nextInt(101) / 10.0; // Many values right on the bounds
+                durations[i] = 60 + random.nextInt(150);
+            }
+            int words = (rows + 63) / 64;
+
+            long[] expected = new long[words];
+            long[] actual = new long[words];
+            scalar.selectBetween(ratings, rows, 7.0, 9.0, expected);
+            kernel.selectBetween(ratings, rows, 7.0, 9.0, actual);
+            Assert.assertArrayEquals("ratings, " + rows + " rows", expected, actual);
+
+            expected = new long[words];
+            actual = new long[words];
+            scalar.selectBetween(durations, rows, 90, 120, expected);
+            kernel.selectBetween(durations, rows, 90, 120, actual);
+            Assert.assertArrayEquals("durations, " + rows + " rows", expected, actual);
+        }
+    }
+
+    // 4. Columns follow the catalog and return movies in catalog order
+    @Test
+    public void test_ColumnsFollowCatalog() {
+        MovieColumns columns = new MovieColumns();
+        List<Movie> movies = dataStore.getMovies();
+        Assert.assertEquals(List.of(movies.get(1), movies.get(4), movies.get(5)), columns.ratingBetween(9, 10));
+
+        movies.get(0).setImdbRating(9.1);
+        Assert.assertEquals(List.of(movies.get(0), movies.get(1), movies.get(4), movies.get(5)),
+                columns.ratingBetween(9, 10));
+        Assert.assertEquals(List.of(movies.get(1), movies.get(4)), columns.durationBetween(150, 175));
+    }
+
+    // 5. A kernel is required
+    @Test(expected = IllegalArgumentException.class)
+    public void test_NullKernel() {
+        new MovieColumns(null);
+    }
+
+    // 6. The vector kernel is only used when asked for
+    @Test
+    public void test_VectorKernelIsOptIn() {
+        Assume.assumeFalse(Boolean.getBoolean(MovieColumns.VECTOR_KERNEL_PROPERTY));
+        Assert.assertTrue(MovieColumns.loadKernel() instanceof ScalarRangeKernel);
+    }
+}
@@ -0,0 +1,113 @@
+package tests.browseMoviesTesting;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import src.primaryUseCases.browseMovies.BrowseMovies;
+import src.primaryUseCases.browseMovies.MovieColumns;
+import src.primaryUseCases.browseMovies.SortedListings;
+import src.primaryUseCases.browseMovies.SortedListings.SortKey;
+import src.dataStore;
+import src.dataStore.Movie;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Test suite for the pre-sorted catalog listings
+ */
+public class testSortedListings {
+
+    private SortedListings listings;
+    private List<Movie> movies;
+
+    @Before
+    public void setUp() {
+        new dataStore();
+        listings = new SortedListings();
+        movies = dataStore.getMovies();
+    }
+
+    private static List<String> titles(List<Movie> movies) {
+        List<String> titles = new ArrayList<>();
+        for (Movie movie : movies) titles.add(movie.getTitle());
+        return titles;
+    }
+
+    // 1. Top-k by rating, highest first, ties in catalog order
+    @Test
+    public void test_TopByRating() {
+        Assert.assertEquals(List.of("The Godfather", "Perfect Score", "The Dark Knight"),
+                titles(listings.top(SortKey.RATING, 3)));
+    }
+
+    // 2. Titles A to Z, ignoring case, and paging
+    @Test
+    public void test_TitlePages() {
+        Assert.assertEquals(List.of("Amélie", "Bab Alharra", "Inception"), titles(listings.page(SortKey.TITLE, 0, 3)));
+        Assert.assertEquals(List.of("The Worst Film Ever"), titles(listings.page(SortKey.TITLE, 2, 3)));
+        Assert.assertTrue(listings.page(SortKey.TITLE, 3, 3).isEmpty());
+    }
+
+    // 3. New movies are merged in on the next read
+    @Test
+    public void test_NewMoviesAreMerged() {
+        listings.top(SortKey.DURATION, 1);
+        movies.add(new Movie("Short", new String[]{"Actor"}, "Short film.", 0, 6.0, "English", 20,
+                new String[]{"6:00 PM"}, "Standard"));
+        Assert.assertEquals("Short", listings.top(SortKey.DURATION, 1).get(0).getTitle());
+    }
+
+    // 4. Edited movies move to their new place
+    @Test
+    public void test_EditedMovieMoves() {
+        listings.top(SortKey.RATING, 1);
+        movies.get(6).setImdbRating(10.0);
+        movies.get(0).setTitle("aaa Inception");
+        Assert.assertEquals(List.of("The Godfather", "Perfect Score", "The Worst Film Ever"),
+                titles(listings.top(SortKey.RATING, 3)));
+        Assert.assertEquals("aaa Inception", listings.top(SortKey.TITLE, 1).get(0).getTitle());
+    }
+
+    // 5. A selection bitmap limits the listing
+    @Test
+    public void test_SortedSelection() {
+        long[] upTo150 = new MovieColumns().selectDurationBetween(0, 150);
+        Assert.assertEquals(List.of("The Worst Film Ever", "Perfect Score"),
+                titles(listings.top(SortKey.DURATION, upTo150, 2)));
+    }
+
+    // 6. A larger catalog matches a full sort
+    @Test
+    public void test_MatchesFullSort() {
+        Random random = new Random(7);
+        List<Movie> catalog = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            catalog.add(new Movie("Movie " + random.nextInt(500), new String[]{"Actor"}, "Summary", 0,
+                    random.nextInt(101) / 10.0, "English", 60 + random.nextInt(120), new String[]{"6:00 PM"}, "IMAX"));
+            if (i == 1000) {
+                dataStore.setMovies(catalog);
+                listings.top(SortKey.RATING, 1); // Half sorted, half merged later
+            }
+        }
+        List<Movie> expected = new ArrayList<>(catalog);
+        expected.sort(Comparator.comparingDouble(Movie::getImdbRating).reversed()); // Stable, like the listings
+        Assert.assertEquals(expected.subList(0, 50), listings.top(SortKey.RATING, 50));
+
+        expected = new ArrayList<>(catalog);
+        expected.sort(Comparator.comparingInt(Movie::getDuration));
+        Assert.assertEquals(expected.subList(1500, 1600), listings.page(SortKey.DURATION, 15, 100));
+    }
+
+    // 7. Browse lists sorted pages starting at page 1
+    @Test
+    public void test_BrowseSortedListing() {
+        BrowseMovies browse = new BrowseMovies(new dataStore());
+        Assert.assertEquals(7, browse.listMoviesSorted("Duration", 1).size());
+        Assert.assertTrue(browse.listMoviesSorted("price", 1).isEmpty());
+        Assert.assertTrue(browse.listMoviesSorted("title", 2).isEmpty());
+        Assert.assertTrue(browse.listMoviesSorted("title", 0).isEmpty());
+    }
+}
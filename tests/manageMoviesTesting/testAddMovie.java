@@ -5,6 +5,8 @@ import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.util.Scanner;
 import src.primaryUseCases.manageMovies.AddMovie;
+import src.primaryUseCases.manageMovies.HallTimetable;
+import src.helpers.timeOfDay;
 import src.primaryUseCases.manageMovies.Movie; 
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -1001,4 +1003,85 @@ class testAddMovie {
         assertEquals(125, m.getDuration());
     }
 
+    // ------------------------------
+    // TC32: Overlapping show time in the same hall -> retry
+    // ------------------------------
+    @Test
+    void TC32_OverlappingShowTimeRetry() {
+        HallTimetable timetable = new HallTimetable();
+        timetable.addScreening("IMAX", "Existing Movie", 10 * 60, 120); // blocks 10:00 - 12:15
+
+        String in =
+                "Overlap Movie\n" +
+                        "Actor One\n" +
+                        "Actor Two\n" +
+                        "Actor Three\n" +
+                        "Summary text\n" +
+                        "13\n" +
+                        "7.4\n" +
+                        "English\n" +
+                        "100\n" +
+                        "imax\n" +     // hall is asked before show times
+                        "11:00\n" +    // overlaps Existing Movie
+                        "12:15\n" +    // runs until 14:10 with cleanup
+                        "14:00\n" +    // overlaps the 12:15 screening
+                        "14:05\n" +    // still overlapping
+                        "14:10\n" +
+                        "16:05\n" +
+                        "18:00\n" +
+                        "19:55\n";
+
+        Scanner scanner = new Scanner(new ByteArrayInputStream(in.getBytes()));
+        addMovie = new AddMovie(scanner, timetable);
+        addMovie.addMovie();
+
+        Movie m = addMovie.getMovies().get(0);
+        assertEquals("IMAX", m.getHallType());
+        assertArrayEquals(
+                new String[]{"12:15 PM", "14:10 PM", "16:05 PM", "18:00 PM", "19:55 PM"},
+                m.getShowTimes()
+        );
+    }
+
+    // ------------------------------
+    // TC33: Timetable conflicts and free slots
+    // ------------------------------
+    @Test
+    void TC33_TimetableFreeSlots() {
+        HallTimetable timetable = new HallTimetable();
+        timetable.addScreening("VIP", "A", 18 * 60, 105);      // 18:00 - 20:00 with cleanup
+        timetable.addScreening("VIP", "B", 20 * 60 + 30, 90);  // 20:30 - 22:15 with cleanup
+
+        assertEquals("A", timetable.findConflict("vip", 19 * 60, 30));
+        assertNull(timetable.findConflict("Standard", 19 * 60, 30));
+        assertEquals(22 * 60 + 15, timetable.nextFreeSlot("VIP", 18 * 60, 60));
+        assertEquals(20 * 60, timetable.nextFreeSlot("VIP", 18 * 60, 15));
+    }
+
+    // ------------------------------
+    // TC34: Screening past midnight blocks the start of the day
+    // ------------------------------
+    @Test
+    void TC34_TimetableWrapsPastMidnight() {
+        HallTimetable timetable = new HallTimetable();
+        timetable.addScreening("3D", "Late Show", 23 * 60, 120); // until 01:15 with cleanup
+
+        assertEquals("Late Show", timetable.findConflict("3D", 60, 30));
+        assertNull(timetable.findConflict("3D", 75, 30));
+    }
+
+    // ------------------------------
+    // TC35: Late-evening screening that would run into an early show after midnight
+    // ------------------------------
+    @Test
+    void TC35_TimetableNoSlotAcrossMidnight() {
+        HallTimetable timetable = new HallTimetable();
+        timetable.addScreening("3D", "Early Show", 30, 60);           // 00:30 - 01:45 with cleanup
+        timetable.addScreening("3D", "Evening Show", 21 * 60, 90);    // 21:00 - 22:45 with cleanup
+
+        assertEquals("Early Show", timetable.findConflict("3D", 23 * 60, 120));
+        assertEquals(timeOfDay.INVALID, timetable.nextFreeSlot("3D", 20 * 60, 180));
+        assertEquals(22 * 60 + 45, timetable.nextFreeSlot("3D", 20 * 60, 60));
+    }
+
 }
@@ -0,0 +1,265 @@
+package tests.manageMoviesTesting;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import src.catalogChangeFeed;
+import src.catalogChangeFeed.Change;
+import src.catalogChangeFeed.Subscription;
+import src.catalogChangeFeed.Type;
+import src.dataStore;
+import src.dataStore.Movie;
+import src.catalogIndex;
+import src.primaryUseCases.bookingMovies.BookingMovies;
+import src.primaryUseCases.bookingMovies.TitleBkTree;
+import src.primaryUseCases.browseMovies.ActorIndex;
+import src.primaryUseCases.browseMovies.ShowtimeIndex;
+import src.primaryUseCases.browseMovies.SummaryIndex;
+import src.primaryUseCases.browseMovies.TitleAutocomplete;
+import src.primaryUseCases.manageMovies.AddMovie;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Scanner;
+
+public class testCatalogChangeFeed {
+
+    private catalogChangeFeed feed;
+
+    @Before
+    public void setUp() {
+        new dataStore();
+        feed = dataStore.getCatalogFeed();
+    }
+
+    private static Movie movie(String title) {
+        return new Movie(title, new String[]{"Actor"}, "Summary", 0, 7.0, "English", 100,
+                new String[]{"6:00 PM"}, "Standard");
+    }
+
+    // 1. Sequence numbers only grow, also across a new dataStore
+    @Test
+    public void test_SequenceIsMonotonic() {
+        long before = feed.getSequence();
+        new dataStore();
+        long after = feed.getSequence();
+        Assert.assertTrue(after > before);
+        Assert.assertSame(feed, dataStore.getCatalogFeed());
+    }
+
+    // 2. Edits are published with the movie's position in the catalog
+    @Test
+    public void test_EditsArePublished() {
+        Subscription changes = feed.subscribe(16);
+        Movie godfather = dataStore.getMovies().get(1);
+
+        godfather.setImdbRating(9.2);
+        godfather.setShowTimes(new String[]{"8:00 PM"});
+
+        Change updated = changes.poll();
+        Assert.assertEquals(Type.MOVIE_UPDATED, updated.getType());
+        Assert.assertEquals(1, updated.getMovieId());
+        Assert.assertSame(godfather, updated.getMovie());
+
+        Change showtimes = changes.poll();
+        Assert.assertEquals(Type.SHOWTIME_CHANGED, showtimes.getType());
+        Assert.assertEquals(updated.getSequence() + 1, showtimes.getSequence());
+        Assert.assertNull(changes.poll());
+        Assert.assertEquals(showtimes.getSequence(), changes.getLastSequence());
+    }
+
+    // 3. Movies added directly to the list and a replaced list are noticed
+    @Test
+    public void test_AddedAndReplaced() {
+        Subscription changes = feed.subscribe(16);
+        dataStore.getMovies().add(movie("Heat"));
+
+        Change added = changes.poll();
+        Assert.assertEquals(Type.MOVIE_ADDED, added.getType());
+        Assert.assertEquals(7, added.getMovieId());
+
+        List<Movie> catalog = new ArrayList<>();
+        catalog.add(movie("Alien"));
+        dataStore.setMovies(catalog);
+        Assert.assertEquals(Type.CATALOG_REPLACED, changes.poll().getType());
+        Change alien = changes.poll();
+        Assert.assertEquals("Alien", alien.getMovie().getTitle());
+        Assert.assertEquals(0, alien.getMovieId());
+    }
+
+    // 4. Movies outside the catalog are not published
+    @Test
+    public void test_MovieOutsideCatalog() {
+        Subscription changes = feed.subscribe(16);
+        movie("Loose").setTitle("Still loose");
+        Assert.assertNull(changes.poll());
+    }
+
+    // 5. A full queue loses its changes until the subscriber resyncs
+    @Test
+    public void test_BoundedQueue() {
+        Subscription changes = feed.subscribe(2);
+        Movie inception = dataStore.getMovies().get(0);
+        for (int i = 0; i < 3; i++) {
+            inception.setDuration(150 + i);
+        }
+        Assert.assertTrue(changes.isLost());
+        Assert.assertNull(changes.poll());
+
+        changes.resync();
+        Assert.assertFalse(changes.isLost());
+        inception.setDuration(160);
+        Assert.assertEquals(Type.MOVIE_UPDATED, changes.poll().getType());
+    }
+
+    // 6. A subscriber can resume after the last sequence it saw
+    @Test
+    public void test_Resume() {
+        long seen = feed.getSequence();
+        dataStore.getMovies().get(2).setLanguage("French (subtitled)");
+        dataStore.getMovies().get(3).setSummary("Damascus in the 1920s");
+
+        Subscription resumed = feed.subscribe(seen, 16);
+        Assert.assertEquals(seen + 1, resumed.poll().getSequence());
+        Assert.assertEquals(seen + 2, resumed.poll().getSequence());
+        Assert.assertNull(resumed.poll());
+
+        // Too far back to replay
+        for (int i = 0; i < catalogChangeFeed.DEFAULT_HISTORY; i++) {
+            dataStore.getMovies().get(0).setDuration(148);
+        }
+        Assert.assertTrue(feed.subscribe(seen, 16).isLost());
+        Assert.assertThrows(IllegalArgumentException.class, () -> feed.subscribe(feed.getSequence() + 1, 16));
+    }
+
+    // 7. Only the requested kinds of change are queued
+    @Test
+    public void test_FilteredSubscription() {
+        Subscription changes = feed.subscribe(1, EnumSet.of(Type.SHOWTIME_CHANGED));
+        dataStore.getMovies().add(movie("Heat"));
+        dataStore.getMovies().get(0).setTitle("Inception (IMAX)");
+        dataStore.getMovies().get(0).setShowTimes(new String[]{"9:00 AM"});
+        Assert.assertFalse(changes.isLost());
+        Assert.assertEquals(Type.SHOWTIME_CHANGED, changes.poll().getType());
+    }
+
+    // 8. Catalog indexes follow edits to movies they already indexed
+    @Test
+    public void test_IndexFollowsShowtimeChange() {
+        ShowtimeIndex index = new ShowtimeIndex();
+        Movie worst = dataStore.getMovies().get(6);
+        Assert.assertTrue(index.startingBetween(23 * 60, 23 * 60).contains(worst));
+
+        worst.setShowTimes(new String[]{"9:30 AM"});
+        Assert.assertFalse(index.startingBetween(23 * 60, 23 * 60).contains(worst));
+        Assert.assertTrue(index.startingBetween(9 * 60 + 30, 9 * 60 + 30).contains(worst));
+    }
+
+    // 9. AddMovie can publish new movies into the shared catalog
+    @Test
+    public void test_AddMoviePublishes() {
+        String in = "Heat\nAl Pacino\nRobert De Niro\nVal Kilmer\nA heist in Los Angeles\n"
+                + "15\n8.3\nEnglish\n170\n10:00\n13:15\n16:30\n19:45\n22:00\nIMAX\n";
+        AddMovie addMovie = new AddMovie(new Scanner(new ByteArrayInputStream(in.getBytes())));
+        addMovie.setPublishToCatalog(true);
+        Subscription changes = feed.subscribe(16);
+
+        addMovie.addMovie();
+        Change added = changes.poll();
+        Assert.assertEquals(Type.MOVIE_ADDED, added.getType());
+        Assert.assertEquals("Heat", added.getMovie().getTitle());
+        Assert.assertEquals(8, dataStore.getMovies().size());
+
+        // Titles already in the catalog are rejected
+        AddMovie again = new AddMovie(new Scanner(new ByteArrayInputStream("inception\n".getBytes())));
+        again.setPublishToCatalog(true);
+        again.addMovie();
+        Assert.assertTrue(again.getMovies().isEmpty());
+        Assert.assertEquals(8, dataStore.getMovies().size());
+    }
+
+    // 10. Adding an earlier showtime leaves every screening's seats where they were
+    @Test
+    public void test_ShowtimeEditKeepsScreenings() {
+        BookingMovies booking = new BookingMovies(new dataStore());
+        Movie inception = dataStore.getMovies().get(0);
+        booking.bookMovie("Inception", "10:00 AM");
+        inception.setShowTimes(new String[]{"8:00 AM", "10:00 AM", "1:00 PM", "4:00 PM", "7:00 PM", "10:00 PM"});
+
+        Assert.assertEquals(500, dataStore.getSeatInventory().getAvailable(inception, 8 * 60));
+        Assert.assertEquals(499, dataStore.getSeatInventory().getAvailable(inception, 10 * 60));
+        Assert.assertFalse(booking.bookMovie("Inception", "10:00 PM").isEmpty());
+        Assert.assertEquals(499, dataStore.getSeatInventory().getAvailable(inception, 22 * 60));
+    }
+
+    // 11. Indexes updated in place answer like indexes built after the edits
+    @Test
+    public void test_IncrementalUpdatesMatchRebuild() {
+        ShowtimeIndex showtimes = new ShowtimeIndex();
+        ActorIndex actors = new ActorIndex();
+        SummaryIndex summaries = new SummaryIndex();
+        TitleBkTree titles = new TitleBkTree();
+        TitleAutocomplete autocomplete = new TitleAutocomplete();
+        showtimes.screeningsBetween(0, 1439, 18);
+        actors.search("leo");
+        summaries.search("dreams", 5);
+        titles.closest("incepton", 2, 5);
+        autocomplete.complete("t", 5);
+
+        Movie inception = dataStore.getMovies().get(0);
+        inception.setTitle("The Dream Thief");
+        inception.setSummary("A heist inside a Parisian dream.");
+        inception.setImdbRating(4.0);
+        inception.setAgeRestriction(18);
+        inception.setShowTimes(new String[]{"11:00 PM", "10:00 AM"});
+        dataStore.getMovies().get(5).setTitle("The Perfect Score");
+
+        Assert.assertEquals(new ShowtimeIndex().screeningsBetween(0, 1439, 18).toString(),
+                showtimes.screeningsBetween(0, 1439, 18).toString());
+        Assert.assertEquals(new ShowtimeIndex().screeningsBetween(0, 1439, 13).toString(),
+                showtimes.screeningsBetween(0, 1439, 13).toString());
+        Assert.assertEquals(new ShowtimeIndex().startingBetween(22 * 60, 10 * 60), showtimes.startingBetween(22 * 60, 10 * 60));
+        Assert.assertEquals(new ActorIndex().search("leo"), actors.search("leo"));
+        for (String query : new String[]{"dreams", "parisian dream", "thief", "mafia"}) {
+            Assert.assertEquals(new SummaryIndex().search(query, 5), summaries.search(query, 5));
+        }
+        for (String query : new String[]{"incepton", "dream thef", "perfect scor"}) {
+            Assert.assertEquals(new TitleBkTree().closest(query, 2, 5), titles.closest(query, 2, 5));
+        }
+        for (String prefix : new String[]{"", "t", "the", "the d", "i", "p"}) {
+            Assert.assertEquals(new TitleAutocomplete().complete(prefix, 5), autocomplete.complete(prefix, 5));
+        }
+        Assert.assertTrue(titles.closest("incepton", 2, 5).isEmpty());
+    }
+
+    // 12. Edits queued between two syncs reach an index once per movie
+    @Test
+    public void test_EditsAreCoalesced() {
+        List<Integer> updated = new ArrayList<>();
+        catalogIndex index = new catalogIndex() {
+            @Override
+            protected void clear() {
+            }
+
+            @Override
+            protected void add(int movieId, Movie movie) {
+            }
+
+            @Override
+            protected void update(int movieId, Movie movie) {
+                updated.add(movieId);
+            }
+        };
+        index.sync();
+        Movie godfather = dataStore.getMovies().get(1);
+        for (int i = 0; i < 5; i++) {
+            godfather.setImdbRating(9.0 + i / 10.0);
+        }
+        dataStore.getMovies().get(4).setDuration(150);
+        index.sync();
+        Assert.assertEquals(List.of(1, 4), updated);
+    }
+}